@@ -0,0 +1,47 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Publica os acertos, faltas, inserções e remoções de cada região do cache
+ * de segundo nível (a de {@code Usuario} e a das consultas por e-mail) como
+ * {@code cache.*} com a tag {@code cache=<região>}, no endpoint de métricas
+ * da porta de gerenciamento.
+ *
+ * Os números vêm das estatísticas do próprio Caffeine (monitoring.statistics
+ * no application.conf), então não dependem de
+ * {@code hibernate.generate_statistics}, que fica desligado.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // As regiões são criadas com a SessionFactory, então já existem todas aqui
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrarMetricasDoCache() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory)) return;
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+        for (String regiao : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(regiao), Tags.empty());
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+import java.util.TimeZone;
+
+/**
+ * Expõe o fuso horário padrão da JVM como {@code pensiltik.db.timezone},
+ * o serverTimezone usado na URL do banco quando PENSILTIK_DB_TIMEZONE não
+ * é informado. Fica por último, então qualquer outra fonte o sobrescreve.
+ */
+public class FusoHorarioEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        environment.getPropertySources().addLast(new MapPropertySource("pensiltikFusoHorario",
+                Collections.singletonMap("pensiltik.db.timezone", TimeZone.getDefault().getID())));
+    }
+
+}
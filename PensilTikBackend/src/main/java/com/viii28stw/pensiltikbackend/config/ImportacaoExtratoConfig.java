@@ -0,0 +1,29 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.importacao.RegrasCategoria;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import java.util.Locale;
+
+@Configuration
+public class ImportacaoExtratoConfig {
+
+    // Uma regra por categoria padrão, em extrato.regras.<categoria>=palavra,palavra,...
+    @Bean
+    public RegrasCategoria regrasCategoria(Environment environment,
+                                           @Value("${extrato.categoria-padrao:DESPESAS_PESSOAIS}") DespesaEnum categoriaPadrao) {
+        RegrasCategoria.Builder builder = RegrasCategoria.builder().categoriaPadrao(categoriaPadrao.getCodigo());
+        for (DespesaEnum despesaEnum : DespesaEnum.values()) {
+            String[] palavras = environment.getProperty("extrato.regras."
+                    + despesaEnum.name().toLowerCase(Locale.ROOT).replace('_', '-'), String[].class);
+            if (palavras != null && palavras.length > 0) {
+                builder.regra(despesaEnum.getCodigo(), palavras);
+            }
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class PasswordPolicyConfig {
+
+    @Bean
+    public PasswordPolicy passwordPolicy(Environment environment) {
+        return PasswordPolicy.fromProperties(environment::getProperty);
+    }
+
+}
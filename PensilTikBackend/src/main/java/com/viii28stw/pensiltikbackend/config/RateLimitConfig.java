@@ -0,0 +1,33 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikbackend.ratelimit.LoginRateLimiter;
+import com.viii28stw.pensiltikbackend.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfig {
+    @Value("${login.limite.listras:64}")
+    private int stripes;
+    @Value("${login.limite.intervalo-remocao-segundos:60}")
+    private long evictionIntervalSeconds;
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(
+            @Value("${login.limite.email.capacidade:5}") long emailCapacity,
+            @Value("${login.limite.email.recarga-minutos:5}") long emailRefillMinutes,
+            @Value("${login.limite.ip.capacidade:30}") long ipCapacity,
+            @Value("${login.limite.ip.recarga-minutos:1}") long ipRefillMinutes,
+            MeterRegistry meterRegistry) {
+        return new LoginRateLimiter(
+                new TokenBucketRateLimiter("login-email-limiter", emailCapacity,
+                        Duration.ofMinutes(emailRefillMinutes), stripes, Duration.ofSeconds(evictionIntervalSeconds)),
+                new TokenBucketRateLimiter("login-ip-limiter", ipCapacity,
+                        Duration.ofMinutes(ipRefillMinutes), stripes, Duration.ofSeconds(evictionIntervalSeconds)),
+                meterRegistry);
+    }
+
+}
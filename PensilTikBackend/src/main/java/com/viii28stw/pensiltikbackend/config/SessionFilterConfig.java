@@ -0,0 +1,29 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikbackend.session.SessionStore;
+import com.viii28stw.pensiltikbackend.session.SessionTokenFilter;
+import com.viii28stw.pensiltikbackend.session.SessionTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SessionFilterConfig {
+    @Value("${header.name}")
+    private String headerName;
+    @Value("${ant.pattern}")
+    private String antPattern;
+    @Value("${url.login}")
+    private String urlLogin;
+
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokenService sessionTokenService,
+                                                                         SessionStore sessionStore) {
+        FilterRegistrationBean<SessionTokenFilter> registration = new FilterRegistrationBean<>(
+                new SessionTokenFilter(sessionTokenService, sessionStore, headerName, urlLogin));
+        registration.addUrlPatterns(antPattern.concat("/*"));
+        return registration;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikbackend.session.ClusteredSessionStore;
+import com.viii28stw.pensiltikbackend.session.LocalSessionStore;
+import com.viii28stw.pensiltikbackend.util.IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Configuration
+public class SessionStoreConfig {
+    @Value("${session.idle-ttl-minutes:30}")
+    private long idleTtlMinutes;
+    @Value("${session.eviction-interval-seconds:60}")
+    private long evictionIntervalSeconds;
+
+    @Bean
+    @ConditionalOnProperty(name = "session.store", havingValue = "local", matchIfMissing = true)
+    public LocalSessionStore localSessionStore() {
+        return new LocalSessionStore(Duration.ofMinutes(idleTtlMinutes), Duration.ofSeconds(evictionIntervalSeconds));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "session.store", havingValue = "cluster")
+    public ClusteredSessionStore clusteredSessionStore(
+            @Value("${session.token.secret:}") String secret,
+            @Value("${session.cluster.bind-address:127.0.0.1}") String bindAddress,
+            @Value("${session.cluster.port:9002}") int port,
+            @Value("${session.cluster.peers:}") String[] peers,
+            @Value("${session.cluster.batch-interval-millis:50}") long batchIntervalMillis,
+            @Value("${session.cluster.anti-entropy-interval-seconds:30}") long antiEntropyIntervalSeconds)
+            throws IOException {
+        // Sem segredo cada nó sortearia a sua chave e recusaria os tokens emitidos pelos outros
+        if (secret.trim().isEmpty()) {
+            throw new IllegalStateException("session.store=cluster exige session.token.secret igual em todos os nós");
+        }
+        // O nó derivado do endereço pode se repetir entre hosts, e com ele os códigos gerados
+        if (!IdGenerator.isNoConfigurado()) {
+            throw new IllegalStateException("session.store=cluster exige -Dpensiltik.node-id ou PENSILTIK_NODE_ID "
+                    + "distinto em cada nó");
+        }
+        ClusteredSessionStore clusteredSessionStore = new ClusteredSessionStore(
+                Duration.ofMinutes(idleTtlMinutes), Duration.ofSeconds(evictionIntervalSeconds),
+                Duration.ofMillis(batchIntervalMillis), Duration.ofSeconds(antiEntropyIntervalSeconds),
+                new InetSocketAddress(bindAddress, port), secret.getBytes(StandardCharsets.UTF_8));
+        for (String peer : peers) {
+            if (peer.trim().isEmpty()) continue;
+            String[] hostPort = peer.trim().split(":");
+            clusteredSessionStore.addPeer(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])));
+        }
+        return clusteredSessionStore;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.viii28stw.pensiltikbackend.config;
+
+import com.viii28stw.pensiltikbackend.logging.SlowQueryLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SlowQueryLogConfig {
+
+    // Estático e com o MeterRegistry buscado só ao embrulhar o DataSource, para não
+    // antecipar a criação dos outros beans
+    @Bean
+    public static BeanPostProcessor slowQueryLogPostProcessor(
+            @Value("${sql.lenta.limite-millis:500}") long limiteMillis,
+            @Value("${sql.lenta.amostragem:1.0}") double amostragem,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (limiteMillis <= 0 || !(bean instanceof DataSource)) return bean;
+                return new SlowQueryLog(limiteMillis, amostragem, meterRegistry.getObject()).medir((DataSource) bean);
+            }
+        };
+    }
+
+}
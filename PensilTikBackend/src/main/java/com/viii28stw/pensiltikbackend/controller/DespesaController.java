@@ -0,0 +1,127 @@
+package com.viii28stw.pensiltikbackend.controller;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoExtrato;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriasDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import com.viii28stw.pensiltikbackend.service.ICategoriaDespesaService;
+import com.viii28stw.pensiltikbackend.service.IDespesaService;
+import com.viii28stw.pensiltikbackend.service.IImportacaoExtratoService;
+import com.viii28stw.pensiltikbackend.service.IRelatorioDespesaService;
+import com.viii28stw.pensiltikbackend.session.SessionTokenFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/pensiltik")
+public class DespesaController {
+
+    @Autowired
+    private IDespesaService despesaService;
+    @Autowired
+    private IRelatorioDespesaService relatorioDespesaService;
+    @Autowired
+    private ICategoriaDespesaService categoriaDespesaService;
+    @Autowired
+    private IImportacaoExtratoService importacaoExtratoService;
+
+    // Com a versão que o cliente já tem, responde 304 sem corpo enquanto o catálogo não muda
+    @GetMapping("/buscarcategoriasdespesa")
+    public ResponseEntity<CategoriasDespesaDto> buscarCategoriasDespesa(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                        @RequestParam(required = false) Long versao) {
+        CategoriasDespesaDto categoriasDespesaDto = categoriaDespesaService.buscarCategorias(codigoUsuario);
+        if (versao != null && versao == categoriasDespesaDto.getVersao()) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(categoriasDespesaDto, HttpStatus.OK);
+    }
+
+    @PostMapping("/salvarcategoriadespesa")
+    public ResponseEntity<CategoriaDespesaDto> salvarCategoriaDespesa(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                      @RequestBody @Valid CategoriaDespesaDto categoriaDespesaDto) {
+        return new ResponseEntity<>(categoriaDespesaService.salvarCategoria(codigoUsuario, categoriaDespesaDto), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/deletarcategoriadespesaporid")
+    public ResponseEntity<Boolean> deletarCategoriaDespesaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                @RequestBody CategoriaDespesaDto categoriaDespesaDto) {
+        return new ResponseEntity<>(categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, categoriaDespesaDto.getCodigo()),
+                HttpStatus.OK);
+    }
+
+    @PostMapping("/buscardespesaporid")
+    public ResponseEntity<DespesaDto> buscarDespesaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                         @RequestBody DespesaDto despesaIdDto) {
+        return new ResponseEntity<>(despesaService.buscarDespesaPorId(codigoUsuario, despesaIdDto.getCodigo()), HttpStatus.OK);
+    }
+
+    @GetMapping("/buscardespesasdomes")
+    public ResponseEntity<List<DespesaDto>> buscarDespesasDoMes(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                @RequestParam YearMonth mes) {
+        return new ResponseEntity<>(despesaService.buscarDespesasDoMes(codigoUsuario, mes), HttpStatus.OK);
+    }
+
+    @GetMapping("/buscardespesasporcategoria")
+    public ResponseEntity<List<DespesaDto>> buscarDespesasPorCategoria(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                       @RequestParam Integer categoria,
+                                                                       @RequestParam YearMonth inicio,
+                                                                       @RequestParam YearMonth fim) {
+        return new ResponseEntity<>(despesaService.buscarDespesasPorCategoria(codigoUsuario, categoria, inicio, fim),
+                HttpStatus.OK);
+    }
+
+    @GetMapping("/relatoriodespesas")
+    public ResponseEntity<List<ResumoMensalDespesaDto>> relatorioDespesas(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                          @RequestParam YearMonth inicio,
+                                                                          @RequestParam YearMonth fim) {
+        return new ResponseEntity<>(relatorioDespesaService.buscarResumoMensal(codigoUsuario, inicio, fim), HttpStatus.OK);
+    }
+
+    @PostMapping("/salvardespesa")
+    public ResponseEntity<DespesaDto> salvarDespesa(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                    @RequestBody @Valid DespesaDto despesaDto) {
+        return new ResponseEntity<>(despesaService.salvarDespesa(codigoUsuario, despesaDto), HttpStatus.OK);
+    }
+
+    @PutMapping("/atualizardespesa")
+    public ResponseEntity<DespesaDto> atualizarDespesa(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                       @RequestBody @Valid DespesaDto despesaDto) {
+        return new ResponseEntity<>(despesaService.atualizarDespesa(codigoUsuario, despesaDto), HttpStatus.OK);
+    }
+
+    // O corpo é o arquivo do extrato, lido em fluxo; a codificação vem do charset do Content-Type
+    @PostMapping(value = "/importarextrato", consumes = {"text/csv", "application/x-ofx",
+            MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<RelatorioImportacaoExtratoDto> importarExtrato(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                         @RequestParam FormatoExtrato formato,
+                                                                         HttpServletRequest request) throws IOException {
+        Charset charset = MediaType.parseMediaType(request.getContentType()).getCharset();
+        return new ResponseEntity<>(importacaoExtratoService.importarExtrato(codigoUsuario, request.getInputStream(),
+                formato, charset == null ? StandardCharsets.UTF_8 : charset, request.getContentLengthLong()), HttpStatus.OK);
+    }
+
+    @GetMapping("/progressoimportacaoextrato")
+    public ResponseEntity<ProgressoImportacaoExtratoDto> progressoImportacaoExtrato(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario) {
+        return new ResponseEntity<>(importacaoExtratoService.buscarProgresso(codigoUsuario), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/deletardespesaporid")
+    public ResponseEntity<Boolean> deletarDespesaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                       @RequestBody DespesaDto despesaDto) {
+        return new ResponseEntity<>(despesaService.deletarDespesaPorId(codigoUsuario, despesaDto.getCodigo()), HttpStatus.OK);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.viii28stw.pensiltikbackend.controller;
+
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.dto.TipoRendaDto;
+import com.viii28stw.pensiltikbackend.service.IRendaService;
+import com.viii28stw.pensiltikbackend.session.SessionTokenFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import javax.validation.Valid;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/pensiltik")
+public class RendaController {
+
+    @Autowired
+    private IRendaService rendaService;
+
+    @GetMapping("/buscartiposrenda")
+    public ResponseEntity<List<TipoRendaDto>> buscarTiposRenda(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario) {
+        return new ResponseEntity<>(rendaService.buscarTiposRenda(codigoUsuario), HttpStatus.OK);
+    }
+
+    @PostMapping("/salvartiporenda")
+    public ResponseEntity<TipoRendaDto> salvarTipoRenda(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                        @RequestBody @Valid TipoRendaDto tipoRendaDto) {
+        return new ResponseEntity<>(rendaService.salvarTipoRenda(codigoUsuario, tipoRendaDto), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/deletartiporendaporid")
+    public ResponseEntity<Boolean> deletarTipoRendaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                         @RequestBody TipoRendaDto tipoRendaDto) {
+        return new ResponseEntity<>(rendaService.deletarTipoRendaPorId(codigoUsuario, tipoRendaDto.getCodigo()), HttpStatus.OK);
+    }
+
+    @PostMapping("/buscarrendaporid")
+    public ResponseEntity<RendaDto> buscarRendaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                     @RequestBody RendaDto rendaIdDto) {
+        return new ResponseEntity<>(rendaService.buscarRendaPorId(codigoUsuario, rendaIdDto.getCodigo()), HttpStatus.OK);
+    }
+
+    @GetMapping("/buscarrendasdomes")
+    public ResponseEntity<List<RendaDto>> buscarRendasDoMes(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                            @RequestParam YearMonth mes) {
+        return new ResponseEntity<>(rendaService.buscarRendasDoMes(codigoUsuario, mes), HttpStatus.OK);
+    }
+
+    @PostMapping("/salvarrenda")
+    public ResponseEntity<RendaDto> salvarRenda(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                @RequestBody @Valid RendaDto rendaDto) {
+        return new ResponseEntity<>(rendaService.salvarRenda(codigoUsuario, rendaDto), HttpStatus.OK);
+    }
+
+    @PutMapping("/atualizarrenda")
+    public ResponseEntity<RendaDto> atualizarRenda(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                   @RequestBody @Valid RendaDto rendaDto) {
+        return new ResponseEntity<>(rendaService.atualizarRenda(codigoUsuario, rendaDto), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/deletarrendaporid")
+    public ResponseEntity<Boolean> deletarRendaPorId(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                     @RequestBody RendaDto rendaDto) {
+        return new ResponseEntity<>(rendaService.deletarRendaPorId(codigoUsuario, rendaDto.getCodigo()), HttpStatus.OK);
+    }
+
+}
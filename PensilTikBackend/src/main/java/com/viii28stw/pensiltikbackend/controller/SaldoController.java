@@ -0,0 +1,39 @@
+package com.viii28stw.pensiltikbackend.controller;
+
+import com.viii28stw.pensiltikbackend.model.dto.SaldoDto;
+import com.viii28stw.pensiltikbackend.model.dto.SaldoMensalDto;
+import com.viii28stw.pensiltikbackend.service.ISaldoService;
+import com.viii28stw.pensiltikbackend.session.SessionTokenFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/pensiltik")
+public class SaldoController {
+
+    @Autowired
+    private ISaldoService saldoService;
+
+    @GetMapping("/buscarsaldo")
+    public ResponseEntity<SaldoDto> buscarSaldo(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario) {
+        return new ResponseEntity<>(saldoService.buscarSaldo(codigoUsuario), HttpStatus.OK);
+    }
+
+    @GetMapping("/buscarsaldoanual")
+    public ResponseEntity<SaldoDto> buscarSaldoAnual(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                     @RequestParam int ano) {
+        return new ResponseEntity<>(saldoService.buscarSaldoAnual(codigoUsuario, ano), HttpStatus.OK);
+    }
+
+    @GetMapping("/buscarsaldosmensais")
+    public ResponseEntity<List<SaldoMensalDto>> buscarSaldosMensais(@RequestAttribute(SessionTokenFilter.CODIGO_USUARIO) String codigoUsuario,
+                                                                    @RequestParam YearMonth inicio,
+                                                                    @RequestParam YearMonth fim) {
+        return new ResponseEntity<>(saldoService.buscarSaldosMensais(codigoUsuario, inicio, fim), HttpStatus.OK);
+    }
+
+}
@@ -1,73 +1,114 @@
 package com.viii28stw.pensiltikbackend.controller;
 
+import com.viii28stw.pensiltikbackend.enumeration.FormatoImportacao;
+import com.viii28stw.pensiltikbackend.model.dto.PaginaUsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoDto;
 import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
+import com.viii28stw.pensiltikbackend.ratelimit.LoginRateLimiter;
+import com.viii28stw.pensiltikbackend.service.IImportacaoUsuarioService;
 import com.viii28stw.pensiltikbackend.service.IUsuarioService;
+import com.viii28stw.pensiltikbackend.session.SessionTokenFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/pensiltik")
 public class UsuarioController {
 
-    private final static String USER_LOGGED_IN = "user_logged_in";
-
     @Autowired
     private IUsuarioService usuarioService;
+    @Autowired
+    private IImportacaoUsuarioService importacaoUsuarioService;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/buscarusuarioporid")
-    public ResponseEntity<UsuarioDto> buscarUsuarioPorId(@RequestHeader HashMap<String, Object> headers,
-                                                         @RequestBody @Valid UsuarioDto usuarioIdDto){
-        if(!usuarioService.isUserLoggedIn(String.valueOf(headers.get(USER_LOGGED_IN)))) {
-            return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
-        }
-        UsuarioDto usuarioDto = usuarioService.buscarUsuarioPorId(usuarioIdDto.getCodigo());
+    public ResponseEntity<UsuarioResumoDto> buscarUsuarioPorId(@RequestBody @Valid UsuarioDto usuarioIdDto){
+        UsuarioResumoDto usuarioDto = usuarioService.buscarUsuarioPorId(usuarioIdDto.getCodigo());
         return new ResponseEntity<>(usuarioDto, HttpStatus.OK);
     }
 
     @GetMapping("/buscartodososusuarios")
-    public ResponseEntity<List<UsuarioDto>> buscarTodosOsUsuarios(@RequestHeader HashMap<String, Object> headers) {
-        if(!usuarioService.isUserLoggedIn(String.valueOf(headers.get(USER_LOGGED_IN)))) {
-            return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
-        }
-        List<UsuarioDto> usuariosDto = usuarioService.buscarTodosOsUsuarios();
+    public ResponseEntity<List<UsuarioResumoDto>> buscarTodosOsUsuarios() {
+        List<UsuarioResumoDto> usuariosDto = usuarioService.buscarTodosOsUsuarios();
         return new ResponseEntity<>(usuariosDto, HttpStatus.OK);
     }
 
-    @PostMapping("/salvarusuario")
-    public ResponseEntity<UsuarioDto> salvarUsuario(@RequestHeader HashMap<String, Object> headers,
-                                                    @RequestBody @Valid UsuarioDto usuarioDto) {
-        if(!usuarioService.isUserLoggedIn(String.valueOf(headers.get(USER_LOGGED_IN)))) {
-            return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
+    @GetMapping("/buscarusuariospaginados")
+    public ResponseEntity<PaginaUsuarioDto> buscarUsuariosPaginados(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "50") int tamanho) {
+        try {
+            return new ResponseEntity<>(usuarioService.buscarUsuariosPaginados(cursor, tamanho), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            // Um cursor adulterado é erro de quem chamou, não do servidor
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
+    }
+
+    @GetMapping("/pesquisarusuarios")
+    public ResponseEntity<List<UsuarioResumoDto>> pesquisarUsuarios(@RequestParam String prefixo,
+                                                                    @RequestParam(defaultValue = "20") int limite) {
+        return new ResponseEntity<>(usuarioService.pesquisarUsuarios(prefixo, limite), HttpStatus.OK);
+    }
+
+    @GetMapping("/exportarusuarios")
+    public void exportarUsuarios(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        usuarioService.exportarUsuarios(response.getOutputStream());
+    }
+
+    @PostMapping("/salvarusuario")
+    public ResponseEntity<UsuarioDto> salvarUsuario(@RequestBody @Valid UsuarioDto usuarioDto) {
         return new ResponseEntity<>(usuarioService.salvarUsuario(usuarioDto), HttpStatus.OK);
     }
 
+    @PostMapping(value = "/importarusuarios", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<RelatorioImportacaoDto> importarUsuarios(HttpServletRequest request) throws IOException {
+        FormatoImportacao formato = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_JSON) ? FormatoImportacao.JSON : FormatoImportacao.CSV;
+        return new ResponseEntity<>(importacaoUsuarioService.importarUsuarios(request.getInputStream(), formato),
+                HttpStatus.OK);
+    }
+
     @PutMapping("/atualizarusuario")
-    public ResponseEntity<UsuarioDto> atualizarUsuario(@RequestHeader HashMap<String, Object> headers,
-                                                       @RequestBody @Valid UsuarioDto usuarioDto) {
-        if(!usuarioService.isUserLoggedIn(String.valueOf(headers.get(USER_LOGGED_IN)))) {
-            return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
-        }
+    public ResponseEntity<UsuarioDto> atualizarUsuario(@RequestBody @Valid UsuarioDto usuarioDto) {
         return new ResponseEntity<>(usuarioService.atualizarUsuario(usuarioDto), HttpStatus.OK);
     }
 
     @DeleteMapping("/deletarusuarioporid")
-    public ResponseEntity<Boolean> deletarUsuarioPorId(@RequestHeader HashMap<String, Object> headers,
-                                                       @RequestBody @Valid UsuarioDto usuarioDto) {
-        if(!usuarioService.isUserLoggedIn(String.valueOf(headers.get(USER_LOGGED_IN)))) {
-            return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
-        }
+    public ResponseEntity<Boolean> deletarUsuarioPorId(@RequestBody @Valid UsuarioDto usuarioDto) {
         return new ResponseEntity<>(usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo()), HttpStatus.OK);
     }
 
     @PostMapping("/fazerlogin")
-    public ResponseEntity<UsuarioDto> login(@RequestBody UsuarioDto usuarioDto) {
+    public ResponseEntity<UsuarioDto> login(@RequestBody UsuarioDto usuarioDto, HttpServletRequest request) {
+        // Vindo de um proxy de server.tomcat.internal-proxies, o Tomcat já devolve o IP do X-Forwarded-For
+        long esperaMillis = loginRateLimiter.tryAcquire(usuarioDto.getEmail(), request.getRemoteAddr());
+        if (esperaMillis > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(esperaMillis + 999)))
+                    .build();
+        }
         return new ResponseEntity<>(usuarioService.fazerLogin(usuarioDto), HttpStatus.OK);
     }
 
+    @PostMapping("/sair")
+    public ResponseEntity<Void> sair(@RequestAttribute(SessionTokenFilter.SESSION_ID) String sessionId) {
+        usuarioService.sair(sessionId);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
 }
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
+ * Categorias de despesa padrão. São gravadas em {@code CategoriaDespesa}
+ * com estes códigos quando o backend sobe e valem para todos os usuários.
+ *
  * @author Plamedi L. Lusembo
  */
 
@@ -19,6 +22,21 @@ public enum DespesaEnum {
     LAZER(7, "Lazer"),
     DEPENDENTES(8, "Dependentes");
 
+    private static final DespesaEnum[] POR_CODIGO = new DespesaEnum[values().length + 1];
+
+    static {
+        for (DespesaEnum despesaEnum : values()) {
+            POR_CODIGO[despesaEnum.codigo] = despesaEnum;
+        }
+    }
+
     private final int codigo;
     private final String descricao;
+
+    public static DespesaEnum fromCodigo(int codigo) {
+        if (codigo <= 0 || codigo >= POR_CODIGO.length || POR_CODIGO[codigo] == null) {
+            throw new IllegalArgumentException("Categoria de despesa inexistente: " + codigo);
+        }
+        return POR_CODIGO[codigo];
+    }
 }
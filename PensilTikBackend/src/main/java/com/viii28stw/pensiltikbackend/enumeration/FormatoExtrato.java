@@ -0,0 +1,9 @@
+package com.viii28stw.pensiltikbackend.enumeration;
+
+/**
+ * Formatos de extrato bancário aceitos pela importação de despesas.
+ */
+public enum FormatoExtrato {
+    CSV,
+    OFX
+}
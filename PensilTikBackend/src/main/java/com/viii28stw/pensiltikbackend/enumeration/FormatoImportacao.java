@@ -0,0 +1,9 @@
+package com.viii28stw.pensiltikbackend.enumeration;
+
+/**
+ * Formatos aceitos pela importação de usuários em lote.
+ */
+public enum FormatoImportacao {
+    JSON,
+    CSV
+}
@@ -0,0 +1,104 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Interpretação dos campos como os bancos os exportam: datas em
+ * yyyy-MM-dd, dd/MM/yyyy, dd/MM/yy ou yyyyMMdd (OFX) e valores com vírgula
+ * ou ponto decimal, separador de milhar, "R$", parênteses ou "D" de débito.
+ */
+final class CamposExtrato {
+
+    // Sem acento e em minúsculas, de U+00C0 a U+00FF
+    private static final String LATIN1 = "aaaaaaæceeeeiiiiðnooooo×ouuuuyþß"
+            + "aaaaaaæceeeeiiiiðnooooo÷ouuuuyþy";
+
+    private CamposExtrato() {
+    }
+
+    static LocalDate data(String texto) {
+        String data = texto.trim();
+        if (data.length() >= 8 && digitos(data, 0, 8)) {
+            return LocalDate.of(inteiro(data, 0, 4), inteiro(data, 4, 6), inteiro(data, 6, 8));
+        } else if (data.length() >= 10 && data.charAt(4) == '-' && data.charAt(7) == '-') {
+            return LocalDate.of(inteiro(data, 0, 4), inteiro(data, 5, 7), inteiro(data, 8, 10));
+        } else if (data.length() >= 8 && data.charAt(2) == '/' && data.charAt(5) == '/') {
+            int ano = data.length() >= 10 && digitos(data, 6, 10) ? inteiro(data, 6, 10) : 2000 + inteiro(data, 6, 8);
+            return LocalDate.of(ano, inteiro(data, 3, 5), inteiro(data, 0, 2));
+        }
+        throw new IllegalArgumentException("Data inválida: " + texto);
+    }
+
+    /**
+     * O separador que aparece por último é o decimal, a não ser que se repita
+     * ou seja seguido de exatamente três dígitos sem o outro separador no
+     * texto ("1.234" e "1,234" são mil duzentos e trinta e quatro).
+     */
+    static BigDecimal valor(String texto) {
+        StringBuilder digitos = new StringBuilder(texto.length());
+        boolean negativo = false;
+        int pontos = 0;
+        int virgulas = 0;
+        int separador = -1;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            } else if (c == '.' || c == ',') {
+                if (c == '.') pontos++;
+                else virgulas++;
+                separador = digitos.length();
+            } else if (c == '-' || c == '\u2212' || c == '(' || c == 'D' || c == 'd') {
+                negativo = true;
+            } else if (!Character.isWhitespace(c) && c != '\u00A0' && "+)R$Cc".indexOf(c) < 0) {
+                throw new IllegalArgumentException("Valor inválido: " + texto);
+            }
+        }
+        if (digitos.length() == 0) {
+            throw new IllegalArgumentException("Valor inválido: " + texto);
+        }
+        int casas = separador < 0 ? 0 : digitos.length() - separador;
+        boolean decimal = separador >= 0 && ((pontos > 0 && virgulas > 0)
+                || (pontos + virgulas == 1 && casas != 3));
+        BigDecimal valor = new BigDecimal(digitos.toString()).movePointLeft(decimal ? casas : 0)
+                .setScale(2, RoundingMode.HALF_UP);
+        return negativo ? valor.negate() : valor;
+    }
+
+    // Minúsculas, sem acento e com os espaços repetidos reduzidos a um
+    static String normalizar(CharSequence texto) {
+        StringBuilder normalizado = new StringBuilder(texto.length());
+        boolean espaco = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00A0') {
+                espaco = normalizado.length() > 0;
+            } else {
+                if (espaco) normalizado.append(' ');
+                normalizado.append(normalizar(c));
+                espaco = false;
+            }
+        }
+        return normalizado.toString();
+    }
+
+    static char normalizar(char c) {
+        if (c < 0x80) return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        if (c >= 0xC0 && c <= 0xFF) return LATIN1.charAt(c - 0xC0);
+        return Character.toLowerCase(c);
+    }
+
+    private static boolean digitos(String texto, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if (texto.charAt(i) < '0' || texto.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+
+    private static int inteiro(String texto, int inicio, int fim) {
+        return Integer.parseInt(texto.substring(inicio, fim));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Identifica um lançamento entre importações do mesmo extrato: FNV-1a de
+ * 64 bits sobre data, valor, descrição normalizada e a ocorrência do
+ * lançamento no dia. A ocorrência separa lançamentos legítimos iguais (dois
+ * cafés de mesmo valor no mesmo dia), que sem ela seriam tomados por
+ * duplicados. A contagem é por dia e lançamento no arquivo inteiro, para
+ * que o hash não dependa da ordem das linhas: um extrato com as datas fora
+ * de ordem gera os mesmos hashes quando é reimportado.
+ *
+ * As contagens ficam numa tabela de endereçamento aberto de long e int, com
+ * no máximo {@link #MAXIMO_LANCAMENTOS} lançamentos distintos por arquivo:
+ * cerca de 12 bytes por lançamento na metade de ocupação, 24 MB no pior
+ * caso. Passado o limite, {@link #hash} lança IllegalStateException.
+ *
+ * Guarda estado entre chamadas: use uma instância por arquivo.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class HashLancamento {
+
+    private static final long FNV_BASE = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    public static final int MAXIMO_LANCAMENTOS = 1 << 20;
+    private static final int CAPACIDADE_INICIAL = 1 << 10;
+
+    // Chave 0 marca posição livre; o hash 0, improvável, tem contagem à parte
+    private long[] chaves = new long[CAPACIDADE_INICIAL];
+    private int[] ocorrencias = new int[CAPACIDADE_INICIAL];
+    private int tamanho;
+    private int ocorrenciasZero;
+
+    public long hash(LocalDate data, BigDecimal valor, String descricao) {
+        String chave = valor.setScale(2, RoundingMode.HALF_UP).toPlainString() + '|'
+                + CamposExtrato.normalizar(descricao == null ? "" : descricao);
+        long hash = misturar(FNV_BASE, data.toEpochDay());
+        for (int i = 0; i < chave.length(); i++) {
+            hash = misturar(hash, chave.charAt(i));
+        }
+        return misturar(hash, contar(hash));
+    }
+
+    private int contar(long hash) {
+        if (hash == 0) return ++ocorrenciasZero;
+        int posicao = posicao(chaves, hash);
+        if (chaves[posicao] == hash) return ++ocorrencias[posicao];
+        if (tamanho == MAXIMO_LANCAMENTOS) {
+            throw new IllegalStateException("O extrato tem mais de " + MAXIMO_LANCAMENTOS + " lançamentos distintos");
+        }
+        if (2 * (tamanho + 1) > chaves.length) {
+            crescer();
+            posicao = posicao(chaves, hash);
+        }
+        chaves[posicao] = hash;
+        ocorrencias[posicao] = 1;
+        tamanho++;
+        return 1;
+    }
+
+    private void crescer() {
+        long[] chavesAntigas = chaves;
+        int[] ocorrenciasAntigas = ocorrencias;
+        chaves = new long[chavesAntigas.length * 2];
+        ocorrencias = new int[chavesAntigas.length * 2];
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] == 0) continue;
+            int posicao = posicao(chaves, chavesAntigas[i]);
+            chaves[posicao] = chavesAntigas[i];
+            ocorrencias[posicao] = ocorrenciasAntigas[i];
+        }
+    }
+
+    // Sondagem linear; com ocupação de no máximo metade a tabela sempre tem posição livre
+    private static int posicao(long[] chaves, long hash) {
+        int mascara = chaves.length - 1;
+        int posicao = (int) (hash ^ (hash >>> 32)) & mascara;
+        while (chaves[posicao] != 0 && chaves[posicao] != hash) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private static long misturar(long hash, long valor) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (valor & 0xFF)) * FNV_PRIMO;
+            valor >>>= 8;
+        }
+        return hash;
+    }
+
+    private static long misturar(long hash, char c) {
+        hash = (hash ^ (c & 0xFF)) * FNV_PRIMO;
+        return (hash ^ (c >>> 8)) * FNV_PRIMO;
+    }
+
+}
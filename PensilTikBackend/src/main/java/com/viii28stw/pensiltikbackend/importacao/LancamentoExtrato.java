@@ -0,0 +1,58 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Um lançamento lido do extrato, com o valor no sinal do banco: débitos
+ * negativos e créditos positivos. Quando a linha não pôde ser interpretada
+ * só o número e o erro vêm preenchidos.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class LancamentoExtrato {
+
+    private final int numero;
+    private final LocalDate data;
+    private final BigDecimal valor;
+    private final String descricao;
+    private final String erro;
+
+    public LancamentoExtrato(int numero, LocalDate data, BigDecimal valor, String descricao) {
+        this(numero, data, valor, descricao, null);
+    }
+
+    private LancamentoExtrato(int numero, LocalDate data, BigDecimal valor, String descricao, String erro) {
+        this.numero = numero;
+        this.data = data;
+        this.valor = valor;
+        this.descricao = descricao;
+        this.erro = erro;
+    }
+
+    public static LancamentoExtrato invalido(int numero, String erro) {
+        return new LancamentoExtrato(numero, null, null, null, erro);
+    }
+
+    // Linha do CSV ou posição da transação no OFX
+    public int getNumero() {
+        return numero;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+}
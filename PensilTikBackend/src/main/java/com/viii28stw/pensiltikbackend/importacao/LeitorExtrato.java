@@ -0,0 +1,16 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.io.IOException;
+
+/**
+ * Lê um extrato em fluxo, um lançamento por vez, sem guardar o arquivo.
+ */
+public interface LeitorExtrato {
+
+    /**
+     * O próximo lançamento, ou {@code null} no fim do extrato. Linhas que não
+     * puderam ser interpretadas vêm como {@link LancamentoExtrato#invalido}.
+     */
+    LancamentoExtrato proximo() throws IOException;
+
+}
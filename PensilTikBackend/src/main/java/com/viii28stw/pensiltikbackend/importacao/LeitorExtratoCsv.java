@@ -0,0 +1,161 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extrato em CSV com cabeçalho, lido linha a linha. O separador (";", ","
+ * ou tabulação) é o que mais aparece no cabeçalho, e as colunas de data,
+ * descrição e valor são localizadas pelo nome, em qualquer ordem e com os
+ * nomes que os bancos costumam usar ("Data", "Histórico", "Valor (R$)",
+ * "Date", "Memo", "Amount"...). As demais colunas são ignoradas. Como no
+ * {@link LeitorExtratoOfx}, a memória por linha é limitada: uma linha com
+ * mais de {@value #MAXIMO_LINHA} caracteres é rejeitada sem ser guardada.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class LeitorExtratoCsv implements LeitorExtrato {
+
+    private static final String SEPARADORES = ";,\t";
+    private static final int MAXIMO_LINHA = 4096;
+
+    private final BufferedReader reader;
+    private final char separador;
+    private final int colunaData;
+    private final int colunaDescricao;
+    private final int colunaValor;
+    private final int colunas;
+    private final StringBuilder linha = new StringBuilder();
+    private boolean linhaLonga;
+    private int numero = 1;
+
+    public LeitorExtratoCsv(InputStream inputStream, Charset charset) throws IOException {
+        reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        String cabecalho = linha();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("O CSV não tem cabeçalho");
+        }else if (linhaLonga) {
+            throw new IllegalArgumentException("O cabeçalho do CSV passa de " + MAXIMO_LINHA + " caracteres");
+        }
+        if (cabecalho.startsWith("\uFEFF")) cabecalho = cabecalho.substring(1);
+        separador = separador(cabecalho);
+
+        int data = -1;
+        int descricao = -1;
+        int valor = -1;
+        List<String> nomes = separar(cabecalho, separador);
+        for (int i = 0; i < nomes.size(); i++) {
+            String nome = CamposExtrato.normalizar(nomes.get(i));
+            if (data < 0 && (nome.startsWith("data") || nome.startsWith("date") || nome.equals("dt"))) {
+                data = i;
+            } else if (descricao < 0 && (nome.startsWith("descri") || nome.startsWith("historico")
+                    || nome.equals("memo") || nome.startsWith("lancamento"))) {
+                descricao = i;
+            } else if (valor < 0 && (nome.startsWith("valor") || nome.startsWith("value")
+                    || nome.startsWith("amount") || nome.startsWith("quantia"))) {
+                valor = i;
+            }
+        }
+        if (data < 0 || descricao < 0 || valor < 0) {
+            throw new IllegalArgumentException("O CSV deve ter as colunas de data, descrição e valor");
+        }
+        colunaData = data;
+        colunaDescricao = descricao;
+        colunaValor = valor;
+        colunas = Math.max(data, Math.max(descricao, valor)) + 1;
+    }
+
+    @Override
+    public LancamentoExtrato proximo() throws IOException {
+        String texto;
+        do {
+            texto = linha();
+            if (texto == null) return null;
+            numero++;
+        } while (!linhaLonga && texto.trim().isEmpty());
+
+        if (linhaLonga) {
+            return LancamentoExtrato.invalido(numero, "A linha passa de " + MAXIMO_LINHA + " caracteres");
+        }
+        List<String> campos = separar(texto, separador);
+        if (campos.size() < colunas) {
+            return LancamentoExtrato.invalido(numero, "A linha tem menos colunas que o cabeçalho");
+        }
+        try {
+            return new LancamentoExtrato(numero, CamposExtrato.data(campos.get(colunaData)),
+                    CamposExtrato.valor(campos.get(colunaValor)), campos.get(colunaDescricao).trim());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return LancamentoExtrato.invalido(numero, e.getMessage());
+        }
+    }
+
+    // Como readLine(), mas guarda no máximo MAXIMO_LINHA caracteres e descarta o resto da linha
+    private String linha() throws IOException {
+        linha.setLength(0);
+        linhaLonga = false;
+        int c = reader.read();
+        if (c < 0) return null;
+        while (c >= 0 && c != '\n' && c != '\r') {
+            if (linha.length() < MAXIMO_LINHA) linha.append((char) c);
+            else linhaLonga = true;
+            c = reader.read();
+        }
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') reader.reset();
+        }
+        return linha.toString();
+    }
+
+    private static char separador(String cabecalho) {
+        char separador = SEPARADORES.charAt(0);
+        int maximo = 0;
+        for (int i = 0; i < SEPARADORES.length(); i++) {
+            char candidato = SEPARADORES.charAt(i);
+            int ocorrencias = 0;
+            for (int j = 0; j < cabecalho.length(); j++) {
+                if (cabecalho.charAt(j) == candidato) ocorrencias++;
+            }
+            if (ocorrencias > maximo) {
+                separador = candidato;
+                maximo = ocorrencias;
+            }
+        }
+        return separador;
+    }
+
+    private static List<String> separar(String texto, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (aspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    aspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+}
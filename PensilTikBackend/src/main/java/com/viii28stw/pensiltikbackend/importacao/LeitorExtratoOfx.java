@@ -0,0 +1,162 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Locale;
+
+/**
+ * Extrato em OFX, tanto o 1.x em SGML (tags de valor sem fechamento) quanto
+ * o 2.x em XML. Em vez de montar a árvore do documento, percorre as tags em
+ * fluxo e só guarda os campos de cada {@code <STMTTRN>}: DTPOSTED, TRNAMT e
+ * MEMO, ou NAME quando não há MEMO.
+ *
+ * A codificação vem do cabeçalho: UTF-8 para o OFX em XML ou com
+ * {@code ENCODING:UTF-8}, windows-1252 com {@code CHARSET:1252} e, nos
+ * demais casos, a informada por quem chama.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class LeitorExtratoOfx implements LeitorExtrato {
+
+    private static final int TAMANHO_CABECALHO = 1024;
+    private static final int MAXIMO_TAG = 64;
+    private static final int MAXIMO_TEXTO = 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder tag = new StringBuilder(MAXIMO_TAG);
+    private final StringBuilder texto = new StringBuilder();
+    private int posicao;
+    private int limite;
+    private int numero;
+
+    public LeitorExtratoOfx(InputStream inputStream, Charset charset) throws IOException {
+        BufferedInputStream entrada = new BufferedInputStream(inputStream);
+        reader = new InputStreamReader(entrada, charset(entrada, charset));
+    }
+
+    @Override
+    public LancamentoExtrato proximo() throws IOException {
+        boolean transacao = false;
+        String data = null;
+        String valor = null;
+        String memo = null;
+        String nome = null;
+
+        String tag;
+        while ((tag = proximaTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                transacao = true;
+                numero++;
+                data = valor = memo = nome = null;
+            } else if (!transacao) {
+                continue;
+            } else if (tag.equals("/STMTTRN")) {
+                return lancamento(data, valor, memo == null || memo.isEmpty() ? nome : memo);
+            } else if (tag.equals("DTPOSTED")) {
+                data = texto();
+            } else if (tag.equals("TRNAMT")) {
+                valor = texto();
+            } else if (tag.equals("MEMO")) {
+                memo = texto();
+            } else if (tag.equals("NAME")) {
+                nome = texto();
+            }
+        }
+        return null;
+    }
+
+    private LancamentoExtrato lancamento(String data, String valor, String descricao) {
+        if (data == null || data.isEmpty() || valor == null || valor.isEmpty()) {
+            return LancamentoExtrato.invalido(numero, "Transação sem data ou valor");
+        }
+        try {
+            return new LancamentoExtrato(numero, CamposExtrato.data(data), CamposExtrato.valor(valor),
+                    descricao == null ? "" : descricao);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return LancamentoExtrato.invalido(numero, e.getMessage());
+        }
+    }
+
+    // Próxima tag em maiúsculas ("STMTTRN", "/STMTTRN"), pulando <?xml ...?> e comentários
+    private String proximaTag() throws IOException {
+        while (true) {
+            int c;
+            do {
+                c = ler();
+                if (c < 0) return null;
+            } while (c != '<');
+
+            tag.setLength(0);
+            while ((c = ler()) != '>') {
+                if (c < 0) return null;
+                if (tag.length() < MAXIMO_TAG) tag.append((char) c);
+            }
+            if (tag.length() > 0 && tag.charAt(0) != '?' && tag.charAt(0) != '!') {
+                return tag.toString().trim().toUpperCase(Locale.ROOT);
+            }
+        }
+    }
+
+    // Conteúdo até a próxima tag, que fica para proximaTag()
+    private String texto() throws IOException {
+        texto.setLength(0);
+        int c;
+        while ((c = espiar()) >= 0 && c != '<') {
+            posicao++;
+            if (texto.length() < MAXIMO_TEXTO) texto.append((char) c);
+        }
+        String valor = texto.toString().trim();
+        return valor.indexOf('&') < 0 ? valor : valor
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&nbsp;", " ")
+                .replace("&amp;", "&");
+    }
+
+    private int ler() throws IOException {
+        int c = espiar();
+        if (c >= 0) posicao++;
+        return c;
+    }
+
+    private int espiar() throws IOException {
+        if (posicao == limite) {
+            limite = reader.read(buffer, 0, buffer.length);
+            posicao = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicao];
+    }
+
+    private static Charset charset(BufferedInputStream entrada, Charset padrao) throws IOException {
+        entrada.mark(TAMANHO_CABECALHO);
+        byte[] bytes = new byte[TAMANHO_CABECALHO];
+        int lidos = 0;
+        int n;
+        while (lidos < bytes.length && (n = entrada.read(bytes, lidos, bytes.length - lidos)) > 0) {
+            lidos += n;
+        }
+        entrada.reset();
+
+        String cabecalho = new String(bytes, 0, lidos, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+        if (cabecalho.contains("<?XML") || cabecalho.contains("ENCODING:UTF-8")) {
+            return StandardCharsets.UTF_8;
+        } else if (cabecalho.contains("CHARSET:1252")) {
+            return Charset.forName("windows-1252");
+        }
+        return padrao;
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Regras que escolhem a categoria de um lançamento pela descrição. Cada
+ * regra associa palavras-chave a uma categoria; uma palavra-chave casa com
+ * o início de qualquer palavra da descrição ("farmac" casa com "Drogaria
+ * Farmacêutica"), sem diferenciar maiúsculas nem acentos. Quando várias
+ * casam vence a mais longa ("uber eats" antes de "uber") e, no empate, a
+ * regra declarada primeiro; sem nenhuma, fica a categoria padrão.
+ *
+ * As palavras-chave são compiladas numa trie em vetores, então o custo por
+ * descrição depende do tamanho dela e não do número de regras.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class RegrasCategoria {
+
+    private static final int SEM_NO = -1;
+    private static final int SEM_REGRA = -1;
+    private static final int RAIZ = 0;
+
+    private final int categoriaPadrao;
+    private final int[] categorias;
+
+    // Trie das palavras-chave normalizadas: filhos de cada nó em ordem de caractere
+    private final char[][] caracteres;
+    private final int[][] filhos;
+    private final int[] regra;
+
+    private RegrasCategoria(Builder builder) {
+        this.categoriaPadrao = builder.categoriaPadrao;
+        this.categorias = new int[builder.categorias.size()];
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = builder.categorias.get(i);
+        }
+
+        TrieBuilder trie = new TrieBuilder();
+        for (int i = 0; i < builder.palavras.size(); i++) {
+            for (String palavra : builder.palavras.get(i)) {
+                trie.adicionar(CamposExtrato.normalizar(palavra), i);
+            }
+        }
+        this.caracteres = trie.caracteres();
+        this.filhos = trie.filhos();
+        this.regra = trie.regras();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getCategoriaPadrao() {
+        return categoriaPadrao;
+    }
+
+    public int categorizar(String descricao) {
+        if (descricao == null) return categoriaPadrao;
+        String texto = CamposExtrato.normalizar(descricao);
+        int melhor = SEM_REGRA;
+        int tamanhoMelhor = 0;
+        for (int inicio = 0; inicio < texto.length(); inicio++) {
+            if (inicio > 0 && Character.isLetterOrDigit(texto.charAt(inicio - 1))) continue;
+            int no = RAIZ;
+            for (int i = inicio; i < texto.length() && no != SEM_NO; i++) {
+                no = proximo(no, texto.charAt(i));
+                if (no == SEM_NO || regra[no] == SEM_REGRA) continue;
+                int tamanho = i - inicio + 1;
+                if (tamanho > tamanhoMelhor || (tamanho == tamanhoMelhor && regra[no] < melhor)) {
+                    melhor = regra[no];
+                    tamanhoMelhor = tamanho;
+                }
+            }
+        }
+        return melhor == SEM_REGRA ? categoriaPadrao : categorias[melhor];
+    }
+
+    private int proximo(int no, char c) {
+        char[] rotulos = caracteres[no];
+        int indice = Arrays.binarySearch(rotulos, c);
+        return indice < 0 ? SEM_NO : filhos[no][indice];
+    }
+
+    public static final class Builder {
+        private int categoriaPadrao;
+        private final List<Integer> categorias = new ArrayList<>();
+        private final List<Collection<String>> palavras = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder regra(int categoria, Collection<String> palavrasChave) {
+            categorias.add(categoria);
+            palavras.add(new ArrayList<>(palavrasChave));
+            return this;
+        }
+
+        public Builder regra(int categoria, String... palavrasChave) {
+            return regra(categoria, Arrays.asList(palavrasChave));
+        }
+
+        public Builder categoriaPadrao(int categoriaPadrao) {
+            this.categoriaPadrao = categoriaPadrao;
+            return this;
+        }
+
+        public RegrasCategoria build() {
+            for (Collection<String> palavrasChave : palavras) {
+                for (String palavra : palavrasChave) {
+                    if (palavra == null || CamposExtrato.normalizar(palavra).isEmpty()) {
+                        throw new IllegalArgumentException("As palavras-chave das regras de categoria não podem ser vazias");
+                    }
+                }
+            }
+            return new RegrasCategoria(this);
+        }
+    }
+
+    private static final class TrieBuilder {
+        private final List<StringBuilder> rotulos = new ArrayList<>();
+        private final List<List<Integer>> filhos = new ArrayList<>();
+        private final List<Integer> regras = new ArrayList<>();
+
+        private TrieBuilder() {
+            novoNo();
+        }
+
+        private int novoNo() {
+            rotulos.add(new StringBuilder());
+            filhos.add(new ArrayList<>());
+            regras.add(SEM_REGRA);
+            return regras.size() - 1;
+        }
+
+        // Uma palavra repetida fica com a primeira regra que a declarou
+        private void adicionar(String palavra, int regra) {
+            int no = RAIZ;
+            for (int i = 0; i < palavra.length(); i++) {
+                char c = palavra.charAt(i);
+                int indice = rotulos.get(no).indexOf(String.valueOf(c));
+                if (indice < 0) {
+                    int filho = novoNo();
+                    rotulos.get(no).append(c);
+                    filhos.get(no).add(filho);
+                    no = filho;
+                } else {
+                    no = filhos.get(no).get(indice);
+                }
+            }
+            if (regras.get(no) == SEM_REGRA) regras.set(no, regra);
+        }
+
+        // Ordena os filhos de cada nó para a busca binária
+        private char[][] caracteres() {
+            char[][] caracteres = new char[rotulos.size()][];
+            for (int no = 0; no < caracteres.length; no++) {
+                caracteres[no] = rotulos.get(no).toString().toCharArray();
+                Arrays.sort(caracteres[no]);
+            }
+            return caracteres;
+        }
+
+        private int[][] filhos() {
+            int[][] ordenados = new int[filhos.size()][];
+            for (int no = 0; no < ordenados.length; no++) {
+                String rotulo = rotulos.get(no).toString();
+                char[] ordem = rotulo.toCharArray();
+                Arrays.sort(ordem);
+                ordenados[no] = new int[ordem.length];
+                for (int i = 0; i < ordem.length; i++) {
+                    ordenados[no][i] = filhos.get(no).get(rotulo.indexOf(ordem[i]));
+                }
+            }
+            return ordenados;
+        }
+
+        private int[] regras() {
+            int[] vetor = new int[regras.size()];
+            for (int no = 0; no < vetor.length; no++) {
+                vetor[no] = regras.get(no);
+            }
+            return vetor;
+        }
+    }
+
+}
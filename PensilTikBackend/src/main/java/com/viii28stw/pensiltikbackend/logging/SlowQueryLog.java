@@ -0,0 +1,165 @@
+package com.viii28stw.pensiltikbackend.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Log amostrado das consultas lentas, sem os valores dos parâmetros.
+ *
+ * {@link #medir(DataSource)} embrulha o pool de conexões, como um
+ * datasource-proxy: cada statement criado pelas conexões guarda o próprio
+ * SQL (o do {@code prepareStatement} ou o passado ao {@code execute}) e mede
+ * o tempo de cada execução no JDBC. Quando a execução passa do limite, o
+ * contador {@code pensiltik.sql.lenta} é incrementado e, para a fração
+ * configurada dessas consultas, o formato do SQL daquela execução é
+ * registrado com a duração. O formato mantém só os {@code ?} do SQL
+ * preparado: literais viram {@code ?} e listas de parâmetros de um
+ * {@code in} viram {@code (?...)}.
+ *
+ * Nenhum formatador de SQL nem {@code BasicBinder} entra no caminho das
+ * consultas: o custo por execução é o de duas leituras do relógio e de uma
+ * chamada por proxy.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private static final int TAMANHO_MAXIMO_FORMATO = 1000;
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final long limiteNanos;
+    private final double amostragem;
+    private final Counter lentas;
+
+    public SlowQueryLog(long limiteMillis, double amostragem, MeterRegistry meterRegistry) {
+        this.limiteNanos = TimeUnit.MILLISECONDS.toNanos(limiteMillis);
+        this.amostragem = Math.max(0, Math.min(1, amostragem));
+        this.lentas = Counter.builder("pensiltik.sql.lenta")
+                .description("Execuções JDBC acima do limite do log de consultas lentas")
+                .register(meterRegistry);
+    }
+
+    public DataSource medir(DataSource dataSource) {
+        return embrulhar(dataSource, DataSource.class, new Embrulho(dataSource) {
+            @Override
+            Object depois(Method method, Object[] args, Object resultado) {
+                return resultado instanceof Connection ? conexao((Connection) resultado) : resultado;
+            }
+        });
+    }
+
+    void registrar(String sql, long nanos, boolean lote) {
+        if (nanos < limiteNanos) return;
+        lentas.increment();
+        if (amostragem < 1 && ThreadLocalRandom.current().nextDouble() >= amostragem) return;
+        log.warn("Consulta lenta ({} ms{}): {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                lote ? ", lote" : "", formato(sql));
+    }
+
+    static String formato(String sql) {
+        if (sql == null) return "?";
+        String formato = LITERAL_TEXTO.matcher(sql).replaceAll("?");
+        formato = LITERAL_NUMERO.matcher(formato).replaceAll("?");
+        formato = LISTA_PARAMETROS.matcher(formato).replaceAll("(?...)");
+        formato = ESPACOS.matcher(formato).replaceAll(" ").trim();
+        return formato.length() <= TAMANHO_MAXIMO_FORMATO ? formato :
+                formato.substring(0, TAMANHO_MAXIMO_FORMATO).concat("...");
+    }
+
+    private Connection conexao(Connection conexao) {
+        return embrulhar(conexao, Connection.class, new Embrulho(conexao) {
+            @Override
+            Object depois(Method method, Object[] args, Object resultado) {
+                if (!(resultado instanceof Statement)) return resultado;
+                // prepareStatement e prepareCall recebem o SQL; createStatement o recebe em cada execute
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return statement((Statement) resultado, sql);
+            }
+        });
+    }
+
+    private Statement statement(Statement statement, String sqlPreparado) {
+        Class<? extends Statement> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return embrulhar(statement, tipo, new Embrulho(statement) {
+            // Um Statement simples em lote leva o primeiro SQL adicionado
+            private String sqlLote;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String nome = method.getName();
+                if (nome.equals("addBatch") && args != null && sqlLote == null) {
+                    sqlLote = (String) args[0];
+                } else if (nome.equals("clearBatch")) {
+                    sqlLote = null;
+                }
+                if (!nome.startsWith("execute")) return super.invoke(proxy, method, args);
+
+                boolean lote = nome.equals("executeBatch") || nome.equals("executeLargeBatch");
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                        : sqlPreparado != null ? sqlPreparado : sqlLote;
+                if (lote) sqlLote = null;
+                long inicio = System.nanoTime();
+                try {
+                    return super.invoke(proxy, method, args);
+                } finally {
+                    registrar(sql, System.nanoTime() - inicio, lote);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T embrulhar(T alvo, Class<? extends T> tipo, InvocationHandler embrulho) {
+        return (T) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{tipo}, embrulho);
+    }
+
+    private static class Embrulho implements InvocationHandler {
+
+        private final Object alvo;
+
+        private Embrulho(Object alvo) {
+            this.alvo = alvo;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // O proxy só é igual a si mesmo; o resto vai para o objeto JDBC embrulhado
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) return proxy == args[0];
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            Object resultado;
+            try {
+                resultado = method.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return depois(method, args, resultado);
+        }
+
+        Object depois(Method method, Object[] args, Object resultado) {
+            return resultado;
+        }
+
+    }
+
+}
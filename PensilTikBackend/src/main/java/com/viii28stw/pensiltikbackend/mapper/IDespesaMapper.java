@@ -0,0 +1,33 @@
+package com.viii28stw.pensiltikbackend.mapper;
+
+import com.viii28stw.pensiltikbackend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.CategoriaDespesa;
+import com.viii28stw.pensiltikbackend.model.entity.Despesa;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Conversão entre {@link Despesa}, {@link CategoriaDespesa} e os DTOs,
+ * gerada pelo MapStruct em {@code DespesaMapper}. O usuário dono é sempre
+ * definido por quem chama, a partir da sessão.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Mapper(componentModel = "spring", implementationName = "DespesaMapper", builder = @Builder(disableBuilder = true))
+public interface IDespesaMapper {
+
+    DespesaDto toDto(Despesa despesa);
+
+    @Mapping(target = "codigoUsuario", ignore = true)
+    @Mapping(target = "hashImportacao", ignore = true)
+    Despesa toEntity(DespesaDto despesaDto);
+
+    @Mapping(target = "padrao", expression = "java(categoriaDespesa.getCodigoUsuario() == null)")
+    CategoriaDespesaDto toDto(CategoriaDespesa categoriaDespesa);
+
+    @Mapping(target = "codigoUsuario", ignore = true)
+    CategoriaDespesa toEntity(CategoriaDespesaDto categoriaDespesaDto);
+
+}
@@ -0,0 +1,35 @@
+package com.viii28stw.pensiltikbackend.mapper;
+
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.dto.TipoRendaDto;
+import com.viii28stw.pensiltikbackend.model.entity.Renda;
+import com.viii28stw.pensiltikbackend.model.entity.TipoRenda;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Conversão entre {@link Renda}, {@link TipoRenda} e os DTOs, gerada pelo
+ * MapStruct em {@code RendaMapper}. O usuário dono é sempre definido por
+ * quem chama, a partir da sessão.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Mapper(componentModel = "spring", implementationName = "RendaMapper", builder = @Builder(disableBuilder = true))
+public interface IRendaMapper {
+
+    RendaDto toDto(Renda renda);
+
+    @Mapping(target = "codigoUsuario", ignore = true)
+    Renda toEntity(RendaDto rendaDto);
+
+    TipoRendaDto toDto(TipoRenda tipoRenda);
+
+    List<TipoRendaDto> toTipoRendaDtos(Iterable<TipoRenda> tiposRenda);
+
+    @Mapping(target = "codigoUsuario", ignore = true)
+    TipoRenda toEntity(TipoRendaDto tipoRendaDto);
+
+}
@@ -0,0 +1,33 @@
+package com.viii28stw.pensiltikbackend.mapper;
+
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.entity.Usuario;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Conversão entre {@link Usuario} e {@link UsuarioDto}, gerada na compilação
+ * pelo MapStruct em {@code UsuarioMapper}: cópias diretas por getters e
+ * setters, sem reflexão e sem alocar os builders do Lombok.
+ *
+ * A senha nunca sai numa conversão para DTO, e a conversão para entidade a
+ * ignora para que o hash seja sempre gravado por quem chama.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Mapper(componentModel = "spring", implementationName = "UsuarioMapper", builder = @Builder(disableBuilder = true))
+public interface IUsuarioMapper {
+
+    @Mapping(target = "senha", ignore = true)
+    @Mapping(target = "tokenSessao", ignore = true)
+    UsuarioDto toDto(Usuario usuario);
+
+    List<UsuarioDto> toDtos(Iterable<Usuario> usuarios);
+
+    @Mapping(target = "senha", ignore = true)
+    Usuario toEntity(UsuarioDto usuarioDto);
+
+}
@@ -0,0 +1,25 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+/**
+ * Categoria de despesa trocada com o cliente. Sem {@code codigoPai} é uma
+ * categoria de primeiro nível; {@code padrao} é só de leitura.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class CategoriaDespesaDto {
+
+    private Integer codigo;
+    private Integer codigoPai;
+    @NotBlank @Size(max = 50) private String descricao;
+    private boolean padrao;
+
+}
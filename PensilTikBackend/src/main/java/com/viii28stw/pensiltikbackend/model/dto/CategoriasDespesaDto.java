@@ -0,0 +1,23 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * Catálogo de categorias de um usuário numa versão. O cliente guarda a
+ * versão e a envia de volta; enquanto ela não muda a resposta é um 304 sem
+ * corpo.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class CategoriasDespesaDto {
+
+    private long versao;
+    private List<CategoriaDespesaDto> categorias;
+
+}
@@ -0,0 +1,42 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import lombok.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Despesa trocada com o cliente. O usuário dono não faz parte do DTO: vem
+ * sempre da sessão. A categoria vai só pelo código; o cliente resolve a
+ * descrição no catálogo de categorias que já tem.
+ *
+ * A ordem dos campos é a do construtor usado em
+ * {@code IDespesaRepository.DESPESA}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class DespesaDto {
+
+    private String codigo;
+
+    @NotNull
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate data;
+
+    @NotNull @Positive private BigDecimal valor;
+    @NotNull private Integer categoria;
+    @Size(max = 100) private String descricao;
+
+}
@@ -0,0 +1,18 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class PaginaUsuarioDto {
+
+    private List<UsuarioResumoDto> usuarios;
+    private String proximoCursor;
+
+}
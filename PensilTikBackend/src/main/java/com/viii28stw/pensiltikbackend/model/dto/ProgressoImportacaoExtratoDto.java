@@ -0,0 +1,24 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class ProgressoImportacaoExtratoDto {
+
+    private long bytesLidos;
+    // Tamanho do arquivo enviado; -1 quando a requisição não informou
+    private long bytesTotal;
+    private long lancamentos;
+    private long importadas;
+    private long duplicadas;
+    private long ignoradas;
+    private long rejeitadas;
+    private boolean concluida;
+
+}
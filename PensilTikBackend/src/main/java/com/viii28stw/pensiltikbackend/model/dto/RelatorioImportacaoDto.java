@@ -0,0 +1,19 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class RelatorioImportacaoDto {
+
+    private int importados;
+    private int rejeitados;
+    private List<ResultadoImportacaoDto> resultados;
+
+}
@@ -0,0 +1,24 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class RelatorioImportacaoExtratoDto {
+
+    private long lancamentos;
+    private long importadas;
+    private long duplicadas;
+    // Créditos do extrato (valor positivo), que não são despesas
+    private long ignoradas;
+    private long rejeitadas;
+    // Só os primeiros erros; o total está em rejeitadas
+    private List<ResultadoImportacaoDto> erros;
+
+}
@@ -0,0 +1,41 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import lombok.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Renda trocada com o cliente; o usuário dono vem sempre da sessão.
+ *
+ * A ordem dos campos é a do construtor usado em
+ * {@code IRendaRepository.RENDA}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class RendaDto {
+
+    private String codigo;
+
+    @NotNull
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate data;
+
+    @NotNull @Positive private BigDecimal valor;
+    @NotBlank private String codigoTipoRenda;
+    @Size(max = 100) private String descricao;
+
+}
@@ -0,0 +1,21 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoImportacaoDto {
+
+    private int linha;
+    private String email;
+    private String codigo;
+    private String erro;
+
+}
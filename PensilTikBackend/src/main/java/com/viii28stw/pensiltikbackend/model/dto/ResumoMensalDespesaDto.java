@@ -0,0 +1,38 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.YearMonthDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.YearMonthSerializer;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Uma linha do relatório de despesas: total e quantidade de um mês numa
+ * categoria. É montado pela expressão construtora de
+ * {@code IResumoMensalDespesaRepository}, a partir das colunas gravadas.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class ResumoMensalDespesaDto {
+
+    @JsonSerialize(using = YearMonthSerializer.class)
+    @JsonDeserialize(using = YearMonthDeserializer.class)
+    private YearMonth mes;
+
+    private Integer categoria;
+    private BigDecimal total;
+    private long quantidade;
+
+    public ResumoMensalDespesaDto(Integer anoMes, Integer categoria, BigDecimal total, Long quantidade) {
+        this(ResumoMensalDespesa.mes(anoMes), categoria, total, quantidade);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class SaldoDto {
+
+    private BigDecimal rendas;
+    private BigDecimal despesas;
+    private BigDecimal saldo;
+
+}
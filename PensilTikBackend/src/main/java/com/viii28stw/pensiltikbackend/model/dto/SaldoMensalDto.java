@@ -0,0 +1,33 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.YearMonthDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.YearMonthSerializer;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Rendas, despesas e saldo de um mês, com o saldo acumulado de todos os
+ * lançamentos até o fim do mês.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class SaldoMensalDto {
+
+    @JsonSerialize(using = YearMonthSerializer.class)
+    @JsonDeserialize(using = YearMonthDeserializer.class)
+    private YearMonth mes;
+
+    private BigDecimal rendas;
+    private BigDecimal despesas;
+    private BigDecimal saldo;
+    private BigDecimal saldoAcumulado;
+
+}
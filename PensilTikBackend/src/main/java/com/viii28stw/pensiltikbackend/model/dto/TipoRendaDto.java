@@ -0,0 +1,19 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import lombok.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class TipoRendaDto {
+
+    private String codigo;
+    @NotBlank @Size(max = 50) private String descricao;
+
+}
@@ -1,6 +1,7 @@
 package com.viii28stw.pensiltikbackend.model.dto;
 
 import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -24,6 +25,8 @@ public class UsuarioDto{
     @NotBlank private String nome;
     @NotBlank private String sobreNome;
     @NotBlank @Email private String email;
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @NotBlank private String senha;
     private Sexo sexo;
 
@@ -33,4 +36,8 @@ public class UsuarioDto{
 
     private UsuarioNivelAcesso usuarioNivelAcesso;
 
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String tokenSessao;
+
 }
@@ -0,0 +1,41 @@
+package com.viii28stw.pensiltikbackend.model.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Usuário devolvido pelas consultas, sem senha nem token. É montado direto
+ * pela expressão construtora do JPQL, então a coluna SENHA nem é lida e
+ * nenhuma entidade entra no contexto de persistência.
+ *
+ * A ordem dos campos é a do construtor usado em
+ * {@code IUsuarioRepository.RESUMO}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class UsuarioResumoDto {
+
+    private String codigo;
+    private String nome;
+    private String sobreNome;
+    private String email;
+    private Sexo sexo;
+
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate dataNascimento;
+
+    private UsuarioNivelAcesso usuarioNivelAcesso;
+
+}
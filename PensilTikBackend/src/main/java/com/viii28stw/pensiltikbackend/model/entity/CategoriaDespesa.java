@@ -0,0 +1,46 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Categoria de despesa, em árvore pelo código da categoria pai.
+ *
+ * As categorias padrão não têm usuário e valem para todos: são as de
+ * {@code DespesaEnum}, gravadas com os mesmos códigos de 1 a 8 que as
+ * despesas já usavam. As de cada usuário recebem códigos a partir daí pelo
+ * auto incremento, então {@code Despesa.CATEGORIA} continua sendo um
+ * inteiro e as despesas e os resumos nunca precisam de junção com esta
+ * tabela: a descrição vem do catálogo em memória.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(indexes = @Index(name = "IDX_CATEGORIA_DESPESA_USUARIO", columnList = "CODIGO_USUARIO"))
+public class CategoriaDespesa implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "CODIGO")
+    private Integer codigo;
+
+    @Column(name = "CODIGO_USUARIO", length = 25, updatable = false)
+    private String codigoUsuario;
+
+    @Column(name = "CODIGO_PAI")
+    private Integer codigoPai;
+
+    @Column(name = "DESCRICAO", length = 50, nullable = false)
+    private String descricao;
+
+}
@@ -0,0 +1,68 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lançamento de despesa de um usuário.
+ *
+ * A tabela foi pensada para dezenas de milhões de linhas: as consultas são
+ * sempre por usuário e intervalo de datas, servidas pelos índices
+ * (CODIGO_USUARIO, DATA) e (CODIGO_USUARIO, CATEGORIA, DATA). O usuário é
+ * guardado só pelo código, sem chave estrangeira, porque o MySQL não aceita
+ * chaves estrangeiras em tabelas particionadas; o particionamento mensal por
+ * DATA é opcional e fica em {@code db/despesa-particionamento.sql}.
+ *
+ * Despesas vindas de extrato bancário guardam o {@code HashLancamento} da
+ * importação, para que reimportar o mesmo extrato não as duplique.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_DESPESA_USUARIO_DATA", columnList = "CODIGO_USUARIO, DATA"),
+        @Index(name = "IDX_DESPESA_USUARIO_CATEGORIA", columnList = "CODIGO_USUARIO, CATEGORIA, DATA"),
+        @Index(name = "IDX_DESPESA_USUARIO_HASH", columnList = "CODIGO_USUARIO, HASH_IMPORTACAO")
+})
+public class Despesa implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "despesa_codigo")
+    @GenericGenerator(name = "despesa_codigo", strategy = "com.viii28stw.pensiltikbackend.util.IdGenerator")
+    @Column(name = "CODIGO", length = 25)
+    private String codigo;
+
+    @Column(name = "CODIGO_USUARIO", length = 25, nullable = false, updatable = false)
+    private String codigoUsuario;
+
+    @Column(name = "DATA", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "VALOR", precision = 15, scale = 2, nullable = false)
+    private BigDecimal valor;
+
+    // Código de CategoriaDespesa, sem chave estrangeira pelo mesmo motivo do usuário
+    @Column(name = "CATEGORIA", nullable = false)
+    private Integer categoria;
+
+    @Column(name = "DESCRICAO", length = 100)
+    private String descricao;
+
+    // Só nas despesas importadas de extrato; o índice não é único, como exige a tabela particionada
+    @Column(name = "HASH_IMPORTACAO", updatable = false)
+    private Long hashImportacao;
+
+}
@@ -0,0 +1,55 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lançamento de renda de um usuário. Segue o desenho de {@link Despesa}: o
+ * usuário e o tipo de renda são guardados só pelo código e as consultas
+ * são por usuário e intervalo de datas, servidas pelo índice
+ * (CODIGO_USUARIO, DATA).
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_RENDA_USUARIO_DATA", columnList = "CODIGO_USUARIO, DATA"),
+        @Index(name = "IDX_RENDA_TIPO_RENDA", columnList = "CODIGO_TIPO_RENDA")
+})
+public class Renda implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "renda_codigo")
+    @GenericGenerator(name = "renda_codigo", strategy = "com.viii28stw.pensiltikbackend.util.IdGenerator")
+    @Column(name = "CODIGO", length = 25)
+    private String codigo;
+
+    @Column(name = "CODIGO_USUARIO", length = 25, nullable = false, updatable = false)
+    private String codigoUsuario;
+
+    @Column(name = "CODIGO_TIPO_RENDA", length = 25, nullable = false)
+    private String codigoTipoRenda;
+
+    @Column(name = "DATA", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "VALOR", precision = 15, scale = 2, nullable = false)
+    private BigDecimal valor;
+
+    @Column(name = "DESCRICAO", length = 100)
+    private String descricao;
+
+}
@@ -0,0 +1,76 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Total e quantidade das despesas de um usuário num mês e numa categoria.
+ *
+ * As linhas são mantidas de forma incremental, na mesma transação de cada
+ * gravação em {@link Despesa}, com um {@code INSERT ... ON DUPLICATE KEY
+ * UPDATE} ({@code IResumoMensalDespesaRepository.acumular}), e podem ser
+ * refeitas a partir das despesas pelo job de reconstrução. O mês é gravado
+ * como o inteiro {@code aaaamm} e a categoria pelo código de
+ * {@link CategoriaDespesa}, então a chave inteira cabe no índice primário.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "RESUMO_MENSAL_DESPESA")
+@IdClass(ResumoMensalDespesa.Chave.class)
+public class ResumoMensalDespesa implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "CODIGO_USUARIO", length = 25)
+    private String codigoUsuario;
+
+    @Id
+    @Column(name = "ANO_MES")
+    private Integer anoMes;
+
+    @Id
+    @Column(name = "CATEGORIA")
+    private Integer categoria;
+
+    @Column(name = "TOTAL", precision = 17, scale = 2, nullable = false)
+    private BigDecimal total;
+
+    @Column(name = "QUANTIDADE", nullable = false)
+    private Long quantidade;
+
+    public static int anoMes(YearMonth mes) {
+        return mes.getYear() * 100 + mes.getMonthValue();
+    }
+
+    public static YearMonth mes(int anoMes) {
+        return YearMonth.of(anoMes / 100, anoMes % 100);
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String codigoUsuario;
+        private Integer anoMes;
+        private Integer categoria;
+
+    }
+
+}
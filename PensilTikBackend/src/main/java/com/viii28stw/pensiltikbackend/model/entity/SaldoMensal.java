@@ -0,0 +1,56 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Totais de rendas e de despesas de um usuário num mês ({@code aaaamm}),
+ * mantidos de forma incremental pelo {@code SaldoService}.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "SALDO_MENSAL")
+@IdClass(SaldoMensal.Chave.class)
+public class SaldoMensal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "CODIGO_USUARIO", length = 25)
+    private String codigoUsuario;
+
+    @Id
+    @Column(name = "ANO_MES")
+    private Integer anoMes;
+
+    @Column(name = "RENDAS", precision = 17, scale = 2, nullable = false)
+    private BigDecimal rendas;
+
+    @Column(name = "DESPESAS", precision = 17, scale = 2, nullable = false)
+    private BigDecimal despesas;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String codigoUsuario;
+        private Integer anoMes;
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Totais de rendas e de despesas de todos os lançamentos de um usuário:
+ * o saldo atual é lido desta única linha, sem somar as tabelas de
+ * lançamentos.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "SALDO_USUARIO")
+public class SaldoUsuario implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "CODIGO_USUARIO", length = 25)
+    private String codigoUsuario;
+
+    @Column(name = "RENDAS", precision = 17, scale = 2, nullable = false)
+    private BigDecimal rendas;
+
+    @Column(name = "DESPESAS", precision = 17, scale = 2, nullable = false)
+    private BigDecimal despesas;
+
+}
@@ -0,0 +1,38 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Tipo de renda cadastrado por um usuário (salário, aluguel recebido, ...).
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(indexes = @Index(name = "IDX_TIPO_RENDA_USUARIO", columnList = "CODIGO_USUARIO"))
+public class TipoRenda implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "tipo_renda_codigo")
+    @GenericGenerator(name = "tipo_renda_codigo", strategy = "com.viii28stw.pensiltikbackend.util.IdGenerator")
+    @Column(name = "CODIGO", length = 25)
+    private String codigo;
+
+    @Column(name = "CODIGO_USUARIO", length = 25, nullable = false, updatable = false)
+    private String codigoUsuario;
+
+    @Column(name = "DESCRICAO", length = 50, nullable = false)
+    private String descricao;
+
+}
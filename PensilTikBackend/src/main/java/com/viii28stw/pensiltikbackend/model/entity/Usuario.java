@@ -3,6 +3,9 @@ package com.viii28stw.pensiltikbackend.model.entity;
 import com.viii28stw.pensiltikbackend.enumeration.Sexo;
 import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import java.io.Serializable;
@@ -16,11 +19,19 @@ import java.time.LocalDate;
 @ToString
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "IDX_USUARIO_NOME", columnList = "NOME"),
+        @Index(name = "IDX_USUARIO_EMAIL", columnList = "EMAIL")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
 public class Usuario implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
+    @GeneratedValue(generator = "usuario_codigo")
+    @GenericGenerator(name = "usuario_codigo", strategy = "com.viii28stw.pensiltikbackend.util.IdGenerator")
     @Column(name = "CODIGO", length = 25)
     private String codigo;
 
@@ -34,7 +45,7 @@ public class Usuario implements Serializable {
     @Column(name = "EMAIL", length = 25, nullable = false)
     private String email;
 
-    @Column(name = "SENHA", length = 10, nullable = false)
+    @Column(name = "SENHA", length = 60, nullable = false)
     private String senha;
 
     @Enumerated(EnumType.ORDINAL)
@@ -0,0 +1,38 @@
+package com.viii28stw.pensiltikbackend.model.entity;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Contador de gravações de categoria de um usuário, incrementado na mesma
+ * transação de cada gravação. A versão do catálogo é a soma deste contador
+ * com o das categorias padrão (a linha de {@link #PADRAO}), e assim é a
+ * mesma em todos os backends.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "VERSAO_CATEGORIA_DESPESA")
+public class VersaoCategoriaDespesa implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Chave da linha das categorias padrão, que entram no catálogo de todos
+    public static final String PADRAO = "";
+
+    @Id
+    @Column(name = "CODIGO_USUARIO", length = 25)
+    private String codigoUsuario;
+
+    @Column(name = "VERSAO", nullable = false)
+    private long versao;
+
+}
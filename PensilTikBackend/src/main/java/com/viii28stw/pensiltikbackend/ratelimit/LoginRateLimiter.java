@@ -0,0 +1,74 @@
+package com.viii28stw.pensiltikbackend.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+
+/**
+ * Limita as tentativas de login por e-mail e por IP do cliente.
+ *
+ * O limite por e-mail segura ataques de força bruta contra uma conta vinda
+ * de vários IPs, e o limite por IP segura um cliente testando muitas contas.
+ * A verificação é feita só em memória, antes de qualquer acesso ao banco ou
+ * cálculo de hash, então uma rajada de tentativas não chega ao pool de
+ * conexões.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public class LoginRateLimiter {
+
+    private final TokenBucketRateLimiter emailLimiter;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByIp;
+
+    public LoginRateLimiter(TokenBucketRateLimiter emailLimiter, TokenBucketRateLimiter ipLimiter,
+                            MeterRegistry meterRegistry) {
+        this.emailLimiter = emailLimiter;
+        this.ipLimiter = ipLimiter;
+        this.rejectedByEmail = Counter.builder("pensiltik.login.limitado")
+                .description("Tentativas de login recusadas pelo limite de taxa")
+                .tag("chave", "email")
+                .register(meterRegistry);
+        this.rejectedByIp = Counter.builder("pensiltik.login.limitado")
+                .description("Tentativas de login recusadas pelo limite de taxa")
+                .tag("chave", "ip")
+                .register(meterRegistry);
+        Gauge.builder("pensiltik.login.baldes", emailLimiter, TokenBucketRateLimiter::getTrackedKeys)
+                .tag("chave", "email")
+                .register(meterRegistry);
+        Gauge.builder("pensiltik.login.baldes", ipLimiter, TokenBucketRateLimiter::getTrackedKeys)
+                .tag("chave", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra uma tentativa de login. O IP é conferido primeiro, para que um
+     * cliente já bloqueado não gaste as fichas da conta que está atacando.
+     *
+     * @return zero quando a tentativa pode seguir; senão, quantos
+     * milissegundos o cliente deve esperar
+     */
+    public long tryAcquire(String email, String ip) {
+        long wait = ipLimiter.tryAcquire(ip == null ? "" : ip);
+        if (wait > 0) {
+            rejectedByIp.increment();
+            return wait;
+        }
+        wait = emailLimiter.tryAcquire(email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            rejectedByEmail.increment();
+        }
+        return wait;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emailLimiter.shutdown();
+        ipLimiter.shutdown();
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.viii28stw.pensiltikbackend.ratelimit;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita a taxa de eventos por chave com um balde de fichas por chave.
+ *
+ * Cada balde começa cheio com a capacidade configurada e é recarregado de
+ * forma contínua, voltando a encher no período de recarga; cada evento
+ * gasta uma ficha. Os baldes ficam em listras com mapa e lock próprios, então
+ * chaves diferentes quase nunca disputam o mesmo lock.
+ *
+ * Um balde que ficou ocioso tempo suficiente para encher de novo é igual a
+ * um balde novo, então uma thread em segundo plano remove esses baldes e a
+ * memória acompanha só as chaves ativas.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public class TokenBucketRateLimiter {
+
+    private final Stripe[] stripes;
+    private final long capacity;
+    private final long refillNanos;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService evictor;
+
+    public TokenBucketRateLimiter(String name, long capacity, Duration refillPeriod, int stripes,
+                                  Duration evictionInterval) {
+        this(name, capacity, refillPeriod, stripes, evictionInterval, System::nanoTime);
+    }
+
+    /**
+     * Sem intervalo de remoção nenhuma thread é criada e os baldes ociosos só
+     * saem com {@link #evictIdle()}.
+     */
+    TokenBucketRateLimiter(String name, long capacity, Duration refillPeriod, int stripes,
+                           Duration evictionInterval, LongSupplier clock) {
+        if (capacity < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("A capacidade e o período de recarga devem ser positivos");
+        }
+        this.capacity = capacity;
+        this.refillNanos = refillPeriod.toNanos();
+        this.tokensPerNano = (double) capacity / refillNanos;
+        this.clock = clock;
+
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+
+        if (evictionInterval == null) {
+            this.evictor = null;
+        } else {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name + "-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.evictor.scheduleWithFixedDelay(this::evictIdle,
+                    evictionInterval.toMillis(), evictionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gasta uma ficha do balde da chave.
+     *
+     * @return zero quando a ficha foi gasta; senão, quantos milissegundos
+     * faltam para a próxima ficha
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.refill(now, capacity, tokensPerNano);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens--;
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - bucket.tokens) / tokensPerNano)));
+        }
+    }
+
+    void evictIdle() {
+        long now = clock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> iterator = stripe.buckets.values().iterator();
+                while (iterator.hasNext()) {
+                    if (now - iterator.next().lastRefill >= refillNanos) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public int getTrackedKeys() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.buckets.size();
+            }
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) evictor.shutdownNow();
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(long capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now, long capacity, double tokensPerNano) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+
+}
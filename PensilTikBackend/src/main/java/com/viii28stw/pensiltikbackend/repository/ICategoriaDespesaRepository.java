@@ -0,0 +1,32 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.entity.CategoriaDespesa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ICategoriaDespesaRepository extends JpaRepository<CategoriaDespesa, Integer> {
+
+    // As padrão (sem usuário) e as do usuário: o catálogo inteiro numa consulta
+    @Query("select c from CategoriaDespesa c where c.codigoUsuario is null or c.codigoUsuario = :codigoUsuario")
+    List<CategoriaDespesa> findCatalogo(@Param("codigoUsuario") String codigoUsuario);
+
+    Optional<CategoriaDespesa> findByCodigoAndCodigoUsuario(Integer codigo, String codigoUsuario);
+
+    boolean existsByCodigoPai(Integer codigoPai);
+
+    // Grava uma categoria padrão com o código fixo de DespesaEnum, se ainda não existir
+    @Modifying
+    @Query(value = "insert ignore into CategoriaDespesa (CODIGO, DESCRICAO) values (:codigo, :descricao)",
+            nativeQuery = true)
+    int semear(@Param("codigo") int codigo, @Param("descricao") String descricao);
+
+    @Modifying
+    @Query("delete from CategoriaDespesa c where c.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+}
@@ -0,0 +1,65 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.Despesa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IDespesaRepository extends JpaRepository<Despesa, String> {
+
+    // Toda consulta filtra pelo usuário e por um intervalo de DATA: usa um dos
+    // índices compostos e, com a tabela particionada, só lê as partições do intervalo
+    String DESPESA = "select new com.viii28stw.pensiltikbackend.model.dto.DespesaDto("
+            + "d.codigo, d.data, d.valor, d.categoria, d.descricao) "
+            + "from Despesa d ";
+
+    // Só para alterar ou excluir: a linha fica travada (select ... for update) até o fim
+    // da transação, e uma segunda alteração da mesma despesa espera e lê o valor novo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Despesa> findByCodigoAndCodigoUsuario(String codigo, String codigoUsuario);
+
+    @Query(DESPESA + "where d.codigo = :codigo and d.codigoUsuario = :codigoUsuario")
+    Optional<DespesaDto> findDtoByCodigoAndCodigoUsuario(@Param("codigo") String codigo,
+                                                         @Param("codigoUsuario") String codigoUsuario);
+
+    @Query(DESPESA + "where d.codigoUsuario = :codigoUsuario and d.data between :inicio and :fim "
+            + "order by d.data, d.codigo")
+    List<DespesaDto> findDtosByPeriodo(@Param("codigoUsuario") String codigoUsuario,
+                                       @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Uma categoria e as subcategorias dela: um intervalo do índice por categoria
+    @Query(DESPESA + "where d.codigoUsuario = :codigoUsuario and d.categoria in :categorias "
+            + "and d.data between :inicio and :fim order by d.data, d.codigo")
+    List<DespesaDto> findDtosByCategoriasAndPeriodo(@Param("codigoUsuario") String codigoUsuario,
+                                                    @Param("categorias") Collection<Integer> categorias,
+                                                    @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Quais hashes de um lote importado o usuário já tem (índice CODIGO_USUARIO, HASH_IMPORTACAO)
+    @Query("select d.hashImportacao from Despesa d where d.codigoUsuario = :codigoUsuario "
+            + "and d.hashImportacao in :hashes")
+    List<Long> findHashesImportacao(@Param("codigoUsuario") String codigoUsuario,
+                                    @Param("hashes") Collection<Long> hashes);
+
+    boolean existsByCodigoUsuarioAndCategoria(String codigoUsuario, Integer categoria);
+
+    @Modifying
+    @Query("delete from Despesa d where d.codigo = :codigo and d.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoAndCodigoUsuario(@Param("codigo") String codigo, @Param("codigoUsuario") String codigoUsuario);
+
+    @Query("select distinct d.codigoUsuario from Despesa d")
+    List<String> findCodigosUsuario();
+
+    @Modifying
+    @Query("delete from Despesa d where d.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+}
@@ -0,0 +1,48 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.entity.Renda;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IRendaRepository extends JpaRepository<Renda, String> {
+
+    String RENDA = "select new com.viii28stw.pensiltikbackend.model.dto.RendaDto("
+            + "r.codigo, r.data, r.valor, r.codigoTipoRenda, r.descricao) "
+            + "from Renda r ";
+
+    // Só para alterar ou excluir, como em IDespesaRepository: trava a linha até o fim da transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Renda> findByCodigoAndCodigoUsuario(String codigo, String codigoUsuario);
+
+    boolean existsByCodigoTipoRenda(String codigoTipoRenda);
+
+    @Query(RENDA + "where r.codigo = :codigo and r.codigoUsuario = :codigoUsuario")
+    Optional<RendaDto> findDtoByCodigoAndCodigoUsuario(@Param("codigo") String codigo,
+                                                       @Param("codigoUsuario") String codigoUsuario);
+
+    @Query(RENDA + "where r.codigoUsuario = :codigoUsuario and r.data between :inicio and :fim "
+            + "order by r.data, r.codigo")
+    List<RendaDto> findDtosByPeriodo(@Param("codigoUsuario") String codigoUsuario,
+                                     @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    @Query("select distinct r.codigoUsuario from Renda r")
+    List<String> findCodigosUsuario();
+
+    @Modifying
+    @Query("delete from Renda r where r.codigo = :codigo and r.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoAndCodigoUsuario(@Param("codigo") String codigo, @Param("codigoUsuario") String codigoUsuario);
+
+    @Modifying
+    @Query("delete from Renda r where r.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+}
@@ -0,0 +1,45 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface IResumoMensalDespesaRepository extends JpaRepository<ResumoMensalDespesa, ResumoMensalDespesa.Chave> {
+
+    // Soma (ou subtrai, com valor e quantidade negativos) uma despesa ao resumo
+    // numa só ida ao banco, travando apenas a linha do mês e da categoria
+    @Modifying
+    @Query(value = "insert into RESUMO_MENSAL_DESPESA (CODIGO_USUARIO, ANO_MES, CATEGORIA, TOTAL, QUANTIDADE) "
+            + "values (:codigoUsuario, :anoMes, :categoria, :valor, :quantidade) "
+            + "on duplicate key update TOTAL = TOTAL + values(TOTAL), QUANTIDADE = QUANTIDADE + values(QUANTIDADE)",
+            nativeQuery = true)
+    int acumular(@Param("codigoUsuario") String codigoUsuario, @Param("anoMes") int anoMes,
+                 @Param("categoria") int categoria, @Param("valor") BigDecimal valor,
+                 @Param("quantidade") long quantidade);
+
+    @Query("select new com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto("
+            + "r.anoMes, r.categoria, r.total, r.quantidade) from ResumoMensalDespesa r "
+            + "where r.codigoUsuario = :codigoUsuario and r.anoMes between :inicio and :fim and r.quantidade > 0 "
+            + "order by r.anoMes, r.categoria")
+    List<ResumoMensalDespesaDto> findDtosByPeriodo(@Param("codigoUsuario") String codigoUsuario,
+                                                   @Param("inicio") int inicio, @Param("fim") int fim);
+
+    @Modifying
+    @Query("delete from ResumoMensalDespesa r where r.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+
+    @Modifying
+    @Query(value = "insert into RESUMO_MENSAL_DESPESA (CODIGO_USUARIO, ANO_MES, CATEGORIA, TOTAL, QUANTIDADE) "
+            + "select CODIGO_USUARIO, year(DATA) * 100 + month(DATA), CATEGORIA, sum(VALOR), count(*) "
+            + "from Despesa where CODIGO_USUARIO = :codigoUsuario "
+            + "group by CODIGO_USUARIO, year(DATA) * 100 + month(DATA), CATEGORIA",
+            nativeQuery = true)
+    int reconstruir(@Param("codigoUsuario") String codigoUsuario);
+}
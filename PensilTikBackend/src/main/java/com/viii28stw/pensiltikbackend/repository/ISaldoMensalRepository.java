@@ -0,0 +1,41 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.entity.SaldoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ISaldoMensalRepository extends JpaRepository<SaldoMensal, SaldoMensal.Chave> {
+
+    @Modifying
+    @Query(value = "insert into SALDO_MENSAL (CODIGO_USUARIO, ANO_MES, RENDAS, DESPESAS) "
+            + "values (:codigoUsuario, :anoMes, :rendas, :despesas) "
+            + "on duplicate key update RENDAS = RENDAS + values(RENDAS), DESPESAS = DESPESAS + values(DESPESAS)",
+            nativeQuery = true)
+    int acumular(@Param("codigoUsuario") String codigoUsuario, @Param("anoMes") int anoMes,
+                 @Param("rendas") BigDecimal rendas, @Param("despesas") BigDecimal despesas);
+
+    List<SaldoMensal> findByCodigoUsuarioAndAnoMesGreaterThanEqualOrderByAnoMes(String codigoUsuario, Integer anoMes);
+
+    List<SaldoMensal> findByCodigoUsuarioAndAnoMesBetween(String codigoUsuario, Integer inicio, Integer fim);
+
+    @Modifying
+    @Query("delete from SaldoMensal s where s.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+
+    // Despesas vêm de RESUMO_MENSAL_DESPESA, que já tem um total por mês e categoria
+    @Modifying
+    @Query(value = "insert into SALDO_MENSAL (CODIGO_USUARIO, ANO_MES, RENDAS, DESPESAS) "
+            + "select :codigoUsuario, ANO_MES, sum(RENDAS), sum(DESPESAS) from ("
+            + "select year(DATA) * 100 + month(DATA) ANO_MES, VALOR RENDAS, 0 DESPESAS "
+            + "from Renda where CODIGO_USUARIO = :codigoUsuario "
+            + "union all select ANO_MES, 0, TOTAL from RESUMO_MENSAL_DESPESA where CODIGO_USUARIO = :codigoUsuario"
+            + ") lancamentos group by ANO_MES",
+            nativeQuery = true)
+    int reconstruir(@Param("codigoUsuario") String codigoUsuario);
+}
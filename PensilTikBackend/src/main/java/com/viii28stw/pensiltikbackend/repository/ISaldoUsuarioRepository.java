@@ -0,0 +1,32 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+
+@Repository
+public interface ISaldoUsuarioRepository extends JpaRepository<SaldoUsuario, String> {
+
+    @Modifying
+    @Query(value = "insert into SALDO_USUARIO (CODIGO_USUARIO, RENDAS, DESPESAS) "
+            + "values (:codigoUsuario, :rendas, :despesas) "
+            + "on duplicate key update RENDAS = RENDAS + values(RENDAS), DESPESAS = DESPESAS + values(DESPESAS)",
+            nativeQuery = true)
+    int acumular(@Param("codigoUsuario") String codigoUsuario,
+                 @Param("rendas") BigDecimal rendas, @Param("despesas") BigDecimal despesas);
+
+    @Modifying
+    @Query("delete from SaldoUsuario s where s.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+
+    @Modifying
+    @Query(value = "insert into SALDO_USUARIO (CODIGO_USUARIO, RENDAS, DESPESAS) "
+            + "select :codigoUsuario, coalesce(sum(RENDAS), 0), coalesce(sum(DESPESAS), 0) "
+            + "from SALDO_MENSAL where CODIGO_USUARIO = :codigoUsuario",
+            nativeQuery = true)
+    int reconstruir(@Param("codigoUsuario") String codigoUsuario);
+}
@@ -0,0 +1,24 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.entity.TipoRenda;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ITipoRendaRepository extends JpaRepository<TipoRenda, String> {
+
+    List<TipoRenda> findByCodigoUsuarioOrderByDescricao(String codigoUsuario);
+
+    Optional<TipoRenda> findByCodigoAndCodigoUsuario(String codigo, String codigoUsuario);
+
+    boolean existsByCodigoAndCodigoUsuario(String codigo, String codigoUsuario);
+
+    @Modifying
+    @Query("delete from TipoRenda t where t.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+}
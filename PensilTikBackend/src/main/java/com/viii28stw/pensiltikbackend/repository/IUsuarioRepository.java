@@ -1,13 +1,67 @@
 package com.viii28stw.pensiltikbackend.repository;
 
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
 import com.viii28stw.pensiltikbackend.model.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
 
 @Repository
 public interface IUsuarioRepository extends JpaRepository<Usuario, String> {
 
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
-    Usuario findByEmailAndSenha(String email, String senha);
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    Usuario findByEmail(String email);
     Usuario findFirstByOrderByCodigoDesc();
-}
\ No newline at end of file
+
+    // Leituras sem a coluna SENHA, montadas direto no DTO e fora do contexto de persistência
+    String RESUMO = "select new com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto("
+            + "u.codigo, u.nome, u.sobreNome, u.email, u.sexo, u.dataNascimento, u.usuarioNivelAcesso) "
+            + "from Usuario u ";
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    @Query(RESUMO + "where u.codigo = :codigo")
+    Optional<UsuarioResumoDto> findResumoByCodigo(@Param("codigo") String codigo);
+
+    @Query(RESUMO)
+    List<UsuarioResumoDto> findResumos();
+
+    @Query(RESUMO + "order by u.codigo")
+    List<UsuarioResumoDto> findResumosOrderByCodigo(Pageable pageable);
+
+    @Query(RESUMO + "where u.codigo > :codigo order by u.codigo")
+    List<UsuarioResumoDto> findResumosByCodigoGreaterThan(@Param("codigo") String codigo, Pageable pageable);
+
+    @Query(RESUMO + "where u.codigo in :codigos")
+    List<UsuarioResumoDto> findResumosByCodigoIn(@Param("codigos") Collection<String> codigos);
+
+    @Query(RESUMO + "where u.nome like ?#{escape([0])}% escape ?#{escapeCharacter()} "
+            + "or u.email like ?#{escape([0])}% escape ?#{escapeCharacter()} order by u.nome")
+    List<UsuarioResumoDto> findResumosByPrefixo(String prefixo, Pageable pageable);
+
+    // Integer.MIN_VALUE faz o driver do MySQL trazer as linhas uma a uma em vez de carregar o resultado inteiro
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = CACHE_MODE, value = "IGNORE")})
+    @Query(RESUMO + "order by u.codigo")
+    Stream<UsuarioResumoDto> streamResumosOrderByCodigo();
+
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select u.codigo, u.nome, u.email from Usuario u")
+    Stream<Object[]> streamCodigoNomeEmail();
+
+    @Query("select u.email from Usuario u where u.email in :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+}
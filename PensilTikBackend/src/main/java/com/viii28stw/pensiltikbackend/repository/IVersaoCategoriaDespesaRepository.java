@@ -0,0 +1,29 @@
+package com.viii28stw.pensiltikbackend.repository;
+
+import com.viii28stw.pensiltikbackend.model.entity.VersaoCategoriaDespesa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IVersaoCategoriaDespesaRepository extends JpaRepository<VersaoCategoriaDespesa, String> {
+
+    // Trava a linha até o commit: gravações de categoria do mesmo usuário ficam em fila
+    @Modifying
+    @Query(value = "insert into VERSAO_CATEGORIA_DESPESA (CODIGO_USUARIO, VERSAO) values (:codigoUsuario, 1) "
+            + "on duplicate key update VERSAO = VERSAO + 1",
+            nativeQuery = true)
+    int incrementar(@Param("codigoUsuario") String codigoUsuario);
+
+    // A linha '' é a das categorias padrão (VersaoCategoriaDespesa.PADRAO); as duas parcelas
+    // só crescem, então a soma muda a cada gravação do usuário ou das padrão
+    @Query("select coalesce(sum(v.versao), 0) from VersaoCategoriaDespesa v "
+            + "where v.codigoUsuario in (:codigoUsuario, '')")
+    long somarVersao(@Param("codigoUsuario") String codigoUsuario);
+
+    @Modifying
+    @Query("delete from VersaoCategoriaDespesa v where v.codigoUsuario = :codigoUsuario")
+    int deleteByCodigoUsuario(@Param("codigoUsuario") String codigoUsuario);
+}
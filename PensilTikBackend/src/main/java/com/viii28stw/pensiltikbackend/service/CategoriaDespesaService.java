@@ -0,0 +1,223 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.mapper.IDespesaMapper;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriasDespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.CategoriaDespesa;
+import com.viii28stw.pensiltikbackend.model.entity.VersaoCategoriaDespesa;
+import com.viii28stw.pensiltikbackend.repository.ICategoriaDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IVersaoCategoriaDespesaRepository;
+import com.viii28stw.pensiltikcommon.categoria.CatalogoCategorias;
+import com.viii28stw.pensiltikcommon.categoria.Categoria;
+import com.viii28stw.pensiltikcommon.categoria.CategoriaCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Categorias de despesa de cada usuário, servidas por um catálogo em memória.
+ *
+ * O catálogo de um usuário (as categorias padrão mais as dele) é lido numa
+ * consulta e fica no {@link CategoriaCache}. A versão dele vem do banco
+ * ({@link VersaoCategoriaDespesa}), incrementada na transação de cada
+ * gravação de categoria. A versão guardada é conferida com a do banco no
+ * máximo uma vez por intervalo ({@code categoria.cache.intervalo-verificacao-millis})
+ * e o catálogo é recarregado quando ela mudou: uma gravação deste backend
+ * aparece assim que a transação termina, uma feita em outro backend em até
+ * um intervalo. O cliente guarda a versão e só baixa o catálogo de novo
+ * quando ela muda.
+ *
+ * As gravações de categoria validam contra um catálogo lido dentro da
+ * própria transação, fora do cache.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Service("categoriaDespesaService")
+public class CategoriaDespesaService implements ICategoriaDespesaService {
+
+    private static final int MAXIMO_NIVEIS = 4;
+
+    private final CategoriaCache<String> catalogos = new CategoriaCache<>();
+
+    @Autowired private ICategoriaDespesaRepository categoriaDespesaRepository;
+    @Autowired private IVersaoCategoriaDespesaRepository versaoCategoriaDespesaRepository;
+    @Autowired private IDespesaRepository despesaRepository;
+    @Autowired private IDespesaMapper despesaMapper;
+    @Value("${categoria.cache.intervalo-verificacao-millis:1000}") private long intervaloVerificacaoMillis;
+
+    // Grava as categorias de DespesaEnum com os códigos que as despesas já usam
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void semearCategoriasPadrao() {
+        int semeadas = 0;
+        for (DespesaEnum despesaEnum : DespesaEnum.values()) {
+            semeadas += categoriaDespesaRepository.semear(despesaEnum.getCodigo(), despesaEnum.getDescricao());
+        }
+        // Sem a linha das padrão, um catálogo novo teria versão zero, a de quem ainda não tem nenhum
+        if (semeadas > 0 || !versaoCategoriaDespesaRepository.existsById(VersaoCategoriaDespesa.PADRAO)) {
+            versaoCategoriaDespesaRepository.incrementar(VersaoCategoriaDespesa.PADRAO);
+            invalidarAposCompletar(null);
+        }
+    }
+
+    @Override
+    public CatalogoCategorias buscarCatalogo(String codigoUsuario) {
+        CatalogoCategorias catalogo = catalogos.getSeConferido(codigoUsuario,
+                TimeUnit.MILLISECONDS.toNanos(intervaloVerificacaoMillis));
+        if (catalogo != null) return catalogo;
+        long versao = versaoCategoriaDespesaRepository.somarVersao(codigoUsuario);
+        catalogo = catalogos.conferir(codigoUsuario, versao);
+        if (catalogo != null) return catalogo;
+        // Lida depois da versão, a carga é no mínimo tão nova quanto ela; se for mais nova,
+        // a próxima conferência vê outra versão no banco e só recarrega
+        catalogo = carregar(codigoUsuario, versao);
+        catalogos.atualizar(codigoUsuario, catalogo);
+        return catalogo;
+    }
+
+    @Override
+    public CategoriasDespesaDto buscarCategorias(String codigoUsuario) {
+        CatalogoCategorias catalogo = buscarCatalogo(codigoUsuario);
+        List<CategoriaDespesaDto> categorias = new ArrayList<>(catalogo.tamanho());
+        for (Categoria categoria : catalogo.getCategorias()) {
+            categorias.add(CategoriaDespesaDto.builder()
+                    .codigo(categoria.getCodigo())
+                    .codigoPai(categoria.getCodigoPai() == Categoria.SEM_PAI ? null : categoria.getCodigoPai())
+                    .descricao(categoria.getDescricao())
+                    .padrao(categoria.isPadrao())
+                    .build());
+        }
+        return new CategoriasDespesaDto(catalogo.getVersao(), categorias);
+    }
+
+    @Override
+    @Transactional
+    public CategoriaDespesaDto salvarCategoria(String codigoUsuario, CategoriaDespesaDto categoriaDespesaDto) {
+        // Incrementar primeiro trava a versão: a validação abaixo já vê as gravações concorrentes
+        incrementarVersao(codigoUsuario);
+        CatalogoCategorias catalogo = carregarNaTransacao(codigoUsuario);
+        Integer codigo = categoriaDespesaDto.getCodigo();
+        Integer codigoPai = categoriaDespesaDto.getCodigoPai();
+        if (categoriaDespesaDto.getDescricao() == null || categoriaDespesaDto.getDescricao().trim().isEmpty()) {
+                throw new IllegalArgumentException("A categoria deve ter uma descrição");
+        }else if (codigoPai != null && !catalogo.contem(codigoPai)) {
+                throw new IllegalArgumentException("Não existe categoria pai com o ID informado");
+        }else if (codigo != null && catalogo.contem(codigo) && catalogo.get(codigo).isPadrao()) {
+                throw new IllegalArgumentException("As categorias padrão não podem ser alteradas");
+        }else if (codigo != null && codigoPai != null && catalogo.ehDescendente(codigoPai, codigo)) {
+                throw new IllegalArgumentException("Uma categoria não pode ficar abaixo dela mesma");
+        }else if (profundidade(catalogo, codigo, codigoPai) >= MAXIMO_NIVEIS) {
+                throw new IllegalArgumentException("As categorias não podem passar de " + MAXIMO_NIVEIS + " níveis");
+        }
+
+        CategoriaDespesa categoriaDespesa;
+        if (codigo == null) {
+            categoriaDespesa = despesaMapper.toEntity(categoriaDespesaDto);
+            categoriaDespesa.setCodigoUsuario(codigoUsuario);
+            categoriaDespesa = categoriaDespesaRepository.save(categoriaDespesa);
+        } else {
+            categoriaDespesa = categoriaDespesaRepository.findByCodigoAndCodigoUsuario(codigo, codigoUsuario)
+                    .orElseThrow(() -> new NoSuchElementException("Não existe categoria com o ID informado"));
+            categoriaDespesa.setCodigoPai(codigoPai);
+            categoriaDespesa.setDescricao(categoriaDespesaDto.getDescricao());
+        }
+        return despesaMapper.toDto(categoriaDespesa);
+    }
+
+    @Override
+    @Transactional
+    public boolean deletarCategoriaPorId(String codigoUsuario, Integer codigo) {
+        incrementarVersao(codigoUsuario);
+        CategoriaDespesa categoriaDespesa = categoriaDespesaRepository.findByCodigoAndCodigoUsuario(codigo, codigoUsuario)
+                .orElse(null);
+        if (categoriaDespesa == null) {
+            if (carregarNaTransacao(codigoUsuario).contem(codigo)) {
+                throw new IllegalArgumentException("As categorias padrão não podem ser excluídas");
+            }
+            return false;
+        }
+        if (categoriaDespesaRepository.existsByCodigoPai(codigo)) {
+                throw new IllegalArgumentException("Esta categoria tem subcategorias");
+        }else if (despesaRepository.existsByCodigoUsuarioAndCategoria(codigoUsuario, codigo)) {
+                throw new IllegalArgumentException("Esta categoria tem despesas lançadas");
+        }
+        categoriaDespesaRepository.delete(categoriaDespesa);
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deletarDoUsuario(String codigoUsuario) {
+        categoriaDespesaRepository.deleteByCodigoUsuario(codigoUsuario);
+        // A linha de versão sai junto; o catálogo guardado sai da memória no fim da transação
+        versaoCategoriaDespesaRepository.deleteByCodigoUsuario(codigoUsuario);
+        invalidarAposCompletar(codigoUsuario);
+    }
+
+    // Só para validar a gravação: não vai para o cache, que guardaria o catálogo de antes
+    // da gravação com a versão nova
+    private CatalogoCategorias carregarNaTransacao(String codigoUsuario) {
+        return carregar(codigoUsuario, versaoCategoriaDespesaRepository.somarVersao(codigoUsuario));
+    }
+
+    private CatalogoCategorias carregar(String codigoUsuario, long versao) {
+        List<Categoria> categorias = new ArrayList<>();
+        for (CategoriaDespesa categoriaDespesa : categoriaDespesaRepository.findCatalogo(codigoUsuario)) {
+            categorias.add(new Categoria(categoriaDespesa.getCodigo(),
+                    categoriaDespesa.getCodigoPai() == null ? Categoria.SEM_PAI : categoriaDespesa.getCodigoPai(),
+                    categoriaDespesa.getDescricao(), categoriaDespesa.getCodigoUsuario() == null));
+        }
+        return new CatalogoCategorias(versao, categorias);
+    }
+
+    // Nível da categoria mais funda da subárvore depois de gravada abaixo de codigoPai
+    private static int profundidade(CatalogoCategorias catalogo, Integer codigo, Integer codigoPai) {
+        int nivel = codigoPai == null ? 0 : catalogo.profundidade(codigoPai) + 1;
+        if (codigo == null || !catalogo.contem(codigo)) return nivel;
+        int altura = 0;
+        for (int descendente : catalogo.descendentes(codigo)) {
+            altura = Math.max(altura, catalogo.profundidade(descendente) - catalogo.profundidade(codigo));
+        }
+        return nivel + altura;
+    }
+
+    private void incrementarVersao(String codigoUsuario) {
+        versaoCategoriaDespesaRepository.incrementar(codigoUsuario);
+        invalidarAposCompletar(codigoUsuario);
+    }
+
+    // Libera a memória deste backend; com rollback, tira também um catálogo guardado
+    // durante a transação com a versão que não chegou a ser gravada. Sem usuário,
+    // invalida todos (as categorias padrão fazem parte de todos os catálogos)
+    private void invalidarAposCompletar(String codigoUsuario) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidar(codigoUsuario);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidar(codigoUsuario);
+            }
+        });
+    }
+
+    private void invalidar(String codigoUsuario) {
+        if (codigoUsuario == null) catalogos.invalidarTudo();
+        else catalogos.invalidar(codigoUsuario);
+    }
+
+}
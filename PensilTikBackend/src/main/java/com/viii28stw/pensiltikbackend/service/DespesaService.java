@@ -0,0 +1,160 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.mapper.IDespesaMapper;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.Despesa;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import com.viii28stw.pensiltikbackend.repository.IDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IResumoMensalDespesaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@Service("despesaService")
+public class DespesaService implements IDespesaService {
+
+    private static final int MAXIMO_MESES_POR_CONSULTA = 24;
+
+    @Autowired private IDespesaRepository despesaRepository;
+    @Autowired private IDespesaMapper despesaMapper;
+    @Autowired private IResumoMensalDespesaRepository resumoMensalDespesaRepository;
+    @Autowired private ISaldoService saldoService;
+    @Autowired private ICategoriaDespesaService categoriaDespesaService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public DespesaDto buscarDespesaPorId(String codigoUsuario, String codigo) {
+        return despesaRepository.findDtoByCodigoAndCodigoUsuario(codigo, codigoUsuario)
+                .orElseThrow(() -> new NoSuchElementException("Não existe despesa com o ID informado"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DespesaDto> buscarDespesasDoMes(String codigoUsuario, YearMonth mes) {
+        return despesaRepository.findDtosByPeriodo(codigoUsuario, mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DespesaDto> buscarDespesasPorCategoria(String codigoUsuario, Integer categoria,
+                                                       YearMonth inicio, YearMonth fim) {
+        // A categoria inclui as subcategorias, resolvidas no catálogo em memória
+        int[] categorias = categoria == null ? new int[0]
+                : categoriaDespesaService.buscarCatalogo(codigoUsuario).descendentes(categoria);
+        if (categorias.length == 0) {
+            throw new IllegalArgumentException("Não existe categoria com o ID informado");
+        } else if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("O mês final é anterior ao mês inicial");
+        } else if (inicio.plusMonths(MAXIMO_MESES_POR_CONSULTA).isBefore(fim.plusMonths(1))) {
+            throw new IllegalArgumentException("O período não pode passar de " + MAXIMO_MESES_POR_CONSULTA + " meses");
+        }
+        return despesaRepository.findDtosByCategoriasAndPeriodo(codigoUsuario,
+                Arrays.stream(categorias).boxed().collect(Collectors.toList()), inicio.atDay(1), fim.atEndOfMonth());
+    }
+
+    // Toda gravação atualiza RESUMO_MENSAL_DESPESA e os saldos na mesma transação;
+    // alteração e exclusão leem a despesa travada, e o estorno usa o valor já gravado
+    @Override
+    @Transactional
+    public DespesaDto salvarDespesa(String codigoUsuario, DespesaDto despesaDto) {
+        validar(codigoUsuario, despesaDto);
+
+        despesaDto.setCodigo(null);
+        Despesa despesa = despesaMapper.toEntity(despesaDto);
+        despesa.setCodigoUsuario(codigoUsuario);
+        despesa = despesaRepository.save(despesa);
+        acumular(codigoUsuario, despesa.getData(), despesa.getCategoria(), despesa.getValor(), 1);
+        return despesaMapper.toDto(despesa);
+    }
+
+    @Override
+    @Transactional
+    public DespesaDto atualizarDespesa(String codigoUsuario, DespesaDto despesaDto) {
+        if (despesaDto.getCodigo() == null || despesaDto.getCodigo().trim().isEmpty()) {
+                throw new IllegalArgumentException("A despesa informada não contem ID");
+        }
+        validar(codigoUsuario, despesaDto);
+
+        Despesa despesa = despesaRepository.findByCodigoAndCodigoUsuario(despesaDto.getCodigo(), codigoUsuario)
+                .orElseThrow(() -> new NoSuchElementException("Não existe despesa com o ID informado"));
+        // Estorno e novo valor em ordem de (mês, categoria), como na importação de extrato,
+        // para que alterações concorrentes peguem os locks dos resumos na mesma ordem
+        int anoMesAnterior = ResumoMensalDespesa.anoMes(YearMonth.from(despesa.getData()));
+        int anoMesNovo = ResumoMensalDespesa.anoMes(YearMonth.from(despesaDto.getData()));
+        int ordem = anoMesAnterior != anoMesNovo ? Integer.compare(anoMesAnterior, anoMesNovo)
+                : Integer.compare(despesa.getCategoria(), despesaDto.getCategoria());
+        if (ordem == 0) {
+            resumoMensalDespesaRepository.acumular(codigoUsuario, anoMesNovo, despesaDto.getCategoria(),
+                    despesaDto.getValor().subtract(despesa.getValor()), 0);
+        } else if (ordem < 0) {
+            resumoMensalDespesaRepository.acumular(codigoUsuario, anoMesAnterior, despesa.getCategoria(),
+                    despesa.getValor().negate(), -1);
+            resumoMensalDespesaRepository.acumular(codigoUsuario, anoMesNovo, despesaDto.getCategoria(),
+                    despesaDto.getValor(), 1);
+        } else {
+            resumoMensalDespesaRepository.acumular(codigoUsuario, anoMesNovo, despesaDto.getCategoria(),
+                    despesaDto.getValor(), 1);
+            resumoMensalDespesaRepository.acumular(codigoUsuario, anoMesAnterior, despesa.getCategoria(),
+                    despesa.getValor().negate(), -1);
+        }
+        Map<YearMonth, BigDecimal> porMes = new HashMap<>();
+        porMes.merge(YearMonth.from(despesa.getData()), despesa.getValor().negate(), BigDecimal::add);
+        porMes.merge(YearMonth.from(despesaDto.getData()), despesaDto.getValor(), BigDecimal::add);
+        saldoService.registrarDespesas(codigoUsuario, porMes);
+        despesa.setData(despesaDto.getData());
+        despesa.setValor(despesaDto.getValor());
+        despesa.setCategoria(despesaDto.getCategoria());
+        despesa.setDescricao(despesaDto.getDescricao());
+        return despesaMapper.toDto(despesa);
+    }
+
+    @Override
+    @Transactional
+    public boolean deletarDespesaPorId(String codigoUsuario, String codigo) {
+        Despesa despesa = despesaRepository.findByCodigoAndCodigoUsuario(codigo, codigoUsuario).orElse(null);
+        // Sem a linha excluída nada é estornado, para não descontar a despesa duas vezes
+        if (despesa == null || despesaRepository.deleteByCodigoAndCodigoUsuario(codigo, codigoUsuario) == 0) {
+            return false;
+        }
+        acumular(codigoUsuario, despesa.getData(), despesa.getCategoria(), despesa.getValor().negate(), -1);
+        return true;
+    }
+
+    // Sem estorno: os saldos do usuário são apagados junto, por ISaldoService.deletarDoUsuario
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deletarDoUsuario(String codigoUsuario) {
+        despesaRepository.deleteByCodigoUsuario(codigoUsuario);
+        resumoMensalDespesaRepository.deleteByCodigoUsuario(codigoUsuario);
+    }
+
+    private void acumular(String codigoUsuario, LocalDate data, int categoria, BigDecimal valor, long quantidade) {
+        resumoMensalDespesaRepository.acumular(codigoUsuario, ResumoMensalDespesa.anoMes(YearMonth.from(data)),
+                categoria, valor, quantidade);
+        saldoService.registrarDespesa(codigoUsuario, data, valor);
+    }
+
+    private void validar(String codigoUsuario, DespesaDto despesaDto) {
+        if (despesaDto.getData() == null) {
+                throw new IllegalArgumentException("A despesa deve ter uma data");
+        }else if (despesaDto.getValor() == null || despesaDto.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("O valor da despesa deve ser maior que zero");
+        }else if (despesaDto.getCategoria() == null) {
+                throw new IllegalArgumentException("A despesa deve ter uma categoria");
+        }else if (!categoriaDespesaService.buscarCatalogo(codigoUsuario).contem(despesaDto.getCategoria())) {
+                throw new IllegalArgumentException("Não existe categoria com o ID informado");
+        }
+    }
+
+}
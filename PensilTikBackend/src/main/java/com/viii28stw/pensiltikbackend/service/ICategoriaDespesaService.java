@@ -0,0 +1,19 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriasDespesaDto;
+import com.viii28stw.pensiltikcommon.categoria.CatalogoCategorias;
+
+public interface ICategoriaDespesaService {
+
+    CatalogoCategorias buscarCatalogo(String codigoUsuario);
+
+    CategoriasDespesaDto buscarCategorias(String codigoUsuario);
+
+    CategoriaDespesaDto salvarCategoria(String codigoUsuario, CategoriaDespesaDto categoriaDespesaDto);
+
+    boolean deletarCategoriaPorId(String codigoUsuario, Integer codigo);
+
+    void deletarDoUsuario(String codigoUsuario);
+
+}
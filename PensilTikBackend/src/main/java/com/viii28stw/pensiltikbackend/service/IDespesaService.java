@@ -0,0 +1,24 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface IDespesaService {
+
+    DespesaDto buscarDespesaPorId(String codigoUsuario, String codigo);
+
+    List<DespesaDto> buscarDespesasDoMes(String codigoUsuario, YearMonth mes);
+
+    List<DespesaDto> buscarDespesasPorCategoria(String codigoUsuario, Integer categoria,
+                                                YearMonth inicio, YearMonth fim);
+
+    DespesaDto salvarDespesa(String codigoUsuario, DespesaDto despesaDto);
+
+    DespesaDto atualizarDespesa(String codigoUsuario, DespesaDto despesaDto);
+
+    boolean deletarDespesaPorId(String codigoUsuario, String codigo);
+
+    void deletarDoUsuario(String codigoUsuario);
+
+}
@@ -0,0 +1,17 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoExtrato;
+import com.viii28stw.pensiltikbackend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoExtratoDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+public interface IImportacaoExtratoService {
+
+    RelatorioImportacaoExtratoDto importarExtrato(String codigoUsuario, InputStream inputStream, FormatoExtrato formato,
+                                                  Charset charset, long tamanho) throws IOException;
+
+    ProgressoImportacaoExtratoDto buscarProgresso(String codigoUsuario);
+
+}
@@ -0,0 +1,12 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoImportacao;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoDto;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IImportacaoUsuarioService {
+
+    RelatorioImportacaoDto importarUsuarios(InputStream inputStream, FormatoImportacao formato) throws IOException;
+
+}
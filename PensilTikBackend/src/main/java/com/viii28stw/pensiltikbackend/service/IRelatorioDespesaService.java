@@ -0,0 +1,15 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface IRelatorioDespesaService {
+
+    List<ResumoMensalDespesaDto> buscarResumoMensal(String codigoUsuario, YearMonth inicio, YearMonth fim);
+
+    void reconstruirResumos(String codigoUsuario);
+
+    int reconstruirResumos();
+
+}
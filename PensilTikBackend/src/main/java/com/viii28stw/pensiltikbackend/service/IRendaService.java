@@ -0,0 +1,28 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.dto.TipoRendaDto;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface IRendaService {
+
+    List<TipoRendaDto> buscarTiposRenda(String codigoUsuario);
+
+    TipoRendaDto salvarTipoRenda(String codigoUsuario, TipoRendaDto tipoRendaDto);
+
+    boolean deletarTipoRendaPorId(String codigoUsuario, String codigo);
+
+    RendaDto buscarRendaPorId(String codigoUsuario, String codigo);
+
+    List<RendaDto> buscarRendasDoMes(String codigoUsuario, YearMonth mes);
+
+    RendaDto salvarRenda(String codigoUsuario, RendaDto rendaDto);
+
+    RendaDto atualizarRenda(String codigoUsuario, RendaDto rendaDto);
+
+    boolean deletarRendaPorId(String codigoUsuario, String codigo);
+
+    void deletarDoUsuario(String codigoUsuario);
+
+}
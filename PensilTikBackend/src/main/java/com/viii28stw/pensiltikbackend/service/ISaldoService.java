@@ -0,0 +1,33 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.SaldoDto;
+import com.viii28stw.pensiltikbackend.model.dto.SaldoMensalDto;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public interface ISaldoService {
+
+    SaldoDto buscarSaldo(String codigoUsuario);
+
+    SaldoDto buscarSaldoAnual(String codigoUsuario, int ano);
+
+    List<SaldoMensalDto> buscarSaldosMensais(String codigoUsuario, YearMonth inicio, YearMonth fim);
+
+    void registrarRenda(String codigoUsuario, LocalDate data, BigDecimal valor);
+
+    void registrarDespesa(String codigoUsuario, LocalDate data, BigDecimal valor);
+
+    void registrarRendas(String codigoUsuario, Map<YearMonth, BigDecimal> rendasPorMes);
+
+    void registrarDespesas(String codigoUsuario, Map<YearMonth, BigDecimal> despesasPorMes);
+
+    void reconstruirSaldo(String codigoUsuario);
+
+    int reconstruirSaldos();
+
+    void deletarDoUsuario(String codigoUsuario);
+
+}
@@ -1,18 +1,31 @@
 package com.viii28stw.pensiltikbackend.service;
 
 
+import com.viii28stw.pensiltikbackend.model.dto.PaginaUsuarioDto;
 import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface IUsuarioService {
 
     UsuarioDto buscarUsuarioMaiorCodigo();
 
-    boolean isUserLoggedIn(String email);
+    UsuarioResumoDto buscarUsuarioPorId(String id);
 
-    UsuarioDto buscarUsuarioPorId(String id);
+    /**
+     * @deprecated carrega a tabela inteira; use {@link #buscarUsuariosPaginados(String, int)}
+     * ou {@link #exportarUsuarios(OutputStream)}.
+     */
+    @Deprecated
+    List<UsuarioResumoDto> buscarTodosOsUsuarios();
 
-    List<UsuarioDto> buscarTodosOsUsuarios();
+    PaginaUsuarioDto buscarUsuariosPaginados(String cursor, int tamanho);
+
+    void exportarUsuarios(OutputStream outputStream) throws IOException;
+
+    List<UsuarioResumoDto> pesquisarUsuarios(String prefixo, int limite);
 
     UsuarioDto salvarUsuario(UsuarioDto usuarioDto);
 
@@ -22,6 +35,6 @@ public interface IUsuarioService {
 
     UsuarioDto fazerLogin(UsuarioDto usuarioDto);
 
-    void sair(String email);
+    void sair(String sessionId);
 
 }
@@ -0,0 +1,308 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoExtrato;
+import com.viii28stw.pensiltikbackend.importacao.HashLancamento;
+import com.viii28stw.pensiltikbackend.importacao.LancamentoExtrato;
+import com.viii28stw.pensiltikbackend.importacao.LeitorExtrato;
+import com.viii28stw.pensiltikbackend.importacao.LeitorExtratoCsv;
+import com.viii28stw.pensiltikbackend.importacao.LeitorExtratoOfx;
+import com.viii28stw.pensiltikbackend.importacao.RegrasCategoria;
+import com.viii28stw.pensiltikbackend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.ResultadoImportacaoDto;
+import com.viii28stw.pensiltikbackend.model.entity.Despesa;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import com.viii28stw.pensiltikbackend.repository.IDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IResumoMensalDespesaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Importa as despesas de um extrato bancário em CSV ou OFX, lido em fluxo
+ * e gravado em lotes. A memória usada é a de um lote mais a contagem de
+ * ocorrências do {@link HashLancamento}, que cresce com os lançamentos
+ * distintos do arquivo até o limite de
+ * {@link HashLancamento#MAXIMO_LANCAMENTOS}; os débitos além dele são
+ * rejeitados.
+ *
+ * Os débitos do extrato viram despesas com a categoria escolhida pelas
+ * {@link RegrasCategoria}; créditos são ignorados. Cada lote é gravado numa
+ * transação: uma consulta pelo índice (CODIGO_USUARIO, HASH_IMPORTACAO)
+ * descarta os lançamentos já importados, os INSERTs vão agrupados pelo
+ * batching JDBC do Hibernate e os resumos mensais e saldos recebem um
+ * acumulado por mês e categoria, em vez de uma atualização por despesa.
+ *
+ * O progresso de cada usuário fica em memória para
+ * {@link #buscarProgresso(String)}, local a este nó como o
+ * {@link UsuarioPrefixIndex}; o usuário só tem uma importação por vez. O
+ * progresso de uma importação concluída sai da memória na primeira consulta
+ * ou, se ninguém consultar, depois do tempo de retenção.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Service("importacaoExtratoService")
+public class ImportacaoExtratoService implements IImportacaoExtratoService {
+
+    private static final int TAMANHO_MAXIMO_DESCRICAO = 100;
+    private static final int MAXIMO_ERROS = 100;
+
+    @Autowired private IDespesaRepository despesaRepository;
+    @Autowired private IResumoMensalDespesaRepository resumoMensalDespesaRepository;
+    @Autowired private ISaldoService saldoService;
+    @Autowired private RegrasCategoria regrasCategoria;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+    @Value("${extrato.importacao.tamanho-lote:1000}") private int tamanhoLote;
+    @Value("${extrato.importacao.progresso-retencao-minutos:10}") private long retencaoMinutos;
+
+    private final ConcurrentMap<String, Progresso> progressos = new ConcurrentHashMap<>();
+
+    @Override
+    public RelatorioImportacaoExtratoDto importarExtrato(String codigoUsuario, InputStream inputStream,
+                                                         FormatoExtrato formato, Charset charset,
+                                                         long tamanho) throws IOException {
+        removerConcluidos();
+        Progresso progresso = new Progresso(tamanho);
+        progressos.compute(codigoUsuario, (codigo, anterior) -> {
+            if (anterior != null && !anterior.concluida) {
+                throw new IllegalArgumentException("Já existe uma importação de extrato em andamento");
+            }
+            return progresso;
+        });
+
+        try {
+            ContadorBytes contador = new ContadorBytes(inputStream);
+            LeitorExtrato leitor = formato == FormatoExtrato.OFX
+                    ? new LeitorExtratoOfx(contador, charset) : new LeitorExtratoCsv(contador, charset);
+            HashLancamento hashLancamento = new HashLancamento();
+            List<ResultadoImportacaoDto> erros = new ArrayList<>();
+            List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+            LancamentoExtrato lancamento;
+            while ((lancamento = leitor.proximo()) != null) {
+                progresso.lancamentos++;
+                if (lancamento.getErro() != null) {
+                    rejeitar(progresso, erros, lancamento.getNumero(), lancamento.getErro());
+                } else if (lancamento.getValor().signum() >= 0) {
+                    progresso.ignoradas++;
+                } else {
+                    long hash;
+                    try {
+                        hash = hashLancamento.hash(lancamento.getData(), lancamento.getValor(), lancamento.getDescricao());
+                    } catch (IllegalStateException e) {
+                        rejeitar(progresso, erros, lancamento.getNumero(), e.getMessage());
+                        progresso.bytesLidos = contador.lidos;
+                        continue;
+                    }
+                    lote.add(new Linha(lancamento, hash, regrasCategoria.categorizar(lancamento.getDescricao())));
+                    if (lote.size() == tamanhoLote) {
+                        importarLote(codigoUsuario, lote, progresso, erros);
+                        lote.clear();
+                    }
+                }
+                progresso.bytesLidos = contador.lidos;
+            }
+            importarLote(codigoUsuario, lote, progresso, erros);
+            progresso.bytesLidos = contador.lidos;
+
+            return RelatorioImportacaoExtratoDto.builder()
+                    .lancamentos(progresso.lancamentos)
+                    .importadas(progresso.importadas)
+                    .duplicadas(progresso.duplicadas)
+                    .ignoradas(progresso.ignoradas)
+                    .rejeitadas(progresso.rejeitadas)
+                    .erros(erros)
+                    .build();
+        } finally {
+            progresso.concluidaEm = System.nanoTime();
+            progresso.concluida = true;
+        }
+    }
+
+    @Override
+    public ProgressoImportacaoExtratoDto buscarProgresso(String codigoUsuario) {
+        removerConcluidos();
+        Progresso progresso = progressos.get(codigoUsuario);
+        if (progresso == null) {
+            throw new NoSuchElementException("Não existe importação de extrato do usuário");
+        }
+        // Concluída, a importação já devolveu o relatório: esta é a última consulta
+        if (progresso.concluida) {
+            progressos.remove(codigoUsuario, progresso);
+        }
+        return ProgressoImportacaoExtratoDto.builder()
+                .bytesLidos(progresso.bytesLidos)
+                .bytesTotal(progresso.bytesTotal)
+                .lancamentos(progresso.lancamentos)
+                .importadas(progresso.importadas)
+                .duplicadas(progresso.duplicadas)
+                .ignoradas(progresso.ignoradas)
+                .rejeitadas(progresso.rejeitadas)
+                .concluida(progresso.concluida)
+                .build();
+    }
+
+    private void removerConcluidos() {
+        long agora = System.nanoTime();
+        long retencaoNanos = TimeUnit.MINUTES.toNanos(retencaoMinutos);
+        progressos.values().removeIf(progresso -> progresso.concluida
+                && agora - progresso.concluidaEm >= retencaoNanos);
+    }
+
+    private void importarLote(String codigoUsuario, List<Linha> lote, Progresso progresso,
+                              List<ResultadoImportacaoDto> erros) {
+        if (lote.isEmpty()) return;
+        int gravadas;
+        try {
+            gravadas = transactionTemplate.execute(status -> gravar(codigoUsuario, lote));
+        } catch (RuntimeException e) {
+            for (Linha linha : lote) {
+                rejeitar(progresso, erros, linha.numero, "Falha ao gravar o lote: " + e.getMessage());
+            }
+            return;
+        }
+        progresso.importadas += gravadas;
+        progresso.duplicadas += lote.size() - gravadas;
+    }
+
+    private int gravar(String codigoUsuario, List<Linha> lote) {
+        Set<Long> hashes = new HashSet<>(despesaRepository.findHashesImportacao(codigoUsuario,
+                lote.stream().map(linha -> linha.hash).collect(Collectors.toSet())));
+        // Ordenados para que os UPDATEs dos resumos e saldos peguem os locks sempre na mesma ordem
+        Map<Long, Acumulado> porCategoria = new TreeMap<>();
+        Map<YearMonth, BigDecimal> porMes = new TreeMap<>();
+
+        int gravadas = 0;
+        for (Linha linha : lote) {
+            if (!hashes.add(linha.hash)) continue;
+            entityManager.persist(Despesa.builder()
+                    .codigoUsuario(codigoUsuario)
+                    .data(linha.data)
+                    .valor(linha.valor)
+                    .categoria(linha.categoria)
+                    .descricao(linha.descricao)
+                    .hashImportacao(linha.hash)
+                    .build());
+            YearMonth mes = YearMonth.from(linha.data);
+            long chave = ((long) ResumoMensalDespesa.anoMes(mes) << 32) | linha.categoria;
+            porCategoria.computeIfAbsent(chave, k -> new Acumulado()).somar(linha.valor);
+            porMes.merge(mes, linha.valor, BigDecimal::add);
+            gravadas++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        porCategoria.forEach((chave, acumulado) -> resumoMensalDespesaRepository.acumular(codigoUsuario,
+                (int) (chave >>> 32), chave.intValue(), acumulado.valor, acumulado.quantidade));
+        saldoService.registrarDespesas(codigoUsuario, porMes);
+        return gravadas;
+    }
+
+    private static void rejeitar(Progresso progresso, List<ResultadoImportacaoDto> erros, int numero, String erro) {
+        progresso.rejeitadas++;
+        if (erros.size() < MAXIMO_ERROS) {
+            erros.add(ResultadoImportacaoDto.builder().linha(numero).erro(erro).build());
+        }
+    }
+
+    private static final class Linha {
+        private final int numero;
+        private final LocalDate data;
+        private final BigDecimal valor;
+        private final String descricao;
+        private final int categoria;
+        private final long hash;
+
+        // O débito do extrato vem negativo e a despesa é gravada com o valor positivo
+        private Linha(LancamentoExtrato lancamento, long hash, int categoria) {
+            String descricao = lancamento.getDescricao() == null ? "" : lancamento.getDescricao().trim();
+            this.numero = lancamento.getNumero();
+            this.data = lancamento.getData();
+            this.valor = lancamento.getValor().negate();
+            this.descricao = descricao.isEmpty() ? null
+                    : descricao.substring(0, Math.min(descricao.length(), TAMANHO_MAXIMO_DESCRICAO));
+            this.categoria = categoria;
+            this.hash = hash;
+        }
+    }
+
+    private static final class Acumulado {
+        private BigDecimal valor = BigDecimal.ZERO;
+        private long quantidade;
+
+        private void somar(BigDecimal valor) {
+            this.valor = this.valor.add(valor);
+            quantidade++;
+        }
+    }
+
+    // Só a thread da importação escreve; as consultas de progresso só leem
+    private static final class Progresso {
+        private final long bytesTotal;
+        private volatile long bytesLidos;
+        private volatile long lancamentos;
+        private volatile long importadas;
+        private volatile long duplicadas;
+        private volatile long ignoradas;
+        private volatile long rejeitadas;
+        private volatile long concluidaEm;
+        private volatile boolean concluida;
+
+        private Progresso(long bytesTotal) {
+            this.bytesTotal = bytesTotal;
+        }
+    }
+
+    private static final class ContadorBytes extends FilterInputStream {
+        private long lidos;
+
+        private ContadorBytes(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) lidos++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) lidos += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long pulados = super.skip(n);
+            lidos += pulados;
+            return pulados;
+        }
+
+        // mark/reset desligados para a contagem não passar do tamanho do arquivo
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viii28stw.pensiltikbackend.enumeration.FormatoImportacao;
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.mapper.IUsuarioMapper;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoDto;
+import com.viii28stw.pensiltikbackend.model.dto.ResultadoImportacaoDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.entity.Usuario;
+import com.viii28stw.pensiltikbackend.repository.IUsuarioRepository;
+import com.viii28stw.pensiltikbackend.util.EmailValidator;
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Importa usuários em lote a partir de um array JSON ou de um CSV lido em
+ * fluxo, sem carregar o arquivo inteiro.
+ *
+ * As linhas são processadas em lotes: a validação de cada lote roda em
+ * paralelo, os e-mails já cadastrados são buscados com uma só consulta por
+ * lote e os usuários válidos são gravados numa transação por lote, com os
+ * INSERTs agrupados pelo batching JDBC do Hibernate.
+ *
+ * Os hashes das senhas rodam num pool próprio da importação, separado do
+ * pool dos logins e do ForkJoinPool comum; uma senha que falhar rejeita só a
+ * sua linha, e os lotes já gravados continuam no relatório.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Service("importacaoUsuarioService")
+public class ImportacaoUsuarioService implements IImportacaoUsuarioService {
+
+    private static final int TAMANHO_MAXIMO_NOME = 25;
+
+    @Autowired private IUsuarioRepository usuarioRepository;
+    @Autowired private UsuarioPrefixIndex usuarioPrefixIndex;
+    @Autowired private ObjectMapper mapper;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PasswordPolicy passwordPolicy;
+    @Autowired private PasswordHashService passwordHashService;
+    @Autowired private IUsuarioMapper usuarioMapper;
+    @PersistenceContext private EntityManager entityManager;
+    @Value("${usuario.importacao.tamanho-lote:1000}") private int tamanhoLote;
+    @Value("${usuario.importacao.threads:0}") private int threads;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void iniciar() {
+        // 0 = metade dos núcleos, para deixar CPU livre para os logins
+        int tamanhoPool = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(tamanhoPool, runnable -> {
+            Thread thread = new Thread(runnable, "usuario-importacao-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public RelatorioImportacaoDto importarUsuarios(InputStream inputStream, FormatoImportacao formato) throws IOException {
+        LeitorUsuarios leitor = formato == FormatoImportacao.CSV
+                ? new LeitorCsv(inputStream) : new LeitorJson(inputStream);
+        List<ResultadoImportacaoDto> resultados = new ArrayList<>();
+        Set<String> emailsDoArquivo = new HashSet<>();
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+        Linha linha;
+        while ((linha = leitor.proxima()) != null) {
+            lote.add(linha);
+            if (lote.size() == tamanhoLote) {
+                importarLote(lote, emailsDoArquivo, resultados);
+                lote.clear();
+            }
+        }
+        importarLote(lote, emailsDoArquivo, resultados);
+
+        int importados = (int) resultados.stream().filter(resultado -> resultado.getErro() == null).count();
+        return RelatorioImportacaoDto.builder()
+                .importados(importados)
+                .rejeitados(resultados.size() - importados)
+                .resultados(resultados)
+                .build();
+    }
+
+    private void importarLote(List<Linha> lote, Set<String> emailsDoArquivo, List<ResultadoImportacaoDto> resultados) {
+        if (lote.isEmpty()) return;
+
+        lote.parallelStream()
+                .filter(linha -> linha.erro == null)
+                .forEach(linha -> linha.erro = validar(linha.usuarioDto));
+
+        for (Linha linha : lote) {
+            if (linha.erro == null && !emailsDoArquivo.add(linha.usuarioDto.getEmail().toLowerCase(Locale.ROOT))) {
+                linha.erro = "Este e-mail está repetido no arquivo";
+            }
+        }
+
+        List<Linha> validas = lote.stream().filter(linha -> linha.erro == null).collect(Collectors.toList());
+        if (!validas.isEmpty()) {
+            Set<String> existentes = usuarioRepository.findEmailsExistentes(validas.stream()
+                    .map(linha -> linha.usuarioDto.getEmail())
+                    .collect(Collectors.toList()))
+                    .stream()
+                    .map(email -> email.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            validas.removeIf(linha -> {
+                if (!existentes.contains(linha.usuarioDto.getEmail().toLowerCase(Locale.ROOT))) return false;
+                linha.erro = "Este e-mail já existe";
+                return true;
+            });
+            // Só as linhas que serão gravadas pagam o hash, em paralelo e com o custo de importação
+            gerarHashes(validas);
+            validas.removeIf(linha -> linha.erro != null);
+            gravar(validas);
+        }
+
+        for (Linha linha : lote) {
+            resultados.add(ResultadoImportacaoDto.builder()
+                    .linha(linha.numero)
+                    .email(linha.usuarioDto == null ? null : linha.usuarioDto.getEmail())
+                    .codigo(linha.codigo)
+                    .erro(linha.erro)
+                    .build());
+        }
+    }
+
+    private void gerarHashes(List<Linha> validas) {
+        List<Future<String>> hashes = new ArrayList<>(validas.size());
+        for (Linha linha : validas) {
+            String senha = linha.usuarioDto.getSenha();
+            hashes.add(executor.submit(() -> passwordHashService.hashImportacao(senha)));
+        }
+        for (int i = 0; i < validas.size(); i++) {
+            Linha linha = validas.get(i);
+            try {
+                linha.usuarioDto.setSenha(hashes.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hashes.forEach(hash -> hash.cancel(true));
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                linha.erro = "Falha ao gerar o hash da senha: " + e.getCause().getMessage();
+            }
+        }
+    }
+
+    private void gravar(List<Linha> validas) {
+        if (validas.isEmpty()) return;
+        List<Usuario> usuarios = new ArrayList<>(validas.size());
+        try {
+            transactionTemplate.execute(status -> {
+                for (Linha linha : validas) {
+                    Usuario usuario = usuarioMapper.toEntity(linha.usuarioDto);
+                    usuario.setCodigo(null);
+                    usuario.setSenha(linha.usuarioDto.getSenha());
+                    entityManager.persist(usuario);
+                    usuarios.add(usuario);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            for (Linha linha : validas) {
+                linha.erro = "Falha ao gravar o lote: " + e.getMessage();
+            }
+            return;
+        }
+        for (int i = 0; i < validas.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            validas.get(i).codigo = usuario.getCodigo();
+            usuarioPrefixIndex.atualizar(usuario.getCodigo(), usuario.getNome(), usuario.getEmail());
+        }
+    }
+
+    private String validar(UsuarioDto usuarioDto) {
+        if (vazio(usuarioDto.getNome()) || vazio(usuarioDto.getSobreNome()) || vazio(usuarioDto.getSenha())
+                || usuarioDto.getSexo() == null || usuarioDto.getDataNascimento() == null
+                || usuarioDto.getUsuarioNivelAcesso() == null) {
+            return "Campos obrigatórios não informados";
+        }
+        if (!EmailValidator.isValidEmail(usuarioDto.getEmail())) {
+            return "Este e-mail não é válido";
+        }
+        if (usuarioDto.getNome().length() > TAMANHO_MAXIMO_NOME
+                || usuarioDto.getSobreNome().length() > TAMANHO_MAXIMO_NOME
+                || usuarioDto.getEmail().length() > TAMANHO_MAXIMO_NOME) {
+            return "Nome, sobrenome e e-mail devem ter no máximo " + TAMANHO_MAXIMO_NOME + " caracteres";
+        }
+        if (!passwordPolicy.isValid(usuarioDto.getSenha())) {
+            return "A senha não atende à política de senhas";
+        }
+        return null;
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+
+    private static final class Linha {
+        private final int numero;
+        private final UsuarioDto usuarioDto;
+        private String erro;
+        private String codigo;
+
+        private Linha(int numero, UsuarioDto usuarioDto, String erro) {
+            this.numero = numero;
+            this.usuarioDto = usuarioDto;
+            this.erro = erro;
+        }
+    }
+
+    private interface LeitorUsuarios {
+        Linha proxima() throws IOException;
+    }
+
+    private final class LeitorJson implements LeitorUsuarios {
+        private final JsonParser parser;
+        private int numero;
+
+        private LeitorJson(InputStream inputStream) throws IOException {
+            parser = mapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A importação em JSON espera um array de usuários");
+            }
+        }
+
+        @Override
+        public Linha proxima() throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            numero++;
+            JsonNode usuario = mapper.readTree(parser);
+            try {
+                return new Linha(numero, mapper.treeToValue(usuario, UsuarioDto.class), null);
+            } catch (JsonProcessingException e) {
+                return new Linha(numero, null, "Usuário inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * CSV com cabeçalho; as colunas são localizadas pelo nome do campo do
+     * {@link UsuarioDto}, em qualquer ordem.
+     */
+    private static final class LeitorCsv implements LeitorUsuarios {
+        private final BufferedReader reader;
+        private final Map<String, Integer> colunas = new HashMap<>();
+        private int numero = 1;
+
+        private LeitorCsv(InputStream inputStream) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            String cabecalho = reader.readLine();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("O CSV não tem cabeçalho");
+            }
+            List<String> nomes = separar(cabecalho.startsWith("\uFEFF") ? cabecalho.substring(1) : cabecalho);
+            for (int i = 0; i < nomes.size(); i++) {
+                colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        @Override
+        public Linha proxima() throws IOException {
+            String texto;
+            do {
+                texto = reader.readLine();
+                if (texto == null) return null;
+                numero++;
+            } while (texto.trim().isEmpty());
+
+            List<String> campos = separar(texto);
+            try {
+                UsuarioDto usuarioDto = UsuarioDto.builder()
+                        .nome(campo(campos, "nome"))
+                        .sobreNome(campo(campos, "sobrenome"))
+                        .email(campo(campos, "email"))
+                        .senha(campo(campos, "senha"))
+                        .sexo(enumeracao(Sexo.class, campo(campos, "sexo")))
+                        .dataNascimento(data(campo(campos, "datanascimento")))
+                        .usuarioNivelAcesso(enumeracao(UsuarioNivelAcesso.class, campo(campos, "usuarionivelacesso")))
+                        .build();
+                return new Linha(numero, usuarioDto, null);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return new Linha(numero, null, "Usuário inválido: " + e.getMessage());
+            }
+        }
+
+        private String campo(List<String> campos, String nome) {
+            Integer indice = colunas.get(nome);
+            if (indice == null || indice >= campos.size()) return null;
+            String valor = campos.get(indice).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        private static <E extends Enum<E>> E enumeracao(Class<E> tipo, String valor) {
+            return valor == null ? null : Enum.valueOf(tipo, valor.toUpperCase(Locale.ROOT));
+        }
+
+        private static LocalDate data(String valor) {
+            return valor == null ? null : LocalDate.parse(valor);
+        }
+
+        private static List<String> separar(String texto) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean aspas = false;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (aspas) {
+                    if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        aspas = false;
+                    } else {
+                        campo.append(c);
+                    }
+                } else if (c == '"') {
+                    aspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+    }
+
+}
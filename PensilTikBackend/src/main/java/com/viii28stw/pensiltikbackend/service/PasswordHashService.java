@@ -0,0 +1,132 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera e confere os hashes bcrypt das senhas.
+ *
+ * O bcrypt é caro de propósito, então o trabalho roda num pool próprio com
+ * fila limitada: uma rajada de logins espera na fila ou recebe 503, em vez
+ * de ocupar todas as threads do Tomcat com cálculo de hash.
+ *
+ * Senhas gravadas antes do bcrypt, em texto puro, continuam aceitas e
+ * {@link #precisaRehash(String)} indica que devem ser regravadas no próximo
+ * login, assim como hashes com custo menor que o configurado.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Component
+public class PasswordHashService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final BCryptPasswordEncoder encoderImportacao;
+    private final int custo;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    // Conferido quando o usuário não existe, para que a resposta leve o mesmo tempo
+    private final String hashFicticio;
+
+    public PasswordHashService(@Value("${senha.bcrypt.custo:10}") int custo,
+                               @Value("${senha.bcrypt.custo-importacao:${senha.bcrypt.custo:10}}") int custoImportacao,
+                               @Value("${senha.verificacao.threads:0}") int threads,
+                               @Value("${senha.verificacao.fila:200}") int fila,
+                               @Value("${senha.verificacao.timeout-millis:5000}") long timeoutMillis,
+                               MeterRegistry meterRegistry) {
+        this.custo = custo;
+        this.timeoutMillis = timeoutMillis;
+        this.encoder = new BCryptPasswordEncoder(custo);
+        this.encoderImportacao = new BCryptPasswordEncoder(Math.min(custo, custoImportacao));
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), runnable -> {
+                    Thread thread = new Thread(runnable, "senha-verificacao-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "senha.verificacao", Tags.empty()).bindTo(meterRegistry);
+        this.hashFicticio = encoder.encode("senha-ficticia");
+    }
+
+    public String hash(CharSequence senha) {
+        return executar(() -> encoder.encode(senha));
+    }
+
+    /**
+     * Hash com o custo de importação, calculado na thread de quem chama: a
+     * importação tem pool próprio e não disputa as threads dos logins. Se o
+     * custo de importação for menor, ele sobe para o configurado no primeiro
+     * login do usuário.
+     */
+    public String hashImportacao(CharSequence senha) {
+        return encoderImportacao.encode(senha);
+    }
+
+    public boolean verificar(CharSequence senha, String armazenada) {
+        if (senha == null) return false;
+        if (armazenada == null) {
+            executar(() -> encoder.matches(senha, hashFicticio));
+            return false;
+        }
+        if (!isBcrypt(armazenada)) {
+            return MessageDigest.isEqual(senha.toString().getBytes(StandardCharsets.UTF_8),
+                    armazenada.getBytes(StandardCharsets.UTF_8));
+        }
+        return executar(() -> encoder.matches(senha, armazenada));
+    }
+
+    public boolean precisaRehash(String armazenada) {
+        return !isBcrypt(armazenada) || Integer.parseInt(armazenada.substring(4, 6)) < custo;
+    }
+
+    private static boolean isBcrypt(String armazenada) {
+        return armazenada.length() == 60 && armazenada.startsWith("$2") && armazenada.charAt(6) == '$';
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> future;
+        try {
+            future = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Muitas verificações de senha em andamento");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "A verificação da senha demorou demais");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import com.viii28stw.pensiltikbackend.repository.IDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IResumoMensalDespesaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Relatórios de despesas servidos pela tabela RESUMO_MENSAL_DESPESA: um
+ * relatório lê no máximo uma linha por mês e categoria do período, qualquer
+ * que seja o número de despesas do usuário.
+ *
+ * O resumo é mantido pelo {@link DespesaService} a cada gravação. A
+ * reconstrução refaz o resumo de cada usuário a partir das despesas, numa
+ * transação por usuário; serve para corrigir o resumo depois de cargas
+ * feitas direto no banco e roda pelo cron
+ * {@code despesa.resumo.reconstrucao.cron}, desligado por padrão.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Slf4j
+@Service("relatorioDespesaService")
+public class RelatorioDespesaService implements IRelatorioDespesaService {
+
+    private static final int MAXIMO_MESES_POR_RELATORIO = 120;
+
+    @Autowired private IResumoMensalDespesaRepository resumoMensalDespesaRepository;
+    @Autowired private IDespesaRepository despesaRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensalDespesaDto> buscarResumoMensal(String codigoUsuario, YearMonth inicio, YearMonth fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("O mês final é anterior ao mês inicial");
+        } else if (inicio.plusMonths(MAXIMO_MESES_POR_RELATORIO).isBefore(fim.plusMonths(1))) {
+            throw new IllegalArgumentException("O período não pode passar de " + MAXIMO_MESES_POR_RELATORIO + " meses");
+        }
+        return resumoMensalDespesaRepository.findDtosByPeriodo(codigoUsuario,
+                ResumoMensalDespesa.anoMes(inicio), ResumoMensalDespesa.anoMes(fim));
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirResumos(String codigoUsuario) {
+        resumoMensalDespesaRepository.deleteByCodigoUsuario(codigoUsuario);
+        resumoMensalDespesaRepository.reconstruir(codigoUsuario);
+    }
+
+    @Override
+    @Scheduled(cron = "${despesa.resumo.reconstrucao.cron:-}")
+    public int reconstruirResumos() {
+        long inicio = System.nanoTime();
+        List<String> codigosUsuario = despesaRepository.findCodigosUsuario();
+        for (String codigoUsuario : codigosUsuario) {
+            transactionTemplate.execute(status -> {
+                resumoMensalDespesaRepository.deleteByCodigoUsuario(codigoUsuario);
+                return resumoMensalDespesaRepository.reconstruir(codigoUsuario);
+            });
+        }
+        log.info("Resumos de despesas reconstruídos para {} usuários em {} ms", codigosUsuario.size(),
+                (System.nanoTime() - inicio) / 1_000_000);
+        return codigosUsuario.size();
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.mapper.IRendaMapper;
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.dto.TipoRendaDto;
+import com.viii28stw.pensiltikbackend.model.entity.Renda;
+import com.viii28stw.pensiltikbackend.model.entity.TipoRenda;
+import com.viii28stw.pensiltikbackend.repository.IRendaRepository;
+import com.viii28stw.pensiltikbackend.repository.ITipoRendaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@Service("rendaService")
+public class RendaService implements IRendaService {
+
+    @Autowired private IRendaRepository rendaRepository;
+    @Autowired private ITipoRendaRepository tipoRendaRepository;
+    @Autowired private IRendaMapper rendaMapper;
+    @Autowired private ISaldoService saldoService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TipoRendaDto> buscarTiposRenda(String codigoUsuario) {
+        return rendaMapper.toTipoRendaDtos(tipoRendaRepository.findByCodigoUsuarioOrderByDescricao(codigoUsuario));
+    }
+
+    @Override
+    @Transactional
+    public TipoRendaDto salvarTipoRenda(String codigoUsuario, TipoRendaDto tipoRendaDto) {
+        if (tipoRendaDto.getDescricao() == null || tipoRendaDto.getDescricao().trim().isEmpty()) {
+                throw new IllegalArgumentException("O tipo de renda deve ter uma descrição");
+        }
+
+        TipoRenda tipoRenda;
+        if (tipoRendaDto.getCodigo() == null || tipoRendaDto.getCodigo().trim().isEmpty()) {
+            tipoRenda = rendaMapper.toEntity(tipoRendaDto);
+            tipoRenda.setCodigoUsuario(codigoUsuario);
+            tipoRenda = tipoRendaRepository.save(tipoRenda);
+        } else {
+            tipoRenda = tipoRendaRepository.findByCodigoAndCodigoUsuario(tipoRendaDto.getCodigo(), codigoUsuario)
+                    .orElseThrow(() -> new NoSuchElementException("Não existe tipo de renda com o ID informado"));
+            tipoRenda.setDescricao(tipoRendaDto.getDescricao());
+        }
+        return rendaMapper.toDto(tipoRenda);
+    }
+
+    @Override
+    @Transactional
+    public boolean deletarTipoRendaPorId(String codigoUsuario, String codigo) {
+        TipoRenda tipoRenda = tipoRendaRepository.findByCodigoAndCodigoUsuario(codigo, codigoUsuario).orElse(null);
+        if (tipoRenda == null) return false;
+        if (rendaRepository.existsByCodigoTipoRenda(codigo)) {
+                throw new IllegalArgumentException("Este tipo de renda tem rendas lançadas");
+        }
+        tipoRendaRepository.delete(tipoRenda);
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RendaDto buscarRendaPorId(String codigoUsuario, String codigo) {
+        return rendaRepository.findDtoByCodigoAndCodigoUsuario(codigo, codigoUsuario)
+                .orElseThrow(() -> new NoSuchElementException("Não existe renda com o ID informado"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RendaDto> buscarRendasDoMes(String codigoUsuario, YearMonth mes) {
+        return rendaRepository.findDtosByPeriodo(codigoUsuario, mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    // Toda gravação atualiza os saldos na mesma transação; alteração e exclusão
+    // leem a renda travada, e o estorno usa o valor já gravado
+    @Override
+    @Transactional
+    public RendaDto salvarRenda(String codigoUsuario, RendaDto rendaDto) {
+        validar(codigoUsuario, rendaDto);
+
+        rendaDto.setCodigo(null);
+        Renda renda = rendaMapper.toEntity(rendaDto);
+        renda.setCodigoUsuario(codigoUsuario);
+        renda = rendaRepository.save(renda);
+        saldoService.registrarRenda(codigoUsuario, renda.getData(), renda.getValor());
+        return rendaMapper.toDto(renda);
+    }
+
+    @Override
+    @Transactional
+    public RendaDto atualizarRenda(String codigoUsuario, RendaDto rendaDto) {
+        if (rendaDto.getCodigo() == null || rendaDto.getCodigo().trim().isEmpty()) {
+                throw new IllegalArgumentException("A renda informada não contem ID");
+        }
+        validar(codigoUsuario, rendaDto);
+
+        Renda renda = rendaRepository.findByCodigoAndCodigoUsuario(rendaDto.getCodigo(), codigoUsuario)
+                .orElseThrow(() -> new NoSuchElementException("Não existe renda com o ID informado"));
+        // Estorno e novo valor somados por mês: os saldos são atualizados em ordem e uma vez só
+        Map<YearMonth, BigDecimal> porMes = new HashMap<>();
+        porMes.merge(YearMonth.from(renda.getData()), renda.getValor().negate(), BigDecimal::add);
+        porMes.merge(YearMonth.from(rendaDto.getData()), rendaDto.getValor(), BigDecimal::add);
+        saldoService.registrarRendas(codigoUsuario, porMes);
+        renda.setData(rendaDto.getData());
+        renda.setValor(rendaDto.getValor());
+        renda.setCodigoTipoRenda(rendaDto.getCodigoTipoRenda());
+        renda.setDescricao(rendaDto.getDescricao());
+        return rendaMapper.toDto(renda);
+    }
+
+    @Override
+    @Transactional
+    public boolean deletarRendaPorId(String codigoUsuario, String codigo) {
+        Renda renda = rendaRepository.findByCodigoAndCodigoUsuario(codigo, codigoUsuario).orElse(null);
+        // Sem a linha excluída nada é estornado, para não descontar a renda duas vezes
+        if (renda == null || rendaRepository.deleteByCodigoAndCodigoUsuario(codigo, codigoUsuario) == 0) {
+            return false;
+        }
+        saldoService.registrarRenda(codigoUsuario, renda.getData(), renda.getValor().negate());
+        return true;
+    }
+
+    // Sem estorno: os saldos do usuário são apagados junto, por ISaldoService.deletarDoUsuario
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deletarDoUsuario(String codigoUsuario) {
+        rendaRepository.deleteByCodigoUsuario(codigoUsuario);
+        tipoRendaRepository.deleteByCodigoUsuario(codigoUsuario);
+    }
+
+    private void validar(String codigoUsuario, RendaDto rendaDto) {
+        if (rendaDto.getData() == null) {
+                throw new IllegalArgumentException("A renda deve ter uma data");
+        }else if (rendaDto.getValor() == null || rendaDto.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("O valor da renda deve ser maior que zero");
+        }else if (rendaDto.getCodigoTipoRenda() == null
+                || !tipoRendaRepository.existsByCodigoAndCodigoUsuario(rendaDto.getCodigoTipoRenda(), codigoUsuario)) {
+                throw new IllegalArgumentException("O tipo de renda informado não existe");
+        }
+    }
+
+}
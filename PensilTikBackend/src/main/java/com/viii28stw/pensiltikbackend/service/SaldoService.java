@@ -0,0 +1,194 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.model.dto.SaldoDto;
+import com.viii28stw.pensiltikbackend.model.dto.SaldoMensalDto;
+import com.viii28stw.pensiltikbackend.model.entity.ResumoMensalDespesa;
+import com.viii28stw.pensiltikbackend.model.entity.SaldoMensal;
+import com.viii28stw.pensiltikbackend.repository.IDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IRendaRepository;
+import com.viii28stw.pensiltikbackend.repository.ISaldoMensalRepository;
+import com.viii28stw.pensiltikbackend.repository.ISaldoUsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Saldo de rendas menos despesas de cada usuário, mantido por totais
+ * incrementais em vez de somar RENDA e DESPESA a cada consulta.
+ *
+ * Cada gravação de renda ou despesa soma o valor, na mesma transação, à
+ * linha do mês em SALDO_MENSAL e à linha do usuário em SALDO_USUARIO. O
+ * saldo atual é a leitura de uma linha, o de um ano soma no máximo doze, e
+ * o saldo acumulado de um período parte do total do usuário e desconta os
+ * meses a partir do início do período. O saldo atual inclui lançamentos
+ * com data futura.
+ *
+ * A reconstrução refaz os totais de cada usuário a partir de RENDA e de
+ * RESUMO_MENSAL_DESPESA, e roda pelo cron {@code saldo.reconstrucao.cron},
+ * desligado por padrão.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Slf4j
+@Service("saldoService")
+public class SaldoService implements ISaldoService {
+
+    private static final int MAXIMO_MESES_POR_CONSULTA = 120;
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
+    @Autowired private ISaldoMensalRepository saldoMensalRepository;
+    @Autowired private ISaldoUsuarioRepository saldoUsuarioRepository;
+    @Autowired private IRendaRepository rendaRepository;
+    @Autowired private IDespesaRepository despesaRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SaldoDto buscarSaldo(String codigoUsuario) {
+        return saldoUsuarioRepository.findById(codigoUsuario)
+                .map(saldo -> saldo(saldo.getRendas(), saldo.getDespesas()))
+                .orElseGet(() -> saldo(ZERO, ZERO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SaldoDto buscarSaldoAnual(String codigoUsuario, int ano) {
+        BigDecimal rendas = ZERO;
+        BigDecimal despesas = ZERO;
+        for (SaldoMensal saldoMensal : saldoMensalRepository.findByCodigoUsuarioAndAnoMesBetween(codigoUsuario,
+                ResumoMensalDespesa.anoMes(YearMonth.of(ano, 1)), ResumoMensalDespesa.anoMes(YearMonth.of(ano, 12)))) {
+            rendas = rendas.add(saldoMensal.getRendas());
+            despesas = despesas.add(saldoMensal.getDespesas());
+        }
+        return saldo(rendas, despesas);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaldoMensalDto> buscarSaldosMensais(String codigoUsuario, YearMonth inicio, YearMonth fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("O mês final é anterior ao mês inicial");
+        } else if (inicio.plusMonths(MAXIMO_MESES_POR_CONSULTA).isBefore(fim.plusMonths(1))) {
+            throw new IllegalArgumentException("O período não pode passar de " + MAXIMO_MESES_POR_CONSULTA + " meses");
+        }
+
+        // Saldo no fim do mês anterior ao início: o total menos tudo o que foi lançado a partir do início
+        BigDecimal acumulado = buscarSaldo(codigoUsuario).getSaldo();
+        Map<Integer, SaldoMensal> porMes = new HashMap<>();
+        for (SaldoMensal saldoMensal : saldoMensalRepository.findByCodigoUsuarioAndAnoMesGreaterThanEqualOrderByAnoMes(
+                codigoUsuario, ResumoMensalDespesa.anoMes(inicio))) {
+            porMes.put(saldoMensal.getAnoMes(), saldoMensal);
+            acumulado = acumulado.subtract(saldoMensal.getRendas()).add(saldoMensal.getDespesas());
+        }
+
+        List<SaldoMensalDto> saldos = new ArrayList<>();
+        for (YearMonth mes = inicio; !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+            SaldoMensal saldoMensal = porMes.get(ResumoMensalDespesa.anoMes(mes));
+            BigDecimal rendas = saldoMensal == null ? ZERO : saldoMensal.getRendas();
+            BigDecimal despesas = saldoMensal == null ? ZERO : saldoMensal.getDespesas();
+            acumulado = acumulado.add(rendas).subtract(despesas);
+            saldos.add(SaldoMensalDto.builder()
+                    .mes(mes)
+                    .rendas(rendas)
+                    .despesas(despesas)
+                    .saldo(rendas.subtract(despesas))
+                    .saldoAcumulado(acumulado)
+                    .build());
+        }
+        return saldos;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarRenda(String codigoUsuario, LocalDate data, BigDecimal valor) {
+        acumular(codigoUsuario, data, valor, ZERO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarDespesa(String codigoUsuario, LocalDate data, BigDecimal valor) {
+        acumular(codigoUsuario, data, ZERO, valor);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deletarDoUsuario(String codigoUsuario) {
+        saldoMensalRepository.deleteByCodigoUsuario(codigoUsuario);
+        saldoUsuarioRepository.deleteByCodigoUsuario(codigoUsuario);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarRendas(String codigoUsuario, Map<YearMonth, BigDecimal> rendasPorMes) {
+        acumular(codigoUsuario, rendasPorMes, true);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarDespesas(String codigoUsuario, Map<YearMonth, BigDecimal> despesasPorMes) {
+        acumular(codigoUsuario, despesasPorMes, false);
+    }
+
+    private void acumular(String codigoUsuario, LocalDate data, BigDecimal rendas, BigDecimal despesas) {
+        saldoMensalRepository.acumular(codigoUsuario, ResumoMensalDespesa.anoMes(YearMonth.from(data)), rendas, despesas);
+        saldoUsuarioRepository.acumular(codigoUsuario, rendas, despesas);
+    }
+
+    // Os meses em ordem e o total do usuário numa atualização só, depois deles: gravações
+    // concorrentes pegam os locks de SALDO_MENSAL e SALDO_USUARIO sempre na mesma ordem
+    private void acumular(String codigoUsuario, Map<YearMonth, BigDecimal> porMes, boolean rendas) {
+        BigDecimal total = ZERO;
+        for (Map.Entry<YearMonth, BigDecimal> mes : new TreeMap<>(porMes).entrySet()) {
+            if (mes.getValue().signum() == 0) continue;
+            saldoMensalRepository.acumular(codigoUsuario, ResumoMensalDespesa.anoMes(mes.getKey()),
+                    rendas ? mes.getValue() : ZERO, rendas ? ZERO : mes.getValue());
+            total = total.add(mes.getValue());
+        }
+        if (total.signum() == 0) return;
+        saldoUsuarioRepository.acumular(codigoUsuario, rendas ? total : ZERO, rendas ? ZERO : total);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirSaldo(String codigoUsuario) {
+        saldoMensalRepository.deleteByCodigoUsuario(codigoUsuario);
+        saldoMensalRepository.reconstruir(codigoUsuario);
+        saldoUsuarioRepository.deleteByCodigoUsuario(codigoUsuario);
+        saldoUsuarioRepository.reconstruir(codigoUsuario);
+    }
+
+    @Override
+    @Scheduled(cron = "${saldo.reconstrucao.cron:-}")
+    public int reconstruirSaldos() {
+        long inicio = System.nanoTime();
+        Set<String> codigosUsuario = new TreeSet<>(rendaRepository.findCodigosUsuario());
+        codigosUsuario.addAll(despesaRepository.findCodigosUsuario());
+        for (String codigoUsuario : codigosUsuario) {
+            transactionTemplate.execute(status -> {
+                reconstruirSaldo(codigoUsuario);
+                return null;
+            });
+        }
+        log.info("Saldos reconstruídos para {} usuários em {} ms", codigosUsuario.size(),
+                (System.nanoTime() - inicio) / 1_000_000);
+        return codigosUsuario.size();
+    }
+
+    private static SaldoDto saldo(BigDecimal rendas, BigDecimal despesas) {
+        return SaldoDto.builder()
+                .rendas(rendas)
+                .despesas(despesas)
+                .saldo(rendas.subtract(despesas))
+                .build();
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.repository.IUsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice ordenado em memória dos prefixos de nome e e-mail dos usuários.
+ *
+ * As chaves são o termo normalizado (minúsculo e sem acentos) seguido do
+ * código do usuário, então uma busca por prefixo é um intervalo do mapa e
+ * custa O(log n + limite). O índice é carregado quando a aplicação sobe e
+ * atualizado pelo {@link UsuarioService} a cada gravação; só reflete as
+ * gravações feitas neste backend.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Component
+public class UsuarioPrefixIndex {
+
+    private static final char SEPARADOR = '\u0000';
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final ConcurrentNavigableMap<String, String> termos = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, String[]> termosPorCodigo = new ConcurrentHashMap<>();
+    private volatile boolean pronto;
+
+    @Autowired private IUsuarioRepository usuarioRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        try (Stream<Object[]> usuarios = usuarioRepository.streamCodigoNomeEmail()) {
+            usuarios.forEach(usuario -> indexar((String) usuario[0], (String) usuario[1], (String) usuario[2], false));
+        }
+        pronto = true;
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public void atualizar(String codigo, String nome, String email) {
+        indexar(codigo, nome, email, true);
+    }
+
+    public void remover(String codigo) {
+        termosPorCodigo.computeIfPresent(codigo, (codigoIndexado, antigos) -> {
+            for (String antigo : antigos) termos.remove(antigo);
+            return null;
+        });
+    }
+
+    // A carga inicial não sobrescreve um usuário gravado enquanto ela corria
+    private void indexar(String codigo, String nome, String email, boolean sobrescrever) {
+        termosPorCodigo.compute(codigo, (codigoIndexado, antigos) -> {
+            if (antigos != null && !sobrescrever) return antigos;
+            if (antigos != null) {
+                for (String antigo : antigos) termos.remove(antigo);
+            }
+            String[] novos = {chave(nome, codigo), chave(email, codigo)};
+            for (String novo : novos) termos.put(novo, codigo);
+            return novos;
+        });
+    }
+
+    /**
+     * Devolve até {@code limite} códigos de usuários cujo nome ou e-mail
+     * começa com o prefixo, na ordem do termo.
+     */
+    public List<String> buscar(String prefixo, int limite) {
+        String inicio = normalizar(prefixo);
+        Set<String> codigos = new LinkedHashSet<>();
+        for (String codigo : termos.subMap(inicio, true, inicio + Character.MAX_VALUE, false).values()) {
+            codigos.add(codigo);
+            if (codigos.size() >= limite) break;
+        }
+        return new ArrayList<>(codigos);
+    }
+
+    private static String chave(String termo, String codigo) {
+        return normalizar(termo) + SEPARADOR + codigo;
+    }
+
+    private static String normalizar(String termo) {
+        if (termo == null) return "";
+        return ACENTOS.matcher(Normalizer.normalize(termo, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -1,92 +1,148 @@
 package com.viii28stw.pensiltikbackend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.viii28stw.pensiltikbackend.mapper.IUsuarioMapper;
+import com.viii28stw.pensiltikbackend.model.dto.PaginaUsuarioDto;
 import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
 import com.viii28stw.pensiltikbackend.model.entity.Usuario;
 import com.viii28stw.pensiltikbackend.repository.IUsuarioRepository;
+import com.viii28stw.pensiltikbackend.session.SessionStore;
+import com.viii28stw.pensiltikbackend.session.SessionTokenService;
 import com.viii28stw.pensiltikbackend.util.EmailValidator;
-import com.viii28stw.pensiltikbackend.util.IdGenerator;
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service("usuarioService")
 public class UsuarioService implements IUsuarioService {
 
-    @Autowired private IUsuarioRepository usuarioRepository;
-    private final Set<String> userLoggedIn = new HashSet();
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+    private static final int LIMITE_MAXIMO_PESQUISA = 50;
 
-    public boolean isUserLoggedIn(String email) {
-        return userLoggedIn.stream()
-                .filter(us -> us.equals(email)).findFirst().orElse(null) != null;
-    }
+    @Autowired private IUsuarioRepository usuarioRepository;
+    @Autowired private IDespesaService despesaService;
+    @Autowired private IRendaService rendaService;
+    @Autowired private ISaldoService saldoService;
+    @Autowired private ICategoriaDespesaService categoriaDespesaService;
+    @Autowired private ObjectMapper mapper;
+    @Autowired private UsuarioPrefixIndex usuarioPrefixIndex;
+    @Value("${usuario.pesquisa.indice-memoria:true}") private boolean indiceMemoria;
+    @Autowired private SessionStore sessionStore;
+    @Autowired private SessionTokenService sessionTokenService;
+    @Autowired private PasswordPolicy passwordPolicy;
+    @Autowired private PasswordHashService passwordHashService;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private IUsuarioMapper usuarioMapper;
 
+    @Override
+    @Transactional(readOnly = true)
     public UsuarioDto buscarUsuarioMaiorCodigo() {
         Usuario usuario = usuarioRepository.findFirstByOrderByCodigoDesc();
         if(usuario != null){
-            return UsuarioDto.builder()
-                    .codigo(usuario.getCodigo())
-                    .nome(usuario.getNome())
-                    .sobreNome(usuario.getSobreNome())
-                    .email(usuario.getEmail())
-                    .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
-                    .senha(usuario.getSenha())
-                    .sexo(usuario.getSexo())
-                    .dataNascimento(usuario.getDataNascimento())
-                    .build();
+            return usuarioMapper.toDto(usuario);
         } else return null;
     }
 
     @Override
-    public UsuarioDto buscarUsuarioPorId(String id) {
-        Optional<Usuario> usuarioOptional = usuarioRepository.findById(id);
-
-        if(usuarioOptional.isPresent()){
-            Usuario usuario = usuarioOptional.get();
-            return UsuarioDto.builder()
-                    .codigo(usuario.getCodigo())
-                    .nome(usuario.getNome())
-                    .sobreNome(usuario.getSobreNome())
-                    .email(usuario.getEmail())
-                    .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
-                    .senha(usuario.getSenha())
-                    .sexo(usuario.getSexo())
-                    .dataNascimento(usuario.getDataNascimento())
-                    .build();
-
-        } else throw new NoSuchElementException("Não existe usuário com o ID informado");
+    @Transactional(readOnly = true)
+    public UsuarioResumoDto buscarUsuarioPorId(String id) {
+        return usuarioRepository.findResumoByCodigo(id)
+                .orElseThrow(() -> new NoSuchElementException("Não existe usuário com o ID informado"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UsuarioResumoDto> buscarTodosOsUsuarios(){
+        return usuarioRepository.findResumos();
     }
 
     @Override
-    public List<UsuarioDto> buscarTodosOsUsuarios(){
-        List<UsuarioDto> usuariosDto = new ArrayList();
-        for(Usuario usuario : usuarioRepository.findAll()) {
-            usuariosDto.add(UsuarioDto.builder()
-                    .codigo(usuario.getCodigo())
-                    .nome(usuario.getNome())
-                    .sobreNome(usuario.getSobreNome())
-                    .email(usuario.getEmail())
-                    .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
-                    .senha(usuario.getSenha())
-                    .sexo(usuario.getSexo())
-                    .dataNascimento(usuario.getDataNascimento())
-                    .build());
+    @Transactional(readOnly = true)
+    public PaginaUsuarioDto buscarUsuariosPaginados(String cursor, int tamanho) {
+        PageRequest pagina = PageRequest.of(0, Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA)));
+        List<UsuarioResumoDto> usuarios = cursor == null || cursor.isEmpty() ?
+                usuarioRepository.findResumosOrderByCodigo(pagina) :
+                usuarioRepository.findResumosByCodigoGreaterThan(decodificarCursor(cursor), pagina);
+
+        return PaginaUsuarioDto.builder()
+                .usuarios(usuarios)
+                .proximoCursor(usuarios.size() < pagina.getPageSize() ? null :
+                        codificarCursor(usuarios.get(usuarios.size() - 1).getCodigo()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarUsuarios(OutputStream outputStream) throws IOException {
+        try (Stream<UsuarioResumoDto> usuarios = usuarioRepository.streamResumosOrderByCodigo();
+             SequenceWriter writer = mapper.writerFor(UsuarioResumoDto.class)
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(outputStream)) {
+            Iterator<UsuarioResumoDto> iterator = usuarios.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
         }
-        return usuariosDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<UsuarioResumoDto> pesquisarUsuarios(String prefixo, int limite) {
+        if (prefixo == null || prefixo.trim().isEmpty()) return new ArrayList<>();
+        int limitePesquisa = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PESQUISA));
+
+        List<UsuarioResumoDto> usuarios;
+        if (indiceMemoria && usuarioPrefixIndex.isPronto()) {
+            usuarios = usuarioRepository.findResumosByCodigoIn(usuarioPrefixIndex.buscar(prefixo, limitePesquisa));
+            usuarios.sort(Comparator.comparing(UsuarioResumoDto::getNome, String.CASE_INSENSITIVE_ORDER));
+        } else {
+            usuarios = usuarioRepository.findResumosByPrefixo(prefixo, PageRequest.of(0, limitePesquisa));
+        }
+        return usuarios;
+    }
+
+    private static String codificarCursor(String codigo) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(codigo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificarCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+
+    // Gravações e login ficam sem transação no serviço: o hash bcrypt roda antes
+    // de o save() do repositório abrir a dele, sem prender uma conexão do pool
     @Override
     public UsuarioDto salvarUsuario(UsuarioDto usuarioDto) {
         if (!EmailValidator.isValidEmail(usuarioDto.getEmail())) {
                 throw new IllegalArgumentException("Este e-mail não é válido");
+        }else if (!passwordPolicy.isValid(usuarioDto.getSenha())) {
+                throw new IllegalArgumentException("A senha não atende à política de senhas");
         }else if (usuarioRepository.existsByEmail(usuarioDto.getEmail())) {
                 throw new IllegalArgumentException("Este e-mail já existe");
         }
 
-        usuarioDto.setCodigo(buscarUsuarioMaiorCodigo() == null ?
-                IdGenerator.getInstance().generate() :
-                buscarUsuarioMaiorCodigo().getCodigo());
-
+        // Sem código o save() faz um persist e o IdGenerator da entidade gera o código no INSERT
+        usuarioDto.setCodigo(null);
         return persistir(usuarioDto);
     }
 
@@ -94,61 +150,72 @@ public class UsuarioService implements IUsuarioService {
     public UsuarioDto atualizarUsuario(UsuarioDto usuarioDto) {
         if (usuarioDto.getCodigo() == null || usuarioDto.getCodigo().trim().isEmpty()) {
                 throw new IllegalArgumentException("O usuário informado não contem ID");
+        }else if (!passwordPolicy.isValid(usuarioDto.getSenha())) {
+                throw new IllegalArgumentException("A senha não atende à política de senhas");
         }
         return persistir(usuarioDto);
     }
 
     private UsuarioDto persistir(UsuarioDto usuarioDto) {
-        Usuario usuario = usuarioRepository.save(Usuario.builder()
-                .codigo(usuarioDto.getCodigo())
-                .nome(usuarioDto.getNome())
-                .sobreNome(usuarioDto.getSobreNome())
-                .email(usuarioDto.getEmail())
-                .usuarioNivelAcesso(usuarioDto.getUsuarioNivelAcesso())
-                .senha(usuarioDto.getSenha())
-                .sexo(usuarioDto.getSexo())
-                .dataNascimento(usuarioDto.getDataNascimento())
-                .build());
-
-        return UsuarioDto.builder()
-                .codigo(usuario.getCodigo())
-                .nome(usuario.getNome())
-                .sobreNome(usuario.getSobreNome())
-                .email(usuario.getEmail())
-                .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
-                .senha(usuario.getSenha())
-                .sexo(usuario.getSexo())
-                .dataNascimento(usuario.getDataNascimento())
-                .build();
+        Usuario usuario = usuarioMapper.toEntity(usuarioDto);
+        usuario.setSenha(passwordHashService.hash(usuarioDto.getSenha()));
+        usuario = usuarioRepository.save(usuario);
+        usuarioPrefixIndex.atualizar(usuario.getCodigo(), usuario.getNome(), usuario.getEmail());
+
+        return usuarioMapper.toDto(usuario);
     }
 
     @Override
+    @Transactional
     public boolean deletarUsuarioPorId(String id){
+        // Primeiro as sessões, em todos os nós: um token ainda válido criaria lançamentos órfãos
+        sessionStore.removeUser(id);
+        // Os lançamentos não têm chave estrangeira para USUARIO: cada domínio apaga os seus
+        despesaService.deletarDoUsuario(id);
+        categoriaDespesaService.deletarDoUsuario(id);
+        rendaService.deletarDoUsuario(id);
+        saldoService.deletarDoUsuario(id);
         usuarioRepository.deleteById(id);
+        usuarioPrefixIndex.remover(id);
         return true;
     }
 
     @Override
     public UsuarioDto fazerLogin(UsuarioDto usuarioDto){
-        Usuario usuario = usuarioRepository.findByEmailAndSenha(usuarioDto.getEmail(), usuarioDto.getSenha());
-        if (usuario == null) return null;
-        userLoggedIn.add(usuario.getEmail());
-
-            return UsuarioDto.builder()
-                .codigo(usuario.getCodigo())
-                .nome(usuario.getNome())
-                .sobreNome(usuario.getSobreNome())
-                .email(usuario.getEmail())
-                .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
-                .senha(usuario.getSenha())
-                .sexo(usuario.getSexo())
-                .dataNascimento(usuario.getDataNascimento())
-                .build();
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "falha";
+        try {
+            Usuario usuario = usuarioRepository.findByEmail(usuarioDto.getEmail());
+            if (!passwordHashService.verificar(usuarioDto.getSenha(), usuario == null ? null : usuario.getSenha())) {
+                return null;
+            }
+            if (passwordHashService.precisaRehash(usuario.getSenha())) {
+                usuario.setSenha(passwordHashService.hash(usuarioDto.getSenha()));
+                usuarioRepository.save(usuario);
+            }
+            String sessionId = sessionTokenService.newSessionId();
+            sessionStore.register(sessionId, usuario.getCodigo());
+            resultado = "sucesso";
+
+            UsuarioDto usuarioLogado = usuarioMapper.toDto(usuario);
+            usuarioLogado.setTokenSessao(sessionTokenService.issue(sessionId));
+            return usuarioLogado;
+        } catch (ResponseStatusException e) {
+            resultado = "rejeitado";
+            throw e;
+        } finally {
+            amostra.stop(Timer.builder("pensiltik.login")
+                    .description("Tempo do login, da busca do usuário até a emissão do token")
+                    .tag("resultado", resultado)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 
     @Override
-    public void sair(String email){
-        if(userLoggedIn.remove(email)) {
+    public void sair(String sessionId){
+        if(!sessionStore.remove(sessionId)) {
             throw new NoSuchElementException("usuário não está logado");
         }
     }
@@ -0,0 +1,490 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazena as sessões em memória e replica os eventos de login, renovação e
+ * logout para os outros backends por sockets TCP.
+ *
+ * Os eventos são agrupados e enviados em lotes a cada intervalo de
+ * replicação; várias mudanças na mesma sessão dentro do intervalo viram uma
+ * só. Para corrigir lotes perdidos, cada nó envia periodicamente todo o seu
+ * estado (anti-entropia) e também sempre que se reconecta a um par. A fusão
+ * fica com a versão mais recente de cada sessão e os logouts viram lápides
+ * que duram um TTL, para que uma sessão removida não seja ressuscitada.
+ *
+ * A exclusão de um usuário vira uma revogação, replicada como as lápides
+ * com a chave {@link #REVOCATION_PREFIX} + código do usuário: cada nó que a
+ * recebe encerra as sessões do usuário e, enquanto ela durar, descarta as
+ * que ainda chegarem de outros nós, qualquer que seja o relógio de cada um.
+ *
+ * A renovação de uma sessão só é replicada quando o último acesso conhecido
+ * tem mais de um décimo do TTL, então o TTL ocioso é respeitado com essa
+ * tolerância em todos os nós.
+ *
+ * Cada conexão começa autenticada: quem aceita manda um nonce aleatório e
+ * só lê lotes depois que o outro lado responde com o HMAC-SHA256 do nonce,
+ * calculado com o segredo compartilhado pelos nós. Antes disso nenhum
+ * tamanho vindo do socket é usado, então um par desconhecido não consegue
+ * fazer o nó alocar nada além do nonce e da resposta. Cada lote vai com o
+ * tamanho na frente e no fim um HMAC do nonce da conexão, do número do lote
+ * e do conteúdo, o que impede repetir lotes de outra conexão; a conexão que
+ * manda um lote com HMAC inválido ou maior que {@link #MAX_FRAME_BYTES} é
+ * fechada sem aplicar nada. Os snapshots maiores que isso vão em vários lotes.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Slf4j
+public class ClusteredSessionStore implements SessionStore {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 32;
+    private static final int NONCE_BYTES = 16;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final byte HANDSHAKE_OK = 1;
+    private static final byte[] HANDSHAKE_LABEL = "pensiltik-session-handshake".getBytes(StandardCharsets.US_ASCII);
+    static final int MAX_FRAME_BYTES = 1024 * 1024;
+    // Os ids de sessão são Base64 URL, que não usa ':'
+    static final String REVOCATION_PREFIX = "usuario:";
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> pending = new ConcurrentHashMap<>();
+    private final List<Peer> peers = new CopyOnWriteArrayList<>();
+    private final AtomicLong expiredSessions = new AtomicLong();
+    private final long idleTtlMillis;
+    private final long touchResolutionMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService receivers;
+    private final ServerSocket serverSocket;
+    private final ThreadLocal<Mac> mac;
+    private final SecureRandom random = new SecureRandom();
+
+    public ClusteredSessionStore(Duration idleTtl, Duration evictionInterval, Duration batchInterval,
+                                 Duration antiEntropyInterval, InetSocketAddress bindAddress,
+                                 byte[] secret) throws IOException {
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("A replicação de sessões exige um segredo compartilhado");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.touchResolutionMillis = idleTtlMillis / 10;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(bindAddress);
+        this.scheduler = Executors.newScheduledThreadPool(2, daemon("session-cluster"));
+        this.receivers = Executors.newCachedThreadPool(daemon("session-cluster-receiver"));
+
+        receivers.execute(this::accept);
+        scheduler.scheduleWithFixedDelay(this::flush,
+                batchInterval.toMillis(), batchInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sendSnapshot,
+                antiEntropyInterval.toMillis(), antiEntropyInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::evictExpired,
+                evictionInterval.toMillis(), evictionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void addPeer(InetSocketAddress address) {
+        peers.add(new Peer(address));
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void register(String sessionId, String codigoUsuario) {
+        publish(sessionId, new Entry(codigoUsuario, System.currentTimeMillis(), false));
+    }
+
+    @Override
+    public String touch(String sessionId) {
+        if (sessionId == null) return null;
+        Entry entry = entries.get(sessionId);
+        if (entry == null || entry.removed) return null;
+        long now = System.currentTimeMillis();
+        if (now - entry.version > idleTtlMillis) {
+            if (entries.remove(sessionId, entry)) {
+                expiredSessions.incrementAndGet();
+            }
+            return null;
+        }
+        if (now - entry.version > touchResolutionMillis) {
+            Entry renewed = new Entry(entry.codigoUsuario, now, false);
+            if (entries.replace(sessionId, entry, renewed)) {
+                pending.put(sessionId, renewed);
+            }
+        }
+        return entry.codigoUsuario;
+    }
+
+    @Override
+    public boolean remove(String sessionId) {
+        if (sessionId == null) return false;
+        Entry entry = entries.get(sessionId);
+        if (entry == null || entry.removed) return false;
+        publish(sessionId, new Entry(null, Math.max(System.currentTimeMillis(), entry.version + 1), true));
+        return true;
+    }
+
+    @Override
+    public int removeUser(String codigoUsuario) {
+        long now = System.currentTimeMillis();
+        publish(REVOCATION_PREFIX + codigoUsuario, new Entry(null, now, true));
+        int removed = 0;
+        for (Map.Entry<String, Entry> next : entries.entrySet()) {
+            Entry entry = next.getValue();
+            if (!entry.removed && codigoUsuario.equals(entry.codigoUsuario)) {
+                publish(next.getKey(), new Entry(null, Math.max(now, entry.version + 1), true));
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public int getActiveSessions() {
+        int active = 0;
+        for (Entry entry : entries.values()) {
+            if (!entry.removed) active++;
+        }
+        return active;
+    }
+
+    @Override
+    public long getExpiredSessions() {
+        return expiredSessions.get();
+    }
+
+    private void publish(String sessionId, Entry entry) {
+        entries.put(sessionId, entry);
+        pending.put(sessionId, entry);
+    }
+
+    private void merge(String sessionId, Entry incoming) {
+        if (System.currentTimeMillis() - incoming.version > idleTtlMillis) return;
+        if (!incoming.removed && entries.containsKey(REVOCATION_PREFIX + incoming.codigoUsuario)) return;
+        entries.merge(sessionId, incoming, (current, candidate) -> candidate.supersedes(current) ? candidate : current);
+        if (sessionId.startsWith(REVOCATION_PREFIX)) {
+            String codigoUsuario = sessionId.substring(REVOCATION_PREFIX.length());
+            entries.forEach((id, entry) -> {
+                if (!entry.removed && codigoUsuario.equals(entry.codigoUsuario)) {
+                    entries.replace(id, entry, new Entry(null, entry.version + 1, true));
+                }
+            });
+        }
+    }
+
+    void evictExpired() {
+        long limit = System.currentTimeMillis() - idleTtlMillis;
+        entries.forEach((sessionId, entry) -> {
+            if (entry.version < limit && entries.remove(sessionId, entry) && !entry.removed) {
+                expiredSessions.incrementAndGet();
+            }
+        });
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            connectPeers();
+            return;
+        }
+        Map<String, Entry> batch = new HashMap<>();
+        for (Map.Entry<String, Entry> next : pending.entrySet()) {
+            batch.put(next.getKey(), next.getValue());
+            pending.remove(next.getKey(), next.getValue());
+        }
+        send(encode(batch));
+    }
+
+    void sendSnapshot() {
+        send(encode(new HashMap<>(entries)));
+    }
+
+    private void connectPeers() {
+        for (Peer peer : peers) {
+            peer.ensureConnected();
+        }
+    }
+
+    private void send(List<byte[]> payloads) {
+        for (Peer peer : peers) {
+            if (peer.ensureConnected()) {
+                peer.write(payloads);
+            }
+        }
+    }
+
+    // Um ou mais conteúdos de lote ([quantidade][sessões]), cada um com até MAX_FRAME_BYTES
+    private List<byte[]> encode(Map<String, Entry> batch) {
+        List<byte[]> payloads = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int count = 0;
+        try {
+            for (Map.Entry<String, Entry> next : batch.entrySet()) {
+                Entry entry = next.getValue();
+                int start = bytes.size();
+                out.writeUTF(next.getKey());
+                out.writeBoolean(entry.removed);
+                out.writeUTF(entry.removed ? "" : entry.codigoUsuario);
+                out.writeLong(entry.version);
+                if (count > 0 && Integer.BYTES + bytes.size() > MAX_FRAME_BYTES) {
+                    // A última sessão passou do limite: fecha o lote sem ela e começa o próximo
+                    byte[] written = bytes.toByteArray();
+                    payloads.add(payload(count, written, start));
+                    bytes.reset();
+                    bytes.write(written, start, written.length - start);
+                    count = 0;
+                }
+                count++;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        payloads.add(payload(count, bytes.toByteArray(), bytes.size()));
+        return payloads;
+    }
+
+    private static byte[] payload(int count, byte[] entries, int length) {
+        return ByteBuffer.allocate(Integer.BYTES + length).putInt(count).put(entries, 0, length).array();
+    }
+
+    private byte[] sign(byte[] nonce, long sequence, byte[] payload) {
+        Mac instance = mac.get();
+        instance.update(nonce);
+        instance.update(ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+        instance.update(payload);
+        return instance.doFinal();
+    }
+
+    private byte[] handshake(byte[] nonce) {
+        Mac instance = mac.get();
+        instance.update(HANDSHAKE_LABEL);
+        return instance.doFinal(nonce);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                receivers.execute(() -> receive(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Falha ao aceitar conexão de sessão: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void receive(Socket socket) {
+        try (Socket closeable = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(closeable.getInputStream()))) {
+            byte[] nonce = new byte[NONCE_BYTES];
+            random.nextBytes(nonce);
+            byte[] answer = new byte[MAC_BYTES];
+            closeable.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            OutputStream out = closeable.getOutputStream();
+            out.write(nonce);
+            out.flush();
+            in.readFully(answer);
+            if (!MessageDigest.isEqual(handshake(nonce), answer)) {
+                log.warn("Par de sessão {} não autenticado; conexão encerrada", socket.getRemoteSocketAddress());
+                return;
+            }
+            out.write(HANDSHAKE_OK);
+            out.flush();
+            closeable.setSoTimeout(0);
+
+            for (long sequence = 1; ; sequence++) {
+                int length = in.readInt();
+                if (length < Integer.BYTES || length > MAX_FRAME_BYTES) {
+                    log.warn("Lote de sessões com tamanho inválido de {}; conexão encerrada",
+                            socket.getRemoteSocketAddress());
+                    return;
+                }
+                byte[] payload = new byte[length];
+                byte[] signature = new byte[MAC_BYTES];
+                in.readFully(payload);
+                in.readFully(signature);
+                if (!MessageDigest.isEqual(sign(nonce, sequence, payload), signature)) {
+                    log.warn("Lote de sessões com HMAC inválido de {}; conexão encerrada",
+                            socket.getRemoteSocketAddress());
+                    return;
+                }
+                DataInputStream batch = new DataInputStream(new ByteArrayInputStream(payload));
+                int count = batch.readInt();
+                for (int i = 0; i < count; i++) {
+                    String sessionId = batch.readUTF();
+                    boolean removed = batch.readBoolean();
+                    String codigoUsuario = batch.readUTF();
+                    long version = batch.readLong();
+                    merge(sessionId, new Entry(removed ? null : codigoUsuario, version, removed));
+                }
+            }
+        } catch (EOFException | SocketException | SocketTimeoutException e) {
+            log.debug("Conexão de sessão encerrada por {}", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            log.warn("Falha ao receber sessões de {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Peer peer : peers) {
+            peer.close();
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Falha ao fechar o socket de sessões: {}", e.getMessage());
+        }
+        receivers.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Entry {
+        private final String codigoUsuario;
+        private final long version;
+        private final boolean removed;
+
+        private Entry(String codigoUsuario, long version, boolean removed) {
+            this.codigoUsuario = codigoUsuario;
+            this.version = version;
+            this.removed = removed;
+        }
+
+        private boolean supersedes(Entry other) {
+            return version > other.version || (version == other.version && removed && !other.removed);
+        }
+    }
+
+    private final class Peer {
+        private final InetSocketAddress address;
+        private Socket socket;
+        private DataOutputStream out;
+        private byte[] nonce;
+        private long sequence;
+        private long nextAttempt;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        private synchronized boolean ensureConnected() {
+            if (out != null) return true;
+            long now = System.currentTimeMillis();
+            if (now < nextAttempt) return false;
+            try {
+                socket = new Socket();
+                socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                byte[] challenge = new byte[NONCE_BYTES];
+                in.readFully(challenge);
+                OutputStream raw = socket.getOutputStream();
+                raw.write(handshake(challenge));
+                raw.flush();
+                if (in.read() != HANDSHAKE_OK) {
+                    throw new IOException("autenticação recusada");
+                }
+                socket.setSoTimeout(0);
+                nonce = challenge;
+                sequence = 0;
+                out = new DataOutputStream(new BufferedOutputStream(raw));
+                write(encode(new HashMap<>(entries)));
+                return out != null;
+            } catch (IOException e) {
+                log.debug("Par de sessão {} indisponível: {}", address, e.getMessage());
+                close();
+                nextAttempt = now + RECONNECT_DELAY_MILLIS;
+                return false;
+            }
+        }
+
+        private synchronized void write(List<byte[]> payloads) {
+            if (out == null) return;
+            try {
+                for (byte[] payload : payloads) {
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                    out.write(sign(nonce, ++sequence, payload));
+                }
+                out.flush();
+            } catch (IOException e) {
+                log.warn("Falha ao replicar sessões para {}: {}", address, e.getMessage());
+                close();
+                nextAttempt = System.currentTimeMillis() + RECONNECT_DELAY_MILLIS;
+            }
+        }
+
+        private synchronized void close() {
+            out = null;
+            nonce = null;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    log.debug("Falha ao fechar conexão com {}: {}", address, e.getMessage());
+                }
+                socket = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazena as sessões na memória de um único backend.
+ *
+ * Cada sessão é identificada pelo id carregado no token de sessão, guarda o
+ * código do usuário dono e o instante do último acesso, e expira depois de
+ * ficar ociosa por mais tempo que o TTL configurado. A busca é O(1) e uma
+ * thread em segundo plano remove as sessões expiradas.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public class LocalSessionStore implements SessionStore {
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong expiredSessions = new AtomicLong();
+    private final long idleTtlMillis;
+    private final ScheduledExecutorService evictor;
+
+    public LocalSessionStore(Duration idleTtl, Duration evictionInterval) {
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictExpired,
+                evictionInterval.toMillis(), evictionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void register(String sessionId, String codigoUsuario) {
+        sessions.put(sessionId, new Session(codigoUsuario, System.currentTimeMillis()));
+    }
+
+    @Override
+    public String touch(String sessionId) {
+        if (sessionId == null) return null;
+        Session session = sessions.get(sessionId);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (now - session.lastAccess > idleTtlMillis) {
+            if (sessions.remove(sessionId, session)) {
+                expiredSessions.incrementAndGet();
+            }
+            return null;
+        }
+        session.lastAccess = now;
+        return session.codigoUsuario;
+    }
+
+    @Override
+    public boolean remove(String sessionId) {
+        return sessionId != null && sessions.remove(sessionId) != null;
+    }
+
+    @Override
+    public int removeUser(String codigoUsuario) {
+        int removed = 0;
+        for (Map.Entry<String, Session> next : sessions.entrySet()) {
+            if (next.getValue().codigoUsuario.equals(codigoUsuario) && sessions.remove(next.getKey(), next.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    void evictExpired() {
+        long limit = System.currentTimeMillis() - idleTtlMillis;
+        sessions.forEach((sessionId, session) -> {
+            if (session.lastAccess < limit && sessions.remove(sessionId, session)) {
+                expiredSessions.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    @Override
+    public long getExpiredSessions() {
+        return expiredSessions.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    private static final class Session {
+        private final String codigoUsuario;
+        private volatile long lastAccess;
+
+        private Session(String codigoUsuario, long lastAccess) {
+            this.codigoUsuario = codigoUsuario;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.viii28stw.pensiltikbackend.session;
+
+/**
+ * Armazena as sessões dos usuários logados. O filtro de sessão e o serviço
+ * de usuários só conhecem esta interface, de modo que a implementação de nó
+ * único pode ser trocada por uma replicada entre vários backends.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public interface SessionStore {
+
+    void register(String sessionId, String codigoUsuario);
+
+    /**
+     * Renova o último acesso da sessão e devolve o código do usuário dono,
+     * ou {@code null} se a sessão não existe ou já expirou.
+     */
+    String touch(String sessionId);
+
+    boolean remove(String sessionId);
+
+    /**
+     * Encerra todas as sessões do usuário, em todos os nós, e devolve quantas
+     * eram conhecidas neste. Usado quando o usuário é excluído.
+     */
+    int removeUser(String codigoUsuario);
+
+    int getActiveSessions();
+
+    long getExpiredSessions();
+
+}
@@ -0,0 +1,56 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Barra as requisições sem um token de sessão válido no cabeçalho
+ * configurado e expõe o id da sessão e o código do usuário logado como
+ * atributos da requisição.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_ID = "pensiltik.sessionId";
+    public static final String CODIGO_USUARIO = "pensiltik.codigoUsuario";
+
+    private final SessionTokenService sessionTokenService;
+    private final SessionStore sessionStore;
+    private final String headerName;
+    private final String loginPath;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService, SessionStore sessionStore,
+                              String headerName, String loginPath) {
+        this.sessionTokenService = sessionTokenService;
+        this.sessionStore = sessionStore;
+        this.headerName = headerName;
+        this.loginPath = loginPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith(loginPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String sessionId = sessionTokenService.verify(request.getHeader(headerName));
+        String codigoUsuario = sessionStore.touch(sessionId);
+        if (codigoUsuario == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        request.setAttribute(SESSION_ID, sessionId);
+        request.setAttribute(CODIGO_USUARIO, codigoUsuario);
+        filterChain.doFilter(request, response);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emite e verifica os tokens de sessão no formato
+ * {@code <id da sessão>.<expiração em base 36>.<HMAC-SHA256>}.
+ *
+ * A verificação só recalcula o HMAC e compara em tempo constante; não
+ * consulta o serviço nem o banco de dados.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Component
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '.';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final SecretKeySpec key;
+    private final long maxLifetimeMillis;
+    private final ThreadLocal<Mac> mac;
+
+    public SessionTokenService(@Value("${session.token.secret:}") String secret,
+                               @Value("${session.token.max-lifetime-hours:12}") long maxLifetimeHours) {
+        byte[] keyBytes;
+        if (secret == null || secret.trim().isEmpty()) {
+            keyBytes = new byte[32];
+            secureRandom.nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.maxLifetimeMillis = TimeUnit.HOURS.toMillis(maxLifetimeHours);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public String newSessionId() {
+        byte[] id = new byte[16];
+        secureRandom.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    public String issue(String sessionId) {
+        String payload = sessionId + SEPARATOR + Long.toString(System.currentTimeMillis() + maxLifetimeMillis, 36);
+        return payload + SEPARATOR + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Devolve o id da sessão carregado pelo token, ou {@code null} se o token
+     * estiver malformado, adulterado ou vencido.
+     */
+    public String verify(String token) {
+        if (token == null) return null;
+        int signatureStart = token.lastIndexOf(SEPARATOR);
+        int expiryStart = signatureStart > 0 ? token.lastIndexOf(SEPARATOR, signatureStart - 1) : -1;
+        if (expiryStart <= 0) return null;
+
+        String payload = token.substring(0, signatureStart);
+        byte[] signature;
+        long expiresAt;
+        try {
+            signature = DECODER.decode(token.substring(signatureStart + 1));
+            expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart), 36);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(sign(payload), signature)) return null;
+        if (expiresAt < System.currentTimeMillis()) return null;
+        return token.substring(0, expiryStart);
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -1,114 +1,129 @@
 package com.viii28stw.pensiltikbackend.util;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Random;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.IdentifierGenerator;
 
+/**
+ * Gera códigos no estilo Snowflake: 41 bits de milissegundos desde
+ * {@link #EPOCH}, 10 bits do nó e 12 bits de sequência dentro do mesmo
+ * milissegundo. O estado é um único {@link AtomicLong} atualizado por CAS,
+ * então não há bloqueio entre threads.
+ *
+ * Quando a sequência de um milissegundo se esgota ou o relógio volta para
+ * trás, o gerador segue num relógio lógico a partir do último código
+ * emitido, em vez de esperar ou repetir códigos. Os códigos são escritos com
+ * {@link #TAMANHO} dígitos, completados com zeros, para que a ordem das
+ * strings seja a mesma ordem numérica.
+ *
+ * O nó vem da propriedade de sistema {@code pensiltik.node-id} ou da
+ * variável de ambiente {@code PENSILTIK_NODE_ID}. Sem elas é derivado dos
+ * 10 bits finais do endereço do host, com um aviso no log: o mesmo a cada
+ * reinício, mas só distinto entre hosts da mesma sub-rede /22. Em cluster o
+ * nó é obrigatório ({@link #isNoConfigurado()}).
+ */
+@Slf4j
 public class IdGenerator implements IdentifierGenerator {
 
-    private static IdGenerator uniqueInstance;
-    private static final Random RANDOM = new Random();
+    public static final long EPOCH = 1546300800000L; // 2019-01-01T00:00:00Z
+    public static final int TAMANHO = 19;
 
-    public static synchronized IdGenerator getInstance() {
-        if (uniqueInstance == null) {
-            uniqueInstance = new IdGenerator();
-        }
-        return uniqueInstance;
-    }
-
-    public String generate() {
-        Date today = new Date();
-        SimpleDateFormat formatter = new SimpleDateFormat("ssSSS");
-        String output = "1".concat(formatter.format(today));
-        return output;
-    }
-
-    @Override
-    public Serializable generate(SharedSessionContractImplementor ssci, Object o) {
-        Date today = new Date();
-        SimpleDateFormat formatter = new SimpleDateFormat("ddMMyyHHmmssSSS");
-        String output = formatter.format(today);
-        return output;
-    }
+    static final int BITS_NO = 10;
+    static final int BITS_SEQUENCIA = 12;
+    static final long MAXIMO_NO = (1L << BITS_NO) - 1;
+    static final long MAXIMO_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final int DESLOCAMENTO_TEMPO = BITS_NO + BITS_SEQUENCIA;
 
-    @Deprecated
-    private Serializable oldGenerate(SharedSessionContractImplementor ssci, Object o) {
-        Date today = new Date();
-        SimpleDateFormat formatter = new SimpleDateFormat("ddMMyyyyHHmmssSSS");
-        String output = formatter.format(today);
+    private static final String NO_CONFIGURADO = System.getProperty("pensiltik.node-id", System.getenv("PENSILTIK_NODE_ID"));
+    private static final IdGenerator uniqueInstance = new IdGenerator(no(NO_CONFIGURADO), System::currentTimeMillis);
 
-        String alphabet = "_-@*&";
-        char ins = alphabet.charAt(new Random().nextInt(alphabet.length()));
-        int generatedInt = new Random().nextInt(output.length());
+    private final long bitsNo;
+    private final LongSupplier relogio;
+    private final AtomicLong ultimo = new AtomicLong();
 
-        String idGen = output;
+    /**
+     * Usado pelo Hibernate; os códigos continuam vindo da instância única,
+     * então entidades e serviços compartilham a mesma sequência.
+     */
+    public IdGenerator() {
+        this(0, System::currentTimeMillis);
+    }
 
-        idGen = new StringBuilder(idGen).insert(idGen.length() - generatedInt, ins).toString();
-        return randomAlphabetic(3) + idGen + randomAlphabetic(1);
+    IdGenerator(long no, LongSupplier relogio) {
+        if (no < 0 || no > MAXIMO_NO) {
+            throw new IllegalArgumentException("O nó deve estar entre 0 e " + MAXIMO_NO);
+        }
+        this.bitsNo = no << BITS_SEQUENCIA;
+        this.relogio = relogio;
     }
 
-    private static String randomAlphabetic(int count) {
-        return random(count, true, false);
+    public static IdGenerator getInstance() {
+        return uniqueInstance;
     }
 
-    private static String random(int count, boolean letters, boolean numbers) {
-        return random(count, 0, 0, letters, numbers);
+    public static boolean isNoConfigurado() {
+        return NO_CONFIGURADO != null && !NO_CONFIGURADO.trim().isEmpty();
     }
 
-    private static String random(int count, int start, int end, boolean letters, boolean numbers) {
-        return random(count, start, end, letters, numbers, null, RANDOM);
+    public String generate() {
+        return formatar(nextId());
     }
 
-    private static String random(int count, int start, int end, boolean letters, boolean numbers, char[] chars, Random random) {
-        if (count == 0) return "";
-        if (count < 0) throw new IllegalArgumentException("Requested random string length " + count + " is less than 0.");
+    @Override
+    public Serializable generate(SharedSessionContractImplementor ssci, Object o) {
+        return uniqueInstance.generate();
+    }
 
-        if (start == 0 && end == 0) {
-            end = 123;
-            start = 32;
-            if (!letters && !numbers) {
-                start = 0;
-                end = Integer.MAX_VALUE;
+    public long nextId() {
+        while (true) {
+            long anterior = ultimo.get();
+            long tempoAnterior = anterior >>> DESLOCAMENTO_TEMPO;
+            long agora = relogio.getAsLong() - EPOCH;
+            long proximo;
+            if (agora > tempoAnterior) {
+                proximo = (agora << DESLOCAMENTO_TEMPO) | bitsNo;
+            } else if ((anterior & MAXIMO_SEQUENCIA) < MAXIMO_SEQUENCIA) {
+                proximo = anterior + 1;
+            } else {
+                proximo = ((tempoAnterior + 1) << DESLOCAMENTO_TEMPO) | bitsNo;
+            }
+            if (ultimo.compareAndSet(anterior, proximo)) {
+                return proximo;
             }
         }
+    }
 
-        char[] buffer = new char[count];
-        int gap = end - start;
-
-        while (count-- != 0) {
-            char ch;
-            ch = chars == null ? (char) (random.nextInt(gap) + start) : chars[(random.nextInt(gap) + start)];
-
-            if ((letters && Character.isLetter(ch)) || (numbers && Character.isDigit(ch)) || (!letters && !numbers)) {
-                if (ch >= 56320 && ch <= 57343) {
-                    if (count == 0) {
-                        count++;
-                    } else {
-                        buffer[count] = ch;
-                        count--;
-                        buffer[count] = ((char) (55296 + random.nextInt(128)));
-                    }
-                } else if (ch >= 55296 && ch <= 56191) {
-                    if (count == 0) {
-                        count++;
-                    } else {
-                        buffer[count] = ((char) (56320 + random.nextInt(128)));
-                        count--;
-                        buffer[count] = ch;
-                    }
-                } else if (ch >= 56192 && ch <= 56319) {
-                    count++;
-                } else {
-                    buffer[count] = ch;
-                }
-            } else {
-                count++;
-            }
+    static String formatar(long id) {
+        char[] digitos = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(digitos);
+    }
+
+    static long no(String configurado) {
+        if (configurado != null && !configurado.trim().isEmpty()) {
+            return Long.parseLong(configurado.trim());
         }
-        return new String(buffer).replace(" ", "-");
+        long no;
+        try {
+            no = noDoEndereco(InetAddress.getLocalHost().getAddress());
+        } catch (UnknownHostException e) {
+            no = 0;
+        }
+        log.warn("pensiltik.node-id não configurado; usando o nó {}, derivado do endereço deste host", no);
+        return no;
+    }
+
+    static long noDoEndereco(byte[] endereco) {
+        long finais = (endereco[endereco.length - 2] & 0xFFL) << 8 | (endereco[endereco.length - 1] & 0xFFL);
+        return finais & MAXIMO_NO;
     }
 
 }
@@ -0,0 +1,83 @@
+-- Particionamento mensal opcional da tabela DESPESA (MySQL 8).
+--
+-- Cada partição guarda um mês de DATA, então as consultas por usuário e mês
+-- só leem a partição do mês (confira com EXPLAIN: coluna partitions) e
+-- apagar meses antigos vira um DROP PARTITION em vez de um DELETE. O MySQL
+-- exige que a coluna de particionamento faça parte de toda chave única, por
+-- isso a chave primária passa a ser (CODIGO, DATA); o CODIGO continua único
+-- porque vem do IdGenerator. Tabelas particionadas não aceitam chaves
+-- estrangeiras, e DESPESA não tem nenhuma.
+--
+-- Executar uma vez com o cliente mysql (por causa do DELIMITER), depois de o
+-- ddl-auto=update ter criado a tabela, e ajustar a primeira partição ao mês
+-- da despesa mais antiga. Os meses seguintes são criados pelo procedimento
+-- criar_particoes_despesa, chamado no fim do script e todo dia pelo evento
+-- ev_particoes_despesa (exige event_scheduler=ON, o padrão do MySQL 8).
+ALTER TABLE Despesa DROP PRIMARY KEY, ADD PRIMARY KEY (CODIGO, DATA);
+
+ALTER TABLE Despesa PARTITION BY RANGE COLUMNS(DATA) (
+    PARTITION p_antigas VALUES LESS THAN ('2019-01-01'),
+    PARTITION p2019_01 VALUES LESS THAN ('2019-02-01'),
+    PARTITION p2019_02 VALUES LESS THAN ('2019-03-01'),
+    PARTITION p2019_03 VALUES LESS THAN ('2019-04-01'),
+    PARTITION p2019_04 VALUES LESS THAN ('2019-05-01'),
+    PARTITION p2019_05 VALUES LESS THAN ('2019-06-01'),
+    PARTITION p2019_06 VALUES LESS THAN ('2019-07-01'),
+    PARTITION p2019_07 VALUES LESS THAN ('2019-08-01'),
+    PARTITION p2019_08 VALUES LESS THAN ('2019-09-01'),
+    PARTITION p2019_09 VALUES LESS THAN ('2019-10-01'),
+    PARTITION p2019_10 VALUES LESS THAN ('2019-11-01'),
+    PARTITION p2019_11 VALUES LESS THAN ('2019-12-01'),
+    PARTITION p2019_12 VALUES LESS THAN ('2020-01-01'),
+    PARTITION p2020_01 VALUES LESS THAN ('2020-02-01'),
+    PARTITION p2020_02 VALUES LESS THAN ('2020-03-01'),
+    PARTITION p2020_03 VALUES LESS THAN ('2020-04-01'),
+    PARTITION p2020_04 VALUES LESS THAN ('2020-05-01'),
+    PARTITION p2020_05 VALUES LESS THAN ('2020-06-01'),
+    PARTITION p2020_06 VALUES LESS THAN ('2020-07-01'),
+    PARTITION p2020_07 VALUES LESS THAN ('2020-08-01'),
+    PARTITION p2020_08 VALUES LESS THAN ('2020-09-01'),
+    PARTITION p2020_09 VALUES LESS THAN ('2020-10-01'),
+    PARTITION p2020_10 VALUES LESS THAN ('2020-11-01'),
+    PARTITION p2020_11 VALUES LESS THAN ('2020-12-01'),
+    PARTITION p2020_12 VALUES LESS THAN ('2021-01-01'),
+    PARTITION p_futuras VALUES LESS THAN (MAXVALUE)
+);
+
+-- Separa de p_futuras uma partição para cada mês que falta, da última
+-- partição mensal até meses_a_frente meses depois do mês atual. Com alguns
+-- meses de folga p_futuras fica vazia e cada REORGANIZE é instantâneo.
+DROP PROCEDURE IF EXISTS criar_particoes_despesa;
+
+DELIMITER $$
+CREATE PROCEDURE criar_particoes_despesa(IN meses_a_frente INT)
+BEGIN
+    DECLARE limite DATE DEFAULT DATE_ADD(DATE_FORMAT(CURDATE(), '%Y-%m-01'), INTERVAL meses_a_frente + 1 MONTH);
+    DECLARE inicio DATE;
+
+    -- Limite superior da última partição mensal, que é o primeiro dia do mês que falta
+    SELECT MAX(STR_TO_DATE(TRIM(BOTH '''' FROM PARTITION_DESCRIPTION), '%Y-%m-%d')) INTO inicio
+      FROM information_schema.PARTITIONS
+     WHERE TABLE_SCHEMA = DATABASE()
+       AND TABLE_NAME = 'Despesa'
+       AND PARTITION_NAME <> 'p_futuras';
+
+    WHILE inicio IS NOT NULL AND inicio < limite DO
+        SET @reorganizar = CONCAT('ALTER TABLE Despesa REORGANIZE PARTITION p_futuras INTO (',
+                'PARTITION p', DATE_FORMAT(inicio, '%Y_%m'),
+                ' VALUES LESS THAN (''', DATE_ADD(inicio, INTERVAL 1 MONTH), '''), ',
+                'PARTITION p_futuras VALUES LESS THAN (MAXVALUE))');
+        PREPARE reorganizar FROM @reorganizar;
+        EXECUTE reorganizar;
+        DEALLOCATE PREPARE reorganizar;
+        SET inicio = DATE_ADD(inicio, INTERVAL 1 MONTH);
+    END WHILE;
+END$$
+DELIMITER ;
+
+-- Cria já os meses até três meses à frente e mantém essa folga todo dia
+CALL criar_particoes_despesa(3);
+
+CREATE EVENT IF NOT EXISTS ev_particoes_despesa
+    ON SCHEDULE EVERY 1 DAY STARTS CURRENT_DATE + INTERVAL 1 DAY
+    DO CALL criar_particoes_despesa(3);
@@ -0,0 +1,5 @@
+-- Alarga a coluna SENHA para os hashes bcrypt (60 caracteres).
+-- O ddl-auto=update não altera colunas existentes, então este script deve
+-- ser executado uma vez nas bases criadas antes do hash de senhas. As senhas
+-- em texto puro continuam aceitas e são regravadas com hash no próximo login.
+ALTER TABLE usuario MODIFY SENHA VARCHAR(60) NOT NULL;
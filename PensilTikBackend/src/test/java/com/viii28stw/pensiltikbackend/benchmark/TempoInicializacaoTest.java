@@ -0,0 +1,90 @@
+package com.viii28stw.pensiltikbackend.benchmark;
+
+import com.viii28stw.pensiltikbackend.MainApp;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mede o tempo de inicialização do backend, do {@code SpringApplication.run}
+ * até o primeiro login respondido pelo controller, em portas livres para
+ * não disputar as 9000/9001 com os outros testes.
+ *
+ * O resultado vai para o arquivo de {@code pensiltik.inicializacao.relatorio}
+ * ({@code target/tempo-inicializacao.properties} no build) e o teste falha se
+ * passar de {@code pensiltik.inicializacao.limite-millis}, definido no pom.
+ */
+@Slf4j
+public class TempoInicializacaoTest {
+
+    @Test
+    public void primeiraRequisicaoDeveSerAtendidaDentroDoLimite() throws IOException {
+        long limiteMillis = Long.getLong("pensiltik.inicializacao.limite-millis", 30000);
+
+        long inicio = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainApp.class)
+                .properties("server.port=0", "management.server.port=0")
+                .run()) {
+            long contextoMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            int porta = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String credenciais = context.getEnvironment().getProperty("basic.auth.user") + ":"
+                    + context.getEnvironment().getProperty("basic.auth.password");
+            HttpURLConnection conexao = (HttpURLConnection) new URL("http://localhost:" + porta
+                    + context.getEnvironment().getProperty("ant.pattern")
+                    + context.getEnvironment().getProperty("url.login"))
+                    .openConnection();
+            conexao.setRequestMethod("POST");
+            conexao.setDoOutput(true);
+            conexao.setRequestProperty("Content-Type", "application/json");
+            conexao.setRequestProperty("Authorization", "Basic " + Base64.getEncoder()
+                    .encodeToString(credenciais.getBytes(StandardCharsets.UTF_8)));
+            // O login passa pelo filtro de sessão e chega ao controller, ao serviço e ao banco;
+            // um e-mail que não existe ainda confere o hash fictício e responde 200 sem corpo
+            try (OutputStream corpo = conexao.getOutputStream()) {
+                corpo.write("{\"email\":\"inicializacao@pensiltik.invalid\",\"senha\":\"ab12cdef\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            int status = conexao.getResponseCode();
+            conexao.disconnect();
+            long primeiraRequisicaoMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertEquals(200, status);
+            registrar(contextoMillis, primeiraRequisicaoMillis);
+            assertTrue("Primeira requisição atendida em " + primeiraRequisicaoMillis + "ms, limite de "
+                    + limiteMillis + "ms", primeiraRequisicaoMillis <= limiteMillis);
+        }
+    }
+
+    private static void registrar(long contextoMillis, long primeiraRequisicaoMillis) throws IOException {
+        log.info("Inicialização: contexto em {}ms, primeira requisição em {}ms",
+                contextoMillis, primeiraRequisicaoMillis);
+        String relatorio = System.getProperty("pensiltik.inicializacao.relatorio");
+        if (relatorio == null) return;
+
+        Properties properties = new Properties();
+        properties.setProperty("contexto.millis", String.valueOf(contextoMillis));
+        properties.setProperty("primeira-requisicao.millis", String.valueOf(primeiraRequisicaoMillis));
+        File arquivo = new File(relatorio);
+        arquivo.getParentFile().mkdirs();
+        try (OutputStream outputStream = new FileOutputStream(arquivo)) {
+            properties.store(outputStream, "Tempo de inicialização do backend");
+        }
+    }
+
+}
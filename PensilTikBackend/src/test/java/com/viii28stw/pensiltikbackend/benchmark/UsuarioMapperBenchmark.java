@@ -0,0 +1,94 @@
+package com.viii28stw.pensiltikbackend.benchmark;
+
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.mapper.IUsuarioMapper;
+import com.viii28stw.pensiltikbackend.mapper.UsuarioMapper;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converte 10 mil usuários para DTO com a cadeia de builders que o
+ * {@code UsuarioService} usava e com o {@link IUsuarioMapper} gerado. Rodar
+ * pelo {@link #main} para ver também o {@code gc.alloc.rate.norm}: o mapper
+ * não aloca o builder de cada DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsuarioMapperBenchmark {
+
+    private static final int QUANTIDADE = 10_000;
+
+    private final IUsuarioMapper usuarioMapper = new UsuarioMapper();
+    private List<Usuario> usuarios;
+
+    @Setup
+    public void setup() {
+        usuarios = new ArrayList<>(QUANTIDADE);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            usuarios.add(Usuario.builder()
+                    .codigo(String.format("%019d", i))
+                    .nome("Nome" + i)
+                    .sobreNome("Sobrenome" + i)
+                    .email("usuario" + i + "@pensiltik.com")
+                    .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                    .senha("$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012")
+                    .sexo(i % 2 == 0 ? Sexo.MASCULINO : Sexo.FEMININO)
+                    .dataNascimento(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<UsuarioDto> builder() {
+        List<UsuarioDto> usuariosDto = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            usuariosDto.add(UsuarioDto.builder()
+                    .codigo(usuario.getCodigo())
+                    .nome(usuario.getNome())
+                    .sobreNome(usuario.getSobreNome())
+                    .email(usuario.getEmail())
+                    .usuarioNivelAcesso(usuario.getUsuarioNivelAcesso())
+                    .sexo(usuario.getSexo())
+                    .dataNascimento(usuario.getDataNascimento())
+                    .build());
+        }
+        return usuariosDto;
+    }
+
+    @Benchmark
+    public List<UsuarioDto> mapper() {
+        return usuarioMapper.toDtos(usuarios);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UsuarioMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
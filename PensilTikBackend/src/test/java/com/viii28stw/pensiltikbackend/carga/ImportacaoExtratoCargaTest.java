@@ -0,0 +1,123 @@
+package com.viii28stw.pensiltikbackend.carga;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoExtrato;
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.service.IImportacaoExtratoService;
+import com.viii28stw.pensiltikbackend.service.IUsuarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Importa um extrato CSV gerado em fluxo, sem passar pela memória, e mede
+ * o tempo da importação e o de reimportar o mesmo arquivo, quando tudo é
+ * descartado como duplicado.
+ *
+ * Só roda com {@code -Dpensiltik.carga=true}. O número de lançamentos vem
+ * de {@code pensiltik.carga.lancamentos} (100 mil) e o tempo máximo de cada
+ * importação de {@code pensiltik.carga.limite-segundos} (10). Roda com o
+ * perfil {@code perf}, sem log de SQL.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@ActiveProfiles("perf")
+@Slf4j
+public class ImportacaoExtratoCargaTest {
+
+    private static final String[] DESCRICOES = {"UBER *TRIP", "Posto Ipiranga", "Drogaria São Paulo",
+            "Supermercado Extra", "NETFLIX.COM", "Padaria Real", "Pagamento fatura", "Escola Modelo"};
+
+    @Autowired
+    private IImportacaoExtratoService importacaoExtratoService;
+    @Autowired
+    private IUsuarioService usuarioService;
+
+    @Before
+    public void verificarSeACargaFoiPedida() {
+        assumeTrue(Boolean.getBoolean("pensiltik.carga"));
+    }
+
+    @Test
+    public void importacaoDeCemMilLancamentos() throws Exception {
+        int lancamentos = Integer.getInteger("pensiltik.carga.lancamentos", 100_000);
+        long limiteSegundos = Long.getLong("pensiltik.carga.limite-segundos", 10);
+
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+
+        try {
+            long inicio = System.nanoTime();
+            RelatorioImportacaoExtratoDto relatorio = importacaoExtratoService.importarExtrato(usuarioDto.getCodigo(),
+                    new ExtratoGerado(lancamentos), FormatoExtrato.CSV, StandardCharsets.UTF_8, -1);
+            long importacao = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            inicio = System.nanoTime();
+            RelatorioImportacaoExtratoDto reimportacao = importacaoExtratoService.importarExtrato(usuarioDto.getCodigo(),
+                    new ExtratoGerado(lancamentos), FormatoExtrato.CSV, StandardCharsets.UTF_8, -1);
+            long duplicada = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            log.info("{} lançamentos: importação {} ms ({}/s), reimportação {} ms",
+                    lancamentos, importacao, Math.round(lancamentos * 1000.0 / importacao), duplicada);
+            assertEquals(lancamentos, relatorio.getImportadas());
+            assertEquals(lancamentos, reimportacao.getDuplicadas());
+            assertTrue(importacao <= TimeUnit.SECONDS.toMillis(limiteSegundos));
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    // Um lançamento por linha, gerado à medida que é lido, ao longo de um ano de datas
+    private static final class ExtratoGerado extends InputStream {
+        private final int lancamentos;
+        private final LocalDate primeiroDia = LocalDate.of(2018, 1, 1);
+        private byte[] linha = "Data;Histórico;Valor\n".getBytes(StandardCharsets.UTF_8);
+        private int posicao;
+        private int numero;
+
+        private ExtratoGerado(int lancamentos) {
+            this.lancamentos = lancamentos;
+        }
+
+        @Override
+        public int read() {
+            if (posicao == linha.length) {
+                if (numero == lancamentos) return -1;
+                LocalDate data = primeiroDia.plusDays((long) numero * 365 / lancamentos);
+                linha = String.format("%02d/%02d/%d;%s %d;-%d,%02d\n", data.getDayOfMonth(), data.getMonthValue(),
+                        data.getYear(), DESCRICOES[numero % DESCRICOES.length], numero % 97, 1 + numero % 500,
+                        numero % 100).getBytes(StandardCharsets.UTF_8);
+                posicao = 0;
+                numero++;
+            }
+            return linha[posicao++] & 0xFF;
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.viii28stw.pensiltikbackend.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.service.IUsuarioService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Mede a vazão dos endpoints de login e de pesquisa com vários tamanhos do
+ * pool de conexões, redimensionando o Hikari em tempo de execução.
+ *
+ * Só roda com {@code -Dpensiltik.carga=true}. Os tamanhos, as threads e a
+ * duração de cada rodada vêm de {@code pensiltik.carga.tamanhos},
+ * {@code pensiltik.carga.threads} e {@code pensiltik.carga.segundos}. Para
+ * cada tamanho registra no log as requisições por segundo, os erros e o tempo de
+ * espera média por uma conexão ({@code hikaricp.connections.acquire}). Roda
+ * com o perfil {@code perf}, sem log de SQL.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+        "login.limite.email.capacidade=1000000",
+        "login.limite.ip.capacidade=1000000"})
+@ActiveProfiles("perf")
+@Slf4j
+public class PoolConexaoCargaTest {
+
+    @Value("${basic.auth.user}")
+    private String basicAuthUser;
+    @Value("${basic.auth.password}")
+    private String basicAuthPassword;
+    @Value("${header.name}")
+    private String headerName;
+    @Value("${url.prefix}")
+    private String urlPrefix;
+    @Value("${url.login}")
+    private String urlLogin;
+    @Value("${url.search.users.by.prefix}")
+    private String urlSearchUsersByPrefix;
+
+    @Autowired
+    private IUsuarioService usuarioService;
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private HikariDataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void verificarSeACargaFoiPedida() {
+        assumeTrue(Boolean.getBoolean("pensiltik.carga"));
+    }
+
+    @Test
+    public void vazaoDoLoginEDaPesquisaPorTamanhoDoPool() throws Exception {
+        int threads = Integer.getInteger("pensiltik.carga.threads", 32);
+        long segundos = Long.getLong("pensiltik.carga.segundos", 20);
+        String[] tamanhos = System.getProperty("pensiltik.carga.tamanhos", "5,10,20,40").split(",");
+
+        String senha = randomPassword(8);
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(senha)
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+        UsuarioDto login = UsuarioDto.builder().email(usuarioDto.getEmail()).senha(senha).build();
+
+        try {
+            HttpHeaders httpHeaders = new HttpHeaders();
+            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+            ResponseEntity<String> resposta = post(login, httpHeaders);
+            assertEquals(HttpStatus.OK, resposta.getStatusCode());
+            httpHeaders.add(headerName, mapper.readValue(resposta.getBody(), UsuarioDto.class).getTokenSessao());
+            String prefixo = usuarioDto.getNome().substring(0, 3);
+
+            List<String> linhas = new ArrayList<>();
+            for (String tamanho : tamanhos) {
+                int tamanhoPool = Integer.parseInt(tamanho.trim());
+                dataSource.getHikariConfigMXBean().setMaximumPoolSize(tamanhoPool);
+                dataSource.getHikariConfigMXBean().setMinimumIdle(tamanhoPool);
+
+                linhas.add(String.format("pool=%-3d login %s", tamanhoPool,
+                        rodada(threads, segundos, () -> post(login, httpHeaders))));
+                linhas.add(String.format("pool=%-3d pesquisa %s", tamanhoPool,
+                        rodada(threads, segundos, () -> testRestTemplate
+                                .withBasicAuth(basicAuthUser, basicAuthPassword)
+                                .exchange(urlPrefix + urlSearchUsersByPrefix + "?prefixo={prefixo}&limite=20",
+                                        HttpMethod.GET, new HttpEntity<>(httpHeaders), String.class, prefixo))));
+            }
+            linhas.forEach(linha -> log.info("{}", linha));
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    private ResponseEntity<String> post(UsuarioDto login, HttpHeaders httpHeaders) {
+        return testRestTemplate
+                .withBasicAuth(basicAuthUser, basicAuthPassword)
+                .exchange(urlPrefix.concat(urlLogin), HttpMethod.POST, new HttpEntity<>(login, httpHeaders), String.class);
+    }
+
+    private String rodada(int threads, long segundos, Requisicao requisicao) throws InterruptedException {
+        Timer espera = meterRegistry.find("hikaricp.connections.acquire").timer();
+        long esperasAntes = espera == null ? 0 : espera.count();
+        double esperaAntes = espera == null ? 0 : espera.totalTime(TimeUnit.MILLISECONDS);
+        double timeoutsAntes = timeouts();
+
+        AtomicLong sucessos = new AtomicLong();
+        AtomicLong erros = new AtomicLong();
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch terminadas = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < fim) {
+                    try {
+                        if (requisicao.executar().getStatusCode() == HttpStatus.OK) sucessos.incrementAndGet();
+                        else erros.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        erros.incrementAndGet();
+                    }
+                }
+                terminadas.countDown();
+            });
+        }
+        terminadas.await();
+        executor.shutdown();
+
+        long esperas = espera == null ? 0 : espera.count() - esperasAntes;
+        double esperaMedia = esperas == 0 ? 0 : (espera.totalTime(TimeUnit.MILLISECONDS) - esperaAntes) / esperas;
+        return String.format("%8.1f req/s  erros=%-6d espera média da conexão=%.2fms  timeouts=%.0f",
+                (double) sucessos.get() / segundos, erros.get(), esperaMedia, timeouts() - timeoutsAntes);
+    }
+
+    // Acumulado desde que o pool subiu; cada rodada mostra só a diferença
+    private double timeouts() {
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").counter();
+        return timeouts == null ? 0 : timeouts.count();
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        ResponseEntity<String> executar();
+    }
+
+}
@@ -3,7 +3,9 @@ package com.viii28stw.pensiltikbackend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viii28stw.pensiltikbackend.enumeration.Sexo;
 import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.PaginaUsuarioDto;
 import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
 import com.viii28stw.pensiltikbackend.service.IUsuarioService;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,12 +20,14 @@ import org.springframework.http.*;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
-import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphanumeric;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.junit.Assert.*;
 
@@ -59,11 +63,21 @@ public class UsuarioControllerTest {
     private String urlUpdateUser;
     @Value("${url.delete.user.by.id}")
     private String urlDeleteUserById;
+    @Value("${url.search.users.page}")
+    private String urlSearchUsersPage;
+    @Value("${url.export.users}")
+    private String urlExportUsers;
+    @Value("${login.limite.email.capacidade}")
+    private int capacidadeEmail;
+    @Value("${login.limite.ip.capacidade}")
+    private int capacidadeIp;
     private static boolean INITIALIZED = false;
+    private static final AtomicInteger PROXIMO_IP = new AtomicInteger();
 
     @Before
     public void CriarUsuarioAdiministradorEFazerLogin() {
         if (!INITIALIZED) {
+            String senha = randomPassword(8);
             UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
                     .nome(randomAlphabetic(25))
                     .sobreNome(randomAlphabetic(25))
@@ -71,13 +85,14 @@ public class UsuarioControllerTest {
                             .concat(randomAlphabetic(4)).concat(".")
                             .concat(randomAlphabetic(2)))
                     .usuarioNivelAcesso(UsuarioNivelAcesso.ADMINISTRADOR)
-                    .senha(randomAlphanumeric(8))
+                    .senha(senha)
                     .sexo(Sexo.MASCULINO)
                     .dataNascimento(LocalDate.now())
                     .build());
 
+            usuarioDto.setSenha(senha);
             UsuarioDto usuarioDto1 = usuarioService.fazerLogin(usuarioDto);
-            httpHeaders.add(headerName, usuarioDto1.getEmail());
+            httpHeaders.add(headerName, usuarioDto1.getTokenSessao());
             INITIALIZED = true;
         }
     }
@@ -92,7 +107,7 @@ public class UsuarioControllerTest {
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
-                .senha(randomAlphanumeric(11))
+                .senha(randomPassword(11))
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
                 .build();
@@ -116,7 +131,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(10))
+                .senha(randomPassword(10))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -150,7 +165,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -166,6 +181,7 @@ public class UsuarioControllerTest {
         UsuarioDto usuarioDto1 = mapper.readValue(responseEntityUsuario.getBody().toString(), UsuarioDto.class);
 
         assertNotNull(usuarioDto1);
+        usuarioDto1.setSenha(usuarioDto.getSenha());
 
         ResponseEntity responseEntityLogin = testRestTemplate
                 .withBasicAuth(basicAuthUser, basicAuthPassword)
@@ -174,14 +190,14 @@ public class UsuarioControllerTest {
 
         then(responseEntityLogin.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-        httpHeaders.add(headerName, usuarioDto1.getEmail());
+        httpHeaders.add(headerName, usuarioDto1.getTokenSessao());
 
         usuarioDto1.setNome(randomAlphabetic(25));
         usuarioDto1.setSobreNome(randomAlphabetic(25));
         usuarioDto1.setEmail(randomAlphabetic(7).concat("@")
                 .concat(randomAlphabetic(5)).concat(".")
                 .concat(randomAlphabetic(3)));
-        usuarioDto1.setSenha(randomAlphanumeric(8));
+        usuarioDto1.setSenha(randomPassword(8));
         usuarioDto1.setUsuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM);
         usuarioDto1.setSexo(Sexo.FEMININO);
         usuarioDto1.setDataNascimento(LocalDate.now());
@@ -228,7 +244,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -253,7 +269,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -277,7 +293,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -302,7 +318,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -324,7 +340,7 @@ public class UsuarioControllerTest {
         UsuarioDto usuarioDto = UsuarioDto.builder()
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -347,7 +363,7 @@ public class UsuarioControllerTest {
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
                 .email("@" + randomAlphabetic(5).concat(".").concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -456,7 +472,7 @@ public class UsuarioControllerTest {
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
                 .email(randomAlphabetic(7).concat(randomAlphabetic(5)).concat(".").concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .dataNascimento(LocalDate.now())
                 .build();
 
@@ -479,7 +495,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -533,7 +549,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -574,7 +590,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -618,7 +634,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -661,7 +677,7 @@ public class UsuarioControllerTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.ADMINISTRADOR)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -711,4 +727,156 @@ public class UsuarioControllerTest {
         then(responseEntityUsuario4.getBody() instanceof EmptyResultDataAccessException);
     }
 
+    @Test
+    public void buscarUsuariosPaginadosDeveSeguirOCursor() {
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+
+        try {
+            ResponseEntity<PaginaUsuarioDto> responseEntityPagina1 = testRestTemplate
+                    .withBasicAuth(basicAuthUser, basicAuthPassword)
+                    .exchange(urlPrefix.concat(urlSearchUsersPage).concat("?tamanho=1"), HttpMethod.GET,
+                            new HttpEntity<>(httpHeaders), PaginaUsuarioDto.class);
+
+            then(responseEntityPagina1.getStatusCode()).isEqualTo(HttpStatus.OK);
+            PaginaUsuarioDto pagina1 = responseEntityPagina1.getBody();
+            assertNotNull(pagina1);
+            assertEquals(1, pagina1.getUsuarios().size());
+            assertNotNull(pagina1.getProximoCursor());
+
+            ResponseEntity<PaginaUsuarioDto> responseEntityPagina2 = testRestTemplate
+                    .withBasicAuth(basicAuthUser, basicAuthPassword)
+                    .exchange(urlPrefix.concat(urlSearchUsersPage).concat("?tamanho=1&cursor={cursor}"),
+                            HttpMethod.GET, new HttpEntity<>(httpHeaders), PaginaUsuarioDto.class,
+                            pagina1.getProximoCursor());
+
+            then(responseEntityPagina2.getStatusCode()).isEqualTo(HttpStatus.OK);
+            PaginaUsuarioDto pagina2 = responseEntityPagina2.getBody();
+            assertNotNull(pagina2);
+            assertEquals(1, pagina2.getUsuarios().size());
+            assertTrue(pagina1.getUsuarios().get(0).getCodigo()
+                    .compareTo(pagina2.getUsuarios().get(0).getCodigo()) < 0);
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    @Test
+    public void buscarUsuariosPaginadosComCursorInvalidoDeveRetornarBadRequest() {
+        ResponseEntity<String> responseEntityPagina = testRestTemplate
+                .withBasicAuth(basicAuthUser, basicAuthPassword)
+                .exchange(urlPrefix.concat(urlSearchUsersPage).concat("?cursor={cursor}"), HttpMethod.GET,
+                        new HttpEntity<>(httpHeaders), String.class, "não é base64!");
+
+        then(responseEntityPagina.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void exportarUsuariosDeveRetornarNdjson() throws IOException {
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+
+        try {
+            ResponseEntity<byte[]> responseEntityExportacao = testRestTemplate
+                    .withBasicAuth(basicAuthUser, basicAuthPassword)
+                    .exchange(urlPrefix.concat(urlExportUsers), HttpMethod.GET,
+                            new HttpEntity<>(httpHeaders), byte[].class);
+
+            then(responseEntityExportacao.getStatusCode()).isEqualTo(HttpStatus.OK);
+            then(responseEntityExportacao.getHeaders().getContentType().isCompatibleWith(
+                    MediaType.valueOf("application/x-ndjson"))).isTrue();
+            assertNotNull(responseEntityExportacao.getBody());
+
+            boolean encontrado = false;
+            for (String linha : new String(responseEntityExportacao.getBody(), StandardCharsets.UTF_8).split("\n")) {
+                assertFalse(linha.contains("senha"));
+                UsuarioResumoDto usuario = mapper.readValue(linha, UsuarioResumoDto.class);
+                encontrado |= usuario.getCodigo().equals(usuarioDto.getCodigo())
+                        && usuario.getEmail().equals(usuarioDto.getEmail());
+            }
+            assertTrue(encontrado);
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    @Test
+    public void loginAlemDoLimiteDoEmailDeveRetornarTooManyRequests() {
+        String ip = novoIp();
+        UsuarioDto usDto = UsuarioDto.builder()
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .build();
+
+        for (int i = 0; i < capacidadeEmail; i++) {
+            then(tentarLogin(usDto, ip).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        ResponseEntity<String> responseEntityLimitado = tentarLogin(usDto, ip);
+
+        then(responseEntityLimitado.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        String retryAfter = responseEntityLimitado.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        assertNotNull(retryAfter);
+        assertTrue(Long.parseLong(retryAfter) > 0);
+
+        // Vindo de outro IP, o mesmo e-mail continua bloqueado
+        then(tentarLogin(usDto, novoIp()).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    public void loginAlemDoLimiteDoIpDeveRetornarTooManyRequestsSoParaEsseIp() {
+        String ip = novoIp();
+        for (int i = 0; i < capacidadeIp; i++) {
+            then(tentarLogin(UsuarioDto.builder()
+                    .email(randomAlphabetic(12).concat("@exemplo.com"))
+                    .senha(randomPassword(8))
+                    .build(), ip).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        UsuarioDto usDto = UsuarioDto.builder()
+                .email(randomAlphabetic(12).concat("@exemplo.com"))
+                .senha(randomPassword(8))
+                .build();
+
+        ResponseEntity<String> responseEntityLimitado = tentarLogin(usDto, ip);
+        then(responseEntityLimitado.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertNotNull(responseEntityLimitado.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        // O X-Forwarded-For do proxy confiável identifica o cliente: outro IP tem o seu próprio balde
+        then(tentarLogin(usDto, novoIp()).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> tentarLogin(UsuarioDto usDto, String ip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpHeaders);
+        headers.set("X-Forwarded-For", ip);
+        return testRestTemplate
+                .withBasicAuth(basicAuthUser, basicAuthPassword)
+                .exchange(urlPrefix.concat(urlLogin), HttpMethod.POST,
+                        new HttpEntity<>(usDto, headers), String.class);
+    }
+
+    // Endereços de documentação (RFC 5737), um novo a cada chamada para não dividir baldes
+    private static String novoIp() {
+        return "203.0.113.".concat(String.valueOf(PROXIMO_IP.incrementAndGet()));
+    }
+
 }
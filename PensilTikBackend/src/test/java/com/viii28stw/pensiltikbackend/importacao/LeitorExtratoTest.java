@@ -0,0 +1,137 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LeitorExtratoTest {
+
+    private static LeitorExtrato csv(String texto) throws IOException {
+        return new LeitorExtratoCsv(new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+    }
+
+    private static LeitorExtrato ofx(byte[] bytes) throws IOException {
+        return new LeitorExtratoOfx(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+    }
+
+    private static void assertLancamento(LancamentoExtrato lancamento, int numero, LocalDate data, String valor,
+                                         String descricao) {
+        assertNull(lancamento.getErro(), lancamento.getErro());
+        assertEquals(numero, lancamento.getNumero());
+        assertEquals(data, lancamento.getData());
+        assertEquals(new BigDecimal(valor), lancamento.getValor());
+        assertEquals(descricao, lancamento.getDescricao());
+    }
+
+    @Test
+    public void csvDeveLocalizarAsColunasPeloNomeEmQualquerOrdem() throws IOException {
+        LeitorExtrato leitor = csv("\uFEFFValor (R$);Saldo;Data Lançamento;Histórico\n"
+                + "\"-1.234,56\";10,00;01/08/2019;\"Aluguel; agosto\"\n"
+                + "\n"
+                + "R$ 2.500,00;0;02/08/19;Salário\n");
+
+        assertLancamento(leitor.proximo(), 2, LocalDate.of(2019, 8, 1), "-1234.56", "Aluguel; agosto");
+        assertLancamento(leitor.proximo(), 4, LocalDate.of(2019, 8, 2), "2500.00", "Salário");
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    public void csvDeveRejeitarALinhaLongaDemaisESeguirNaProxima() throws IOException {
+        char[] longa = new char[5000];
+        Arrays.fill(longa, 'x');
+        LeitorExtrato leitor = csv("data;descricao;valor\r\n"
+                + "01/08/2019;" + new String(longa) + ";-5,00\r\n"
+                + "02/08/2019;Padaria;-7,00\r\n");
+
+        LancamentoExtrato rejeitado = leitor.proximo();
+        assertEquals(2, rejeitado.getNumero());
+        assertNotNull(rejeitado.getErro());
+        assertLancamento(leitor.proximo(), 3, LocalDate.of(2019, 8, 2), "-7.00", "Padaria");
+        assertNull(leitor.proximo());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void csvComCabecalhoLongoDemaisDeveSerRecusado() throws IOException {
+        char[] longa = new char[5000];
+        Arrays.fill(longa, 'x');
+        csv("data;descricao;valor;" + new String(longa) + "\n01/08/2019;Padaria;-5,00\n");
+    }
+
+    @Test
+    public void csvDeveAceitarOFormatoInternacional() throws IOException {
+        LeitorExtrato leitor = csv("date,description,amount\n"
+                + "2019-08-03,Coffee,-12.30\n"
+                + "2019-08-04,Refund,\"(1,234.50)\"\n");
+
+        assertLancamento(leitor.proximo(), 2, LocalDate.of(2019, 8, 3), "-12.30", "Coffee");
+        assertLancamento(leitor.proximo(), 3, LocalDate.of(2019, 8, 4), "-1234.50", "Refund");
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    public void csvDeveRejeitarSoALinhaInvalida() throws IOException {
+        LeitorExtrato leitor = csv("data;descricao;valor\n"
+                + "31/02/2019;Padaria;-5,00\n"
+                + "01/08/2019;Padaria;abc\n"
+                + "01/08/2019;Padaria\n"
+                + "01/08/2019;Padaria;-5,00\n");
+
+        assertEquals(2, leitor.proximo().getNumero());
+        assertNotNull(leitor.proximo().getErro());
+        LancamentoExtrato semValor = leitor.proximo();
+        assertEquals(4, semValor.getNumero());
+        assertNotNull(semValor.getErro());
+        assertLancamento(leitor.proximo(), 5, LocalDate.of(2019, 8, 1), "-5.00", "Padaria");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void csvSemAsColunasObrigatoriasDeveSerRecusado() throws IOException {
+        csv("data;valor\n01/08/2019;-5,00\n");
+    }
+
+    @Test
+    public void ofxSgmlDeveSerLidoComACodificacaoDoCabecalho() throws IOException {
+        String ofx = "OFXHEADER:100\r\nDATA:OFXSGML\r\nVERSION:102\r\nENCODING:USASCII\r\nCHARSET:1252\r\n\r\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\r\n"
+                + "<DTSTART>20190801\r\n"
+                + "<STMTTRN>\r\n<TRNTYPE>DEBIT\r\n<DTPOSTED>20190801120000[-3:BRT]\r\n<TRNAMT>-45.90\r\n"
+                + "<FITID>1\r\n<MEMO>Farmácia São João\r\n</STMTTRN>\r\n"
+                + "<STMTTRN>\r\n<TRNTYPE>CREDIT\r\n<DTPOSTED>20190805\r\n<TRNAMT>1500,00\r\n"
+                + "<NAME>Salario &amp; bonus\r\n</STMTTRN>\r\n"
+                + "<STMTTRN>\r\n<TRNTYPE>DEBIT\r\n<MEMO>Sem data\r\n</STMTTRN>\r\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\r\n";
+
+        LeitorExtrato leitor = ofx(ofx.getBytes(Charset.forName("windows-1252")));
+
+        assertLancamento(leitor.proximo(), 1, LocalDate.of(2019, 8, 1), "-45.90", "Farmácia São João");
+        assertLancamento(leitor.proximo(), 2, LocalDate.of(2019, 8, 5), "1500.00", "Salario & bonus");
+        LancamentoExtrato semData = leitor.proximo();
+        assertEquals(3, semData.getNumero());
+        assertNotNull(semData.getErro());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    public void ofxXmlDeveSerLidoEmUtf8() throws IOException {
+        String ofx = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<?OFX OFXHEADER=\"200\" VERSION=\"211\"?>\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>"
+                + "<STMTTRN><TRNTYPE>DEBIT</TRNTYPE><DTPOSTED>20190810</DTPOSTED><TRNAMT>-80.00</TRNAMT>"
+                + "<NAME>Posto Ipiranga</NAME><MEMO></MEMO></STMTTRN>"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+
+        LeitorExtrato leitor = ofx(ofx.getBytes(StandardCharsets.UTF_8));
+
+        assertLancamento(leitor.proximo(), 1, LocalDate.of(2019, 8, 10), "-80.00", "Posto Ipiranga");
+        assertNull(leitor.proximo());
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.viii28stw.pensiltikbackend.importacao;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class RegrasCategoriaTest {
+
+    private static final int TRANSPORTE = 3;
+    private static final int AUTOMOVEL = 4;
+    private static final int PESSOAIS = 5;
+    private static final int LAZER = 7;
+
+    private final RegrasCategoria regras = RegrasCategoria.builder()
+            .categoriaPadrao(PESSOAIS)
+            .regra(TRANSPORTE, "uber", "metrô")
+            .regra(AUTOMOVEL, "posto", "estacionamento")
+            .regra(LAZER, "uber eats", "cinema", "posto")
+            .build();
+
+    @Test
+    public void palavraChaveDeveCasarComOInicioDeUmaPalavra() {
+        assertEquals(TRANSPORTE, regras.categorizar("UBER *TRIP SAO PAULO"));
+        assertEquals(TRANSPORTE, regras.categorizar("Recarga METRO-SP"));
+        assertEquals(AUTOMOVEL, regras.categorizar("Estacionamentos Centro"));
+        assertEquals(PESSOAIS, regras.categorizar("Compostos Ltda"));
+        assertEquals(PESSOAIS, regras.categorizar(""));
+        assertEquals(PESSOAIS, regras.categorizar(null));
+    }
+
+    @Test
+    public void palavraMaisLongaEDepoisARegraMaisAntigaDevemVencer() {
+        assertEquals(LAZER, regras.categorizar("Uber   Eats pedido 123"));
+        assertEquals(AUTOMOVEL, regras.categorizar("Posto Shell"));
+        assertEquals(LAZER, regras.categorizar("Cinemark"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void palavraChaveVaziaDeveSerRecusada() {
+        RegrasCategoria.builder().regra(LAZER, "cinema", " ").build();
+    }
+
+    @Test
+    public void hashDeveDistinguirLancamentosIguaisNoMesmoDia() {
+        LocalDate dia = LocalDate.of(2019, 8, 1);
+        HashLancamento primeiraImportacao = new HashLancamento();
+        long cafe = primeiraImportacao.hash(dia, new BigDecimal("-5.5"), "Café  Central");
+        long segundoCafe = primeiraImportacao.hash(dia, new BigDecimal("-5.50"), "CAFE CENTRAL");
+        long outroDia = primeiraImportacao.hash(dia.plusDays(1), new BigDecimal("-5.50"), "Café Central");
+
+        HashLancamento segundaImportacao = new HashLancamento();
+        assertNotEquals(cafe, segundoCafe);
+        assertEquals(cafe, segundaImportacao.hash(dia, new BigDecimal("-5.50"), "café central"));
+        assertEquals(segundoCafe, segundaImportacao.hash(dia, new BigDecimal("-5.50"), "Café Central"));
+        assertEquals(outroDia, segundaImportacao.hash(dia.plusDays(1), new BigDecimal("-5.50"), "Café Central"));
+        assertNotEquals(cafe, outroDia);
+    }
+
+    @Test
+    public void hashNaoDeveDependerDaOrdemDasDatas() {
+        LocalDate dia = LocalDate.of(2019, 8, 1);
+        HashLancamento emOrdem = new HashLancamento();
+        long primeiro = emOrdem.hash(dia, new BigDecimal("-5.50"), "Café");
+        long segundo = emOrdem.hash(dia, new BigDecimal("-5.50"), "Café");
+        long outroDia = emOrdem.hash(dia.plusDays(1), new BigDecimal("-5.50"), "Café");
+
+        HashLancamento foraDeOrdem = new HashLancamento();
+        assertEquals(primeiro, foraDeOrdem.hash(dia, new BigDecimal("-5.50"), "Café"));
+        assertEquals(outroDia, foraDeOrdem.hash(dia.plusDays(1), new BigDecimal("-5.50"), "Café"));
+        assertEquals(segundo, foraDeOrdem.hash(dia, new BigDecimal("-5.50"), "Café"));
+    }
+
+    @Test
+    public void hashDeveContarOcorrenciasDepoisDeAumentarATabela() {
+        LocalDate dia = LocalDate.of(2019, 8, 1);
+        HashLancamento primeiraImportacao = new HashLancamento();
+        HashLancamento segundaImportacao = new HashLancamento();
+        long[] primeiros = new long[5000];
+        for (int i = 0; i < primeiros.length; i++) {
+            primeiros[i] = primeiraImportacao.hash(dia.plusDays(i % 30), BigDecimal.valueOf(-i), "Café");
+        }
+        for (int i = primeiros.length - 1; i >= 0; i--) {
+            assertEquals(primeiros[i], segundaImportacao.hash(dia.plusDays(i % 30), BigDecimal.valueOf(-i), "Café"));
+        }
+        assertNotEquals(primeiros[7], primeiraImportacao.hash(dia.plusDays(7), BigDecimal.valueOf(-7), "Café"));
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.viii28stw.pensiltikbackend.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SlowQueryLogTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(100, 1.0, meterRegistry);
+
+    // Objetos JDBC que não fazem nada e devolvem o valor padrão de cada tipo
+    @SuppressWarnings("unchecked")
+    private static <T> T falso(Class<T> tipo) {
+        return (T) Proxy.newProxyInstance(SlowQueryLogTest.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, method, args) -> {
+                    Class<?> retorno = method.getReturnType();
+                    if (retorno == Connection.class) return falso(Connection.class);
+                    if (retorno == PreparedStatement.class) return falso(PreparedStatement.class);
+                    if (retorno == Statement.class) return falso(Statement.class);
+                    if (retorno == int[].class) return new int[0];
+                    if (retorno == boolean.class) return false;
+                    if (retorno == int.class) return 0;
+                    if (retorno == long.class) return 0L;
+                    return null;
+                });
+    }
+
+    @Test
+    public void formatoNaoDeveConterValores() {
+        assertEquals("select u.codigo from usuario u where u.email=? and u.nome like ? limit ?",
+                SlowQueryLog.formato("select u.codigo from usuario u\n    where u.email='a@b.com' and u.nome like ? limit 20"));
+        assertEquals("select usuario0_.codigo as col_0_0_ from usuario usuario0_ where usuario0_.codigo in (?...)",
+                SlowQueryLog.formato("select usuario0_.codigo as col_0_0_ from usuario usuario0_ where usuario0_.codigo in (?, ?, ?)"));
+        assertEquals("update usuario set senha=? where codigo=?",
+                SlowQueryLog.formato("update usuario set senha='it''s $2a$10$x' where codigo=-15"));
+    }
+
+    @Test
+    public void somenteExecucoesAcimaDoLimiteDevemSerContadas() {
+        slowQueryLog.registrar("select 1", TimeUnit.MILLISECONDS.toNanos(99), false);
+        assertEquals(0, meterRegistry.get("pensiltik.sql.lenta").counter().count(), 0);
+
+        slowQueryLog.registrar("select 1", TimeUnit.MILLISECONDS.toNanos(100), false);
+        slowQueryLog.registrar("insert into usuario values (?)", TimeUnit.SECONDS.toNanos(2), true);
+        assertEquals(2, meterRegistry.get("pensiltik.sql.lenta").counter().count(), 0);
+    }
+
+    @Test
+    public void cadaExecucaoDeveLevarOProprioSql() throws SQLException {
+        List<String> registradas = new ArrayList<>();
+        SlowQueryLog todas = new SlowQueryLog(0, 1.0, new SimpleMeterRegistry()) {
+            @Override
+            void registrar(String sql, long nanos, boolean lote) {
+                registradas.add(sql + (lote ? " [lote]" : ""));
+            }
+        };
+        DataSource dataSource = todas.medir(falso(DataSource.class));
+
+        try (Connection conexao = dataSource.getConnection()) {
+            PreparedStatement consulta = conexao.prepareStatement("select codigo from usuario where email=?");
+            PreparedStatement insercao = conexao.prepareStatement("insert into despesa values (?)");
+            insercao.addBatch();
+            consulta.executeQuery();
+            insercao.executeBatch();
+
+            Statement statement = conexao.createStatement();
+            statement.execute("delete from saldo_mensal");
+            statement.addBatch("update saldo_usuario set rendas=0");
+            statement.addBatch("update saldo_mensal set rendas=0");
+            statement.executeBatch();
+        }
+
+        assertEquals(4, registradas.size());
+        assertEquals("select codigo from usuario where email=?", registradas.get(0));
+        assertEquals("insert into despesa values (?) [lote]", registradas.get(1));
+        assertEquals("delete from saldo_mensal", registradas.get(2));
+        assertEquals("update saldo_usuario set rendas=0 [lote]", registradas.get(3));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.viii28stw.pensiltikbackend.mapper;
+
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.entity.Usuario;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+
+public class UsuarioMapperTest {
+
+    private final IUsuarioMapper usuarioMapper = new UsuarioMapper();
+
+    @Test
+    public void dtoDeveTerOsCamposDoUsuarioMenosASenha() {
+        Usuario usuario = Usuario.builder()
+                .codigo(randomNumeric(19))
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@").concat(randomAlphabetic(5)).concat(".com"))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.ADMINISTRADOR)
+                .senha(randomPassword(8))
+                .sexo(Sexo.FEMININO)
+                .dataNascimento(LocalDate.now())
+                .build();
+
+        UsuarioDto usuarioDto = usuarioMapper.toDto(usuario);
+
+        assertEquals(usuario.getCodigo(), usuarioDto.getCodigo());
+        assertEquals(usuario.getNome(), usuarioDto.getNome());
+        assertEquals(usuario.getSobreNome(), usuarioDto.getSobreNome());
+        assertEquals(usuario.getEmail(), usuarioDto.getEmail());
+        assertEquals(usuario.getUsuarioNivelAcesso(), usuarioDto.getUsuarioNivelAcesso());
+        assertEquals(usuario.getSexo(), usuarioDto.getSexo());
+        assertEquals(usuario.getDataNascimento(), usuarioDto.getDataNascimento());
+        assertNull(usuarioDto.getSenha());
+        assertNull(usuarioDto.getTokenSessao());
+
+        List<UsuarioDto> usuariosDto = usuarioMapper.toDtos(Collections.singletonList(usuario));
+        assertEquals(Collections.singletonList(usuarioDto), usuariosDto);
+        assertNull(usuarioMapper.toDto(null));
+    }
+
+    @Test
+    public void entidadeNaoDeveReceberASenhaDoDto() {
+        UsuarioDto usuarioDto = UsuarioDto.builder()
+                .codigo(randomNumeric(19))
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@").concat(randomAlphabetic(5)).concat(".com"))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .senha(randomPassword(8))
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build();
+
+        Usuario usuario = usuarioMapper.toEntity(usuarioDto);
+
+        assertEquals(usuarioDto.getCodigo(), usuario.getCodigo());
+        assertEquals(usuarioDto.getNome(), usuario.getNome());
+        assertEquals(usuarioDto.getEmail(), usuario.getEmail());
+        assertNull(usuario.getSenha());
+    }
+
+}
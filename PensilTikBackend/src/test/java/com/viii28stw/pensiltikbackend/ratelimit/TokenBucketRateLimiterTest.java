@@ -0,0 +1,89 @@
+package com.viii28stw.pensiltikbackend.ratelimit;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketRateLimiterTest {
+
+    private final AtomicLong agora = new AtomicLong();
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("teste", 5,
+            Duration.ofMinutes(1), 8, null, agora::get);
+
+    @Test
+    public void baldeDeveAceitarACapacidadeERecusarOExcesso() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a@b.com"));
+        }
+        long espera = limiter.tryAcquire("a@b.com");
+        assertTrue(espera > 0);
+        assertTrue(espera <= TimeUnit.SECONDS.toMillis(12));
+
+        // Outras chaves têm o próprio balde
+        assertEquals(0, limiter.tryAcquire("c@d.com"));
+    }
+
+    @Test
+    public void baldeDeveSerRecarregadoComOTempo() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a@b.com");
+        }
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        assertEquals(0, limiter.tryAcquire("a@b.com"));
+        assertTrue(limiter.tryAcquire("a@b.com") > 0);
+
+        // A recarga não passa da capacidade
+        agora.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a@b.com"));
+        }
+        assertTrue(limiter.tryAcquire("a@b.com") > 0);
+    }
+
+    @Test
+    public void baldesOciososDevemSerRemovidos() {
+        limiter.tryAcquire("a@b.com");
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.tryAcquire("c@d.com");
+        assertEquals(2, limiter.getTrackedKeys());
+
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.evictIdle();
+        assertEquals(1, limiter.getTrackedKeys());
+
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.evictIdle();
+        assertEquals(0, limiter.getTrackedKeys());
+    }
+
+    @Test
+    public void acessosConcorrentesNaoDevemPassarDaCapacidade() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger aceitos = new AtomicInteger();
+        CountDownLatch fim = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("chave-" + (i % 10)) == 0) {
+                        aceitos.incrementAndGet();
+                    }
+                }
+                fim.countDown();
+            });
+        }
+        fim.await();
+        executor.shutdown();
+
+        assertEquals(50, aceitos.get());
+        assertEquals(10, limiter.getTrackedKeys());
+    }
+
+}
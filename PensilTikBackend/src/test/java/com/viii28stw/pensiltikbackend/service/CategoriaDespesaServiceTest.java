@@ -0,0 +1,165 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.CategoriasDespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.entity.CategoriaDespesa;
+import com.viii28stw.pensiltikbackend.repository.ICategoriaDespesaRepository;
+import com.viii28stw.pensiltikbackend.repository.IVersaoCategoriaDespesaRepository;
+import com.viii28stw.pensiltikcommon.categoria.CatalogoCategorias;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class CategoriaDespesaServiceTest {
+
+    private static final YearMonth AGOSTO = YearMonth.of(2019, 8);
+
+    @Autowired
+    private ICategoriaDespesaService categoriaDespesaService;
+    @Autowired
+    private IDespesaService despesaService;
+    @Autowired
+    private ICategoriaDespesaRepository categoriaDespesaRepository;
+    @Autowired
+    private IVersaoCategoriaDespesaRepository versaoCategoriaDespesaRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CategoriaDespesaDto salvar(String codigoUsuario, Integer codigoPai, String descricao) {
+        return categoriaDespesaService.salvarCategoria(codigoUsuario,
+                CategoriaDespesaDto.builder().codigoPai(codigoPai).descricao(descricao).build());
+    }
+
+    @Test
+    public void categoriasPadraoDevemEstarNoCatalogoDeTodoUsuario() {
+        CategoriasDespesaDto categorias = categoriaDespesaService.buscarCategorias(randomNumeric(19));
+
+        assertEquals(DespesaEnum.values().length, categorias.getCategorias().size());
+        for (DespesaEnum despesaEnum : DespesaEnum.values()) {
+            assertTrue(categorias.getCategorias().contains(CategoriaDespesaDto.builder()
+                    .codigo(despesaEnum.getCodigo())
+                    .descricao(despesaEnum.getDescricao())
+                    .padrao(true)
+                    .build()));
+        }
+    }
+
+    @Test
+    public void subcategoriasDevemEntrarNaConsultaDaCategoriaPai() {
+        String codigoUsuario = randomNumeric(19);
+        long versaoInicial = categoriaDespesaService.buscarCatalogo(codigoUsuario).getVersao();
+        CategoriaDespesaDto aluguel = salvar(codigoUsuario, DespesaEnum.HABITACAO.getCodigo(), "Aluguel");
+        CategoriaDespesaDto garagem = salvar(codigoUsuario, aluguel.getCodigo(), "Garagem");
+        DespesaDto despesaDto = despesaService.salvarDespesa(codigoUsuario, DespesaDto.builder()
+                .data(AGOSTO.atDay(5))
+                .valor(new BigDecimal("80.00"))
+                .categoria(garagem.getCodigo())
+                .build());
+
+        try {
+            CatalogoCategorias catalogo = categoriaDespesaService.buscarCatalogo(codigoUsuario);
+            assertNotEquals(versaoInicial, catalogo.getVersao());
+            assertEquals("Habitação / Aluguel / Garagem", catalogo.caminho(garagem.getCodigo()));
+            assertFalse(categoriaDespesaService.buscarCatalogo(randomNumeric(19)).contem(garagem.getCodigo()));
+
+            List<DespesaDto> despesas = despesaService.buscarDespesasPorCategoria(codigoUsuario,
+                    DespesaEnum.HABITACAO.getCodigo(), AGOSTO, AGOSTO);
+            assertEquals(1, despesas.size());
+            assertEquals(despesaDto, despesas.get(0));
+        } finally {
+            despesaService.deletarDespesaPorId(codigoUsuario, despesaDto.getCodigo());
+            assertTrue(categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, garagem.getCodigo()));
+            assertTrue(categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, aluguel.getCodigo()));
+        }
+        assertEquals(DespesaEnum.values().length, categoriaDespesaService.buscarCatalogo(codigoUsuario).tamanho());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void despesaComCategoriaDeOutroUsuarioNaoDeveSerPermitida() {
+        String codigoUsuario = randomNumeric(19);
+        CategoriaDespesaDto academia = salvar(codigoUsuario, DespesaEnum.SAUDE.getCodigo(), "Academia");
+        try {
+            despesaService.salvarDespesa(randomNumeric(19), DespesaDto.builder()
+                    .data(LocalDate.now())
+                    .valor(BigDecimal.TEN)
+                    .categoria(academia.getCodigo())
+                    .build());
+        } finally {
+            categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, academia.getCodigo());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void categoriaNaoDeveFicarAbaixoDeUmaSubcategoriaSua() {
+        String codigoUsuario = randomNumeric(19);
+        CategoriaDespesaDto viagens = salvar(codigoUsuario, null, "Viagens");
+        CategoriaDespesaDto passagens = salvar(codigoUsuario, viagens.getCodigo(), "Passagens");
+        try {
+            viagens.setCodigoPai(passagens.getCodigo());
+            categoriaDespesaService.salvarCategoria(codigoUsuario, viagens);
+        } finally {
+            categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, passagens.getCodigo());
+            categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, viagens.getCodigo());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void categoriaPadraoNaoDeveSerExcluida() {
+        categoriaDespesaService.deletarCategoriaPorId(randomNumeric(19), DespesaEnum.LAZER.getCodigo());
+    }
+
+    @Test
+    public void gravacaoDeOutroBackendDeveTrocarOCatalogoGuardado() throws InterruptedException {
+        String codigoUsuario = randomNumeric(19);
+        CatalogoCategorias antes = categoriaDespesaService.buscarCatalogo(codigoUsuario);
+        assertSame(antes, categoriaDespesaService.buscarCatalogo(codigoUsuario));
+
+        // Grava direto no banco, como outro backend faria, sem passar pelo cache deste
+        CategoriaDespesa pets = transactionTemplate.execute(status -> {
+            versaoCategoriaDespesaRepository.incrementar(codigoUsuario);
+            return categoriaDespesaRepository.save(CategoriaDespesa.builder()
+                    .codigoUsuario(codigoUsuario).descricao("Pets").build());
+        });
+        try {
+            // Aparece depois do intervalo de verificação da versão
+            Thread.sleep(1100);
+            CatalogoCategorias depois = categoriaDespesaService.buscarCatalogo(codigoUsuario);
+            assertNotEquals(antes.getVersao(), depois.getVersao());
+            assertTrue(depois.contem(pets.getCodigo()));
+        } finally {
+            assertTrue(categoriaDespesaService.deletarCategoriaPorId(codigoUsuario, pets.getCodigo()));
+        }
+    }
+
+    @Test
+    public void categoriasDoUsuarioExcluidoDevemSairComAVersao() {
+        String codigoUsuario = randomNumeric(19);
+        CategoriaDespesaDto pets = salvar(codigoUsuario, null, "Pets");
+        assertTrue(versaoCategoriaDespesaRepository.existsById(codigoUsuario));
+
+        transactionTemplate.execute(status -> {
+            categoriaDespesaService.deletarDoUsuario(codigoUsuario);
+            return null;
+        });
+
+        assertFalse(categoriaDespesaRepository.existsById(pets.getCodigo()));
+        assertFalse(versaoCategoriaDespesaRepository.existsById(codigoUsuario));
+        assertFalse(categoriaDespesaService.buscarCatalogo(codigoUsuario).contem(pets.getCodigo()));
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class DespesaServiceTest {
+
+    @Autowired
+    private IDespesaService despesaService;
+    @Autowired
+    private ISaldoService saldoService;
+
+    private DespesaDto novaDespesa(LocalDate data, DespesaEnum categoria) {
+        return DespesaDto.builder()
+                .data(data)
+                .valor(new BigDecimal("123.45"))
+                .categoria(categoria.getCodigo())
+                .descricao(randomAlphabetic(30))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void salvarDespesaValorDeveSerMaiorQueZero() {
+        DespesaDto despesaDto = novaDespesa(LocalDate.now(), DespesaEnum.LAZER);
+        despesaDto.setValor(BigDecimal.ZERO);
+        despesaService.salvarDespesa(randomNumeric(19), despesaDto);
+    }
+
+    @Test
+    public void despesasDoMesDevemSerSomenteDoUsuarioEDoMes() {
+        String codigoUsuario = randomNumeric(19);
+        YearMonth mes = YearMonth.of(2019, 8);
+        DespesaDto doMes = despesaService.salvarDespesa(codigoUsuario, novaDespesa(mes.atDay(31), DespesaEnum.SAUDE));
+        DespesaDto doMesSeguinte = despesaService.salvarDespesa(codigoUsuario,
+                novaDespesa(mes.plusMonths(1).atDay(1), DespesaEnum.SAUDE));
+        DespesaDto deOutroUsuario = despesaService.salvarDespesa(randomNumeric(19),
+                novaDespesa(mes.atDay(15), DespesaEnum.SAUDE));
+
+        try {
+            assertNotNull(doMes.getCodigo());
+            List<DespesaDto> despesas = despesaService.buscarDespesasDoMes(codigoUsuario, mes);
+            assertEquals(1, despesas.size());
+            assertEquals(doMes, despesas.get(0));
+
+            assertEquals(2, despesaService.buscarDespesasPorCategoria(codigoUsuario, DespesaEnum.SAUDE.getCodigo(),
+                    mes, mes.plusMonths(1)).size());
+            assertTrue(despesaService.buscarDespesasPorCategoria(codigoUsuario, DespesaEnum.LAZER.getCodigo(),
+                    mes, mes.plusMonths(1)).isEmpty());
+        } finally {
+            despesaService.deletarDespesaPorId(codigoUsuario, doMes.getCodigo());
+            despesaService.deletarDespesaPorId(codigoUsuario, doMesSeguinte.getCodigo());
+            assertFalse(despesaService.deletarDespesaPorId(codigoUsuario, deOutroUsuario.getCodigo()));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void atualizarDespesaDeOutroUsuarioNaoDeveSerPermitido() {
+        String codigoUsuario = randomNumeric(19);
+        DespesaDto despesaDto = despesaService.salvarDespesa(codigoUsuario,
+                novaDespesa(LocalDate.now(), DespesaEnum.TRANSPORTE));
+        try {
+            despesaDto.setValor(BigDecimal.ONE);
+            despesaService.atualizarDespesa(randomNumeric(19), despesaDto);
+        } finally {
+            despesaService.deletarDespesaPorId(codigoUsuario, despesaDto.getCodigo());
+        }
+    }
+
+    @Test
+    public void atualizarDespesaDeveGravarOsNovosValores() {
+        String codigoUsuario = randomNumeric(19);
+        DespesaDto despesaDto = despesaService.salvarDespesa(codigoUsuario,
+                novaDespesa(LocalDate.of(2019, 8, 10), DespesaEnum.HABITACAO));
+        try {
+            despesaDto.setValor(new BigDecimal("10.00"));
+            despesaDto.setCategoria(DespesaEnum.DEPENDENTES.getCodigo());
+            despesaService.atualizarDespesa(codigoUsuario, despesaDto);
+
+            assertEquals(despesaDto, despesaService.buscarDespesaPorId(codigoUsuario, despesaDto.getCodigo()));
+        } finally {
+            despesaService.deletarDespesaPorId(codigoUsuario, despesaDto.getCodigo());
+        }
+    }
+
+    @Test
+    public void exclusoesSimultaneasDevemEstornarADespesaUmaVez() throws Exception {
+        String codigoUsuario = randomNumeric(19);
+        DespesaDto despesaDto = despesaService.salvarDespesa(codigoUsuario,
+                novaDespesa(LocalDate.of(2019, 8, 10), DespesaEnum.LAZER));
+        Callable<Boolean> exclusao = () -> despesaService.deletarDespesaPorId(codigoUsuario, despesaDto.getCodigo());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> primeira = executor.submit(exclusao);
+            Future<Boolean> segunda = executor.submit(exclusao);
+            assertTrue(primeira.get() ^ segunda.get());
+            assertEquals(0, BigDecimal.ZERO.compareTo(saldoService.buscarSaldo(codigoUsuario).getDespesas()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void alteracoesCruzadasSimultaneasNaoDevemTravarUmaAOutra() throws Exception {
+        String codigoUsuario = randomNumeric(19);
+        LocalDate agosto = LocalDate.of(2019, 8, 10);
+        LocalDate setembro = LocalDate.of(2019, 9, 10);
+        DespesaDto primeira = despesaService.salvarDespesa(codigoUsuario, novaDespesa(agosto, DespesaEnum.HABITACAO));
+        DespesaDto segunda = despesaService.salvarDespesa(codigoUsuario, novaDespesa(setembro, DespesaEnum.LAZER));
+
+        // Cada alteração estorna de um resumo e soma no outro, em sentidos opostos
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> idaEVolta = executor.submit(() -> alternar(codigoUsuario, primeira,
+                    agosto, DespesaEnum.HABITACAO, setembro, DespesaEnum.LAZER));
+            Future<?> voltaEIda = executor.submit(() -> alternar(codigoUsuario, segunda,
+                    setembro, DespesaEnum.LAZER, agosto, DespesaEnum.HABITACAO));
+            idaEVolta.get();
+            voltaEIda.get();
+            assertEquals(0, new BigDecimal("246.90").compareTo(saldoService.buscarSaldo(codigoUsuario).getDespesas()));
+        } finally {
+            executor.shutdown();
+            despesaService.deletarDespesaPorId(codigoUsuario, primeira.getCodigo());
+            despesaService.deletarDespesaPorId(codigoUsuario, segunda.getCodigo());
+        }
+    }
+
+    private void alternar(String codigoUsuario, DespesaDto despesaDto, LocalDate data, DespesaEnum categoria,
+                          LocalDate outraData, DespesaEnum outraCategoria) {
+        for (int i = 0; i < 20; i++) {
+            despesaDto.setData(i % 2 == 0 ? outraData : data);
+            despesaDto.setCategoria((i % 2 == 0 ? outraCategoria : categoria).getCodigo());
+            despesaService.atualizarDespesa(codigoUsuario, despesaDto);
+        }
+    }
+
+}
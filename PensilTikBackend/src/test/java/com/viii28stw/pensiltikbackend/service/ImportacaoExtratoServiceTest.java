@@ -0,0 +1,114 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.enumeration.FormatoExtrato;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoExtratoDto;
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class ImportacaoExtratoServiceTest {
+
+    private static final YearMonth AGOSTO = YearMonth.of(2019, 8);
+    private static final String EXTRATO = "Data;Histórico;Valor\n"
+            + "01/08/2019;UBER *TRIP;-25,90\n"
+            + "01/08/2019;UBER *TRIP;-25,90\n"
+            + "02/08/2019;Posto Ipiranga;-150,00\n"
+            + "05/08/2019;Salário;3.000,00\n"
+            + "06/08/2019;Loja sem regra;-10,00\n"
+            + "07/08/2019;Valor inválido;abc\n";
+
+    @Autowired
+    private IImportacaoExtratoService importacaoExtratoService;
+    @Autowired
+    private IDespesaService despesaService;
+    @Autowired
+    private IRelatorioDespesaService relatorioDespesaService;
+    @Autowired
+    private ISaldoService saldoService;
+
+    private static void assertValor(String esperado, BigDecimal valor) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(valor));
+    }
+
+    private RelatorioImportacaoExtratoDto importar(String codigoUsuario) throws IOException {
+        byte[] bytes = EXTRATO.getBytes(StandardCharsets.UTF_8);
+        return importacaoExtratoService.importarExtrato(codigoUsuario, new ByteArrayInputStream(bytes),
+                FormatoExtrato.CSV, StandardCharsets.UTF_8, bytes.length);
+    }
+
+    @Test
+    public void importarExtratoDeveGravarOsDebitosSemDuplicar() throws IOException {
+        String codigoUsuario = randomNumeric(19);
+        RelatorioImportacaoExtratoDto relatorio = importar(codigoUsuario);
+        List<DespesaDto> despesas = despesaService.buscarDespesasDoMes(codigoUsuario, AGOSTO);
+
+        try {
+            assertEquals(6, relatorio.getLancamentos());
+            assertEquals(4, relatorio.getImportadas());
+            assertEquals(0, relatorio.getDuplicadas());
+            assertEquals(1, relatorio.getIgnoradas());
+            assertEquals(1, relatorio.getRejeitadas());
+            assertEquals(7, relatorio.getErros().get(0).getLinha());
+
+            assertEquals(4, despesas.size());
+            assertEquals(Integer.valueOf(DespesaEnum.TRANSPORTE.getCodigo()), despesas.get(0).getCategoria());
+            assertValor("25.90", despesas.get(0).getValor());
+            assertEquals(Integer.valueOf(DespesaEnum.AUTOMOVEL.getCodigo()), despesas.get(2).getCategoria());
+            assertEquals(Integer.valueOf(DespesaEnum.DESPESAS_PESSOAIS.getCodigo()), despesas.get(3).getCategoria());
+
+            List<ResumoMensalDespesaDto> resumos = relatorioDespesaService.buscarResumoMensal(codigoUsuario, AGOSTO, AGOSTO);
+            assertEquals(3, resumos.size());
+            assertValor("211.80", resumos.stream().map(ResumoMensalDespesaDto::getTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+            assertValor("211.80", saldoService.buscarSaldo(codigoUsuario).getDespesas());
+
+            // O mesmo extrato de novo: tudo é reconhecido como já importado
+            RelatorioImportacaoExtratoDto reimportacao = importar(codigoUsuario);
+            assertEquals(0, reimportacao.getImportadas());
+            assertEquals(4, reimportacao.getDuplicadas());
+            assertEquals(4, despesaService.buscarDespesasDoMes(codigoUsuario, AGOSTO).size());
+
+            ProgressoImportacaoExtratoDto progresso = importacaoExtratoService.buscarProgresso(codigoUsuario);
+            assertTrue(progresso.isConcluida());
+            assertEquals(progresso.getBytesTotal(), progresso.getBytesLidos());
+            assertEquals(4, progresso.getDuplicadas());
+            // Lido depois de concluído, o progresso sai da memória
+            try {
+                importacaoExtratoService.buscarProgresso(codigoUsuario);
+                fail();
+            } catch (NoSuchElementException e) {
+                // esperado
+            }
+        } finally {
+            for (DespesaDto despesa : despesas) {
+                despesaService.deletarDespesaPorId(codigoUsuario, despesa.getCodigo());
+            }
+        }
+        assertValor("0", saldoService.buscarSaldo(codigoUsuario).getDespesas());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void progressoSemImportacaoNaoDeveExistir() {
+        importacaoExtratoService.buscarProgresso(randomNumeric(19));
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.FormatoImportacao;
+import com.viii28stw.pensiltikbackend.model.dto.RelatorioImportacaoDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class ImportacaoUsuarioServiceTest {
+
+    @Autowired
+    private IImportacaoUsuarioService importacaoUsuarioService;
+    @Autowired
+    private IUsuarioService usuarioService;
+
+    @Test
+    public void importarCsvDeveGravarValidosERelatarRejeitados() throws IOException {
+        String email = novoEmail();
+        String csv = "nome,sobreNome,email,senha,sexo,dataNascimento,usuarioNivelAcesso\n"
+                .concat(linhaCsv(email))
+                .concat(linhaCsv(email))
+                .concat(linhaCsv(randomAlphabetic(7)));
+
+        RelatorioImportacaoDto relatorio = importacaoUsuarioService.importarUsuarios(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), FormatoImportacao.CSV);
+
+        assertEquals(1, relatorio.getImportados());
+        assertEquals(2, relatorio.getRejeitados());
+        assertEquals(2, relatorio.getResultados().get(0).getLinha());
+        assertNull(relatorio.getResultados().get(0).getErro());
+        assertNotNull(relatorio.getResultados().get(1).getErro());
+        assertNotNull(relatorio.getResultados().get(2).getErro());
+        assertEquals(email, usuarioService.buscarUsuarioPorId(relatorio.getResultados().get(0).getCodigo()).getEmail());
+    }
+
+    @Test
+    public void importarJsonDeveRecusarEmailJaCadastrado() throws IOException {
+        String email = novoEmail();
+        String json = "[" + usuarioJson(email) + "]";
+        importacaoUsuarioService.importarUsuarios(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), FormatoImportacao.JSON);
+
+        RelatorioImportacaoDto relatorio = importacaoUsuarioService.importarUsuarios(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), FormatoImportacao.JSON);
+
+        assertEquals(0, relatorio.getImportados());
+        assertEquals(1, relatorio.getRejeitados());
+    }
+
+    private String novoEmail() {
+        return randomAlphabetic(7).concat("@").concat(randomAlphabetic(5)).concat(".").concat(randomAlphabetic(3));
+    }
+
+    private String linhaCsv(String email) {
+        return randomAlphabetic(25).concat(",").concat(randomAlphabetic(25)).concat(",").concat(email)
+                .concat(",").concat(randomPassword(8)).concat(",MASCULINO,1990-01-01,USUARIO_COMUM\n");
+    }
+
+    private String usuarioJson(String email) {
+        return "{\"nome\":\"" + randomAlphabetic(25) + "\",\"sobreNome\":\"" + randomAlphabetic(25)
+                + "\",\"email\":\"" + email + "\",\"senha\":\"" + randomPassword(8)
+                + "\",\"sexo\":\"FEMININO\",\"dataNascimento\":\"1990-01-01\",\"usuarioNivelAcesso\":\"USUARIO_COMUM\"}";
+    }
+
+}
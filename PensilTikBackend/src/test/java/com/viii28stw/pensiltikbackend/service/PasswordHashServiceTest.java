@@ -0,0 +1,88 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class PasswordHashServiceTest {
+
+    private final PasswordHashService passwordHashService =
+            new PasswordHashService(6, 4, 1, 1, 5000, new SimpleMeterRegistry());
+
+    @After
+    public void encerrar() {
+        passwordHashService.shutdown();
+    }
+
+    @Test
+    public void hashDeveSerSalgadoEConferido() {
+        String hash = passwordHashService.hash("abc12345");
+        assertEquals(60, hash.length());
+        assertNotEquals(hash, passwordHashService.hash("abc12345"));
+        assertTrue(passwordHashService.verificar("abc12345", hash));
+        assertFalse(passwordHashService.verificar("abc12346", hash));
+        assertFalse(passwordHashService.precisaRehash(hash));
+    }
+
+    @Test
+    public void senhaEmTextoPuroEHashComCustoMenorDevemSerRegravados() {
+        assertTrue(passwordHashService.verificar("abc12345", "abc12345"));
+        assertFalse(passwordHashService.verificar("abc12345", "abc1234"));
+        assertTrue(passwordHashService.precisaRehash("abc12345"));
+
+        String hashImportacao = passwordHashService.hashImportacao("abc12345");
+        assertTrue(passwordHashService.verificar("abc12345", hashImportacao));
+        assertTrue(passwordHashService.precisaRehash(hashImportacao));
+    }
+
+    @Test
+    public void usuarioInexistenteNaoDeveSerAceito() {
+        assertFalse(passwordHashService.verificar("abc12345", null));
+        assertFalse(passwordHashService.verificar(null, "abc12345"));
+    }
+
+    @Test
+    public void poolCheioDeveResponderServicoIndisponivel() throws Exception {
+        PasswordHashService lento = new PasswordHashService(14, 4, 1, 1, 60_000, new SimpleMeterRegistry());
+        ExecutorService chamadores = Executors.newFixedThreadPool(2);
+        try {
+            String hash = lento.hashImportacao("abc12345");
+            CountDownLatch iniciados = new CountDownLatch(2);
+            Future<?> primeiro = chamadores.submit(() -> {
+                iniciados.countDown();
+                return lento.hash("abc12345");
+            });
+            Future<?> segundo = chamadores.submit(() -> {
+                iniciados.countDown();
+                return lento.hash("abc12345");
+            });
+            iniciados.await();
+            Thread.sleep(200);
+
+            // Uma tarefa na thread do pool e outra na fila de uma posição: a terceira é recusada
+            try {
+                lento.verificar("abc12345", hash);
+                fail();
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            }
+            // A importação não usa o pool dos logins
+            assertEquals(60, lento.hashImportacao("abc12345").length());
+            primeiro.cancel(true);
+            segundo.cancel(true);
+        } finally {
+            chamadores.shutdownNow();
+            lento.shutdown();
+        }
+    }
+
+}
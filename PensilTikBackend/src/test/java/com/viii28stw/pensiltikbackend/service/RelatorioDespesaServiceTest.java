@@ -0,0 +1,87 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.ResumoMensalDespesaDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class RelatorioDespesaServiceTest {
+
+    private static final YearMonth AGOSTO = YearMonth.of(2019, 8);
+
+    @Autowired
+    private IDespesaService despesaService;
+    @Autowired
+    private IRelatorioDespesaService relatorioDespesaService;
+
+    private DespesaDto salvar(String codigoUsuario, YearMonth mes, DespesaEnum categoria, String valor) {
+        return despesaService.salvarDespesa(codigoUsuario, DespesaDto.builder()
+                .data(mes.atDay(10))
+                .valor(new BigDecimal(valor))
+                .categoria(categoria.getCodigo())
+                .build());
+    }
+
+    private static ResumoMensalDespesaDto resumo(YearMonth mes, DespesaEnum categoria, String total, long quantidade) {
+        return ResumoMensalDespesaDto.builder()
+                .mes(mes)
+                .categoria(categoria.getCodigo())
+                .total(new BigDecimal(total))
+                .quantidade(quantidade)
+                .build();
+    }
+
+    @Test
+    public void resumoDeveAcompanharAsGravacoesEAReconstrucao() {
+        String codigoUsuario = randomNumeric(19);
+        List<DespesaDto> despesas = new ArrayList<>();
+        try {
+            despesas.add(salvar(codigoUsuario, AGOSTO, DespesaEnum.LAZER, "10.50"));
+            despesas.add(salvar(codigoUsuario, AGOSTO, DespesaEnum.LAZER, "4.50"));
+            despesas.add(salvar(codigoUsuario, AGOSTO, DespesaEnum.SAUDE, "100.00"));
+            despesas.add(salvar(codigoUsuario, AGOSTO.plusMonths(1), DespesaEnum.LAZER, "1.00"));
+
+            List<ResumoMensalDespesaDto> esperado = new ArrayList<>();
+            esperado.add(resumo(AGOSTO, DespesaEnum.SAUDE, "100.00", 1));
+            esperado.add(resumo(AGOSTO, DespesaEnum.LAZER, "15.00", 2));
+            esperado.add(resumo(AGOSTO.plusMonths(1), DespesaEnum.LAZER, "1.00", 1));
+            assertEquals(esperado, relatorioDespesaService.buscarResumoMensal(codigoUsuario, AGOSTO, AGOSTO.plusMonths(1)));
+
+            // Mover a despesa de saúde para lazer e apagar a de setembro
+            DespesaDto saude = despesas.get(2);
+            saude.setCategoria(DespesaEnum.LAZER.getCodigo());
+            despesaService.atualizarDespesa(codigoUsuario, saude);
+            despesaService.deletarDespesaPorId(codigoUsuario, despesas.remove(3).getCodigo());
+
+            esperado.clear();
+            esperado.add(resumo(AGOSTO, DespesaEnum.LAZER, "115.00", 3));
+            assertEquals(esperado, relatorioDespesaService.buscarResumoMensal(codigoUsuario, AGOSTO, AGOSTO.plusMonths(1)));
+
+            relatorioDespesaService.reconstruirResumos(codigoUsuario);
+            assertEquals(esperado, relatorioDespesaService.buscarResumoMensal(codigoUsuario, AGOSTO, AGOSTO.plusMonths(1)));
+        } finally {
+            despesas.forEach(despesa -> despesaService.deletarDespesaPorId(codigoUsuario, despesa.getCodigo()));
+        }
+        assertTrue(relatorioDespesaService.buscarResumoMensal(codigoUsuario, AGOSTO, AGOSTO.plusMonths(1)).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void periodoDoRelatorioNaoPodeSerInvertido() {
+        relatorioDespesaService.buscarResumoMensal(randomNumeric(19), AGOSTO, AGOSTO.minusMonths(1));
+    }
+
+}
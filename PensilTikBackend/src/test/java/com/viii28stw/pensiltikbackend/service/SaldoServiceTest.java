@@ -0,0 +1,127 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.DespesaEnum;
+import com.viii28stw.pensiltikbackend.model.dto.DespesaDto;
+import com.viii28stw.pensiltikbackend.model.dto.RendaDto;
+import com.viii28stw.pensiltikbackend.model.dto.SaldoDto;
+import com.viii28stw.pensiltikbackend.model.dto.SaldoMensalDto;
+import com.viii28stw.pensiltikbackend.model.dto.TipoRendaDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+public class SaldoServiceTest {
+
+    private static final YearMonth JULHO = YearMonth.of(2019, 7);
+
+    @Autowired
+    private ISaldoService saldoService;
+    @Autowired
+    private IRendaService rendaService;
+    @Autowired
+    private IDespesaService despesaService;
+
+    private static void assertValor(String esperado, BigDecimal valor) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(valor));
+    }
+
+    @Test
+    public void saldosDevemAcompanharRendasEDespesas() {
+        String codigoUsuario = randomNumeric(19);
+        TipoRendaDto salario = rendaService.salvarTipoRenda(codigoUsuario,
+                TipoRendaDto.builder().descricao(randomAlphabetic(20)).build());
+        RendaDto julho = rendaService.salvarRenda(codigoUsuario, RendaDto.builder()
+                .data(JULHO.atDay(5)).valor(new BigDecimal("1000.00")).codigoTipoRenda(salario.getCodigo()).build());
+        RendaDto setembro = rendaService.salvarRenda(codigoUsuario, RendaDto.builder()
+                .data(JULHO.plusMonths(2).atDay(5)).valor(new BigDecimal("1000.00")).codigoTipoRenda(salario.getCodigo()).build());
+        DespesaDto agosto = despesaService.salvarDespesa(codigoUsuario, DespesaDto.builder()
+                .data(JULHO.plusMonths(1).atDay(20)).valor(new BigDecimal("300.00")).categoria(DespesaEnum.LAZER.getCodigo()).build());
+
+        try {
+            SaldoDto saldo = saldoService.buscarSaldo(codigoUsuario);
+            assertValor("2000", saldo.getRendas());
+            assertValor("300", saldo.getDespesas());
+            assertValor("1700", saldo.getSaldo());
+            assertValor("1700", saldoService.buscarSaldoAnual(codigoUsuario, 2019).getSaldo());
+            assertValor("0", saldoService.buscarSaldoAnual(codigoUsuario, 2018).getSaldo());
+
+            List<SaldoMensalDto> saldos = saldoService.buscarSaldosMensais(codigoUsuario, JULHO.plusMonths(1), JULHO.plusMonths(2));
+            assertEquals(2, saldos.size());
+            assertValor("-300", saldos.get(0).getSaldo());
+            assertValor("700", saldos.get(0).getSaldoAcumulado());
+            assertValor("1000", saldos.get(1).getSaldo());
+            assertValor("1700", saldos.get(1).getSaldoAcumulado());
+
+            julho.setValor(new BigDecimal("1500.00"));
+            rendaService.atualizarRenda(codigoUsuario, julho);
+            despesaService.deletarDespesaPorId(codigoUsuario, agosto.getCodigo());
+            assertValor("2500", saldoService.buscarSaldo(codigoUsuario).getSaldo());
+
+            saldoService.reconstruirSaldo(codigoUsuario);
+            assertValor("2500", saldoService.buscarSaldo(codigoUsuario).getSaldo());
+            assertValor("1500", saldoService.buscarSaldosMensais(codigoUsuario, JULHO, JULHO).get(0).getSaldoAcumulado());
+        } finally {
+            rendaService.deletarRendaPorId(codigoUsuario, julho.getCodigo());
+            rendaService.deletarRendaPorId(codigoUsuario, setembro.getCodigo());
+            despesaService.deletarDespesaPorId(codigoUsuario, agosto.getCodigo());
+            rendaService.deletarTipoRendaPorId(codigoUsuario, salario.getCodigo());
+        }
+        assertValor("0", saldoService.buscarSaldo(codigoUsuario).getSaldo());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rendaNaoPodeUsarTipoDeOutroUsuario() {
+        TipoRendaDto tipoRenda = rendaService.salvarTipoRenda(randomNumeric(19),
+                TipoRendaDto.builder().descricao(randomAlphabetic(20)).build());
+        rendaService.salvarRenda(randomNumeric(19), RendaDto.builder()
+                .data(JULHO.atDay(1)).valor(BigDecimal.TEN).codigoTipoRenda(tipoRenda.getCodigo()).build());
+    }
+
+    @Test
+    public void alteracoesSimultaneasDaRendaNaoDevemEstornarDuasVezes() throws Exception {
+        String codigoUsuario = randomNumeric(19);
+        TipoRendaDto salario = rendaService.salvarTipoRenda(codigoUsuario,
+                TipoRendaDto.builder().descricao(randomAlphabetic(20)).build());
+        RendaDto julho = rendaService.salvarRenda(codigoUsuario, RendaDto.builder()
+                .data(JULHO.atDay(5)).valor(new BigDecimal("1000.00")).codigoTipoRenda(salario.getCodigo()).build());
+        Callable<RendaDto> alteracao = () -> rendaService.atualizarRenda(codigoUsuario, RendaDto.builder()
+                .codigo(julho.getCodigo()).data(JULHO.atDay(5)).valor(new BigDecimal("1200.00"))
+                .codigoTipoRenda(salario.getCodigo()).build());
+        Callable<Boolean> exclusao = () -> rendaService.deletarRendaPorId(codigoUsuario, julho.getCodigo());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<RendaDto> primeira = executor.submit(alteracao);
+            Future<RendaDto> segunda = executor.submit(alteracao);
+            primeira.get();
+            segunda.get();
+            assertValor("1200", saldoService.buscarSaldo(codigoUsuario).getRendas());
+
+            Future<Boolean> primeiraExclusao = executor.submit(exclusao);
+            Future<Boolean> segundaExclusao = executor.submit(exclusao);
+            assertTrue(primeiraExclusao.get() ^ segundaExclusao.get());
+            assertValor("0", saldoService.buscarSaldo(codigoUsuario).getRendas());
+        } finally {
+            executor.shutdown();
+            rendaService.deletarRendaPorId(codigoUsuario, julho.getCodigo());
+            rendaService.deletarTipoRendaPorId(codigoUsuario, salario.getCodigo());
+        }
+    }
+
+}
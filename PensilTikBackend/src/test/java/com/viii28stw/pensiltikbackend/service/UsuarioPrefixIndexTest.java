@@ -0,0 +1,77 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class UsuarioPrefixIndexTest {
+
+    private final UsuarioPrefixIndex indice = new UsuarioPrefixIndex();
+
+    @Test
+    public void buscaDeveIgnorarAcentosEMaiusculas() {
+        indice.atualizar("1", "Ângela", "angela@exemplo.com");
+        indice.atualizar("2", "JOÃO", "joao@exemplo.com");
+
+        assertEquals(Collections.singletonList("1"), indice.buscar("ANGE", 10));
+        assertEquals(Collections.singletonList("1"), indice.buscar("ângel", 10));
+        assertEquals(Collections.singletonList("2"), indice.buscar("joão", 10));
+        assertEquals(Collections.singletonList("2"), indice.buscar("Joa", 10));
+    }
+
+    @Test
+    public void buscaDeveDevolverSoOsTermosQueComecamComOPrefixo() {
+        indice.atualizar("1", "Ana", "ana@exemplo.com");
+        indice.atualizar("2", "Anabela", "bela@exemplo.com");
+        indice.atualizar("3", "Mariana", "mariana@exemplo.com");
+        indice.atualizar("4", "Bruno", "anonimo@exemplo.com");
+
+        assertEquals(Arrays.asList("1", "2", "4"), indice.buscar("an", 10));
+        assertEquals(Collections.singletonList("2"), indice.buscar("anab", 10));
+        assertEquals(Collections.singletonList("1"), indice.buscar("ana@", 10));
+        assertEquals(Collections.singletonList("3"), indice.buscar("mari", 10));
+        assertTrue(indice.buscar("z", 10).isEmpty());
+    }
+
+    @Test
+    public void usuarioComNomeEEmailNoPrefixoDeveAparecerUmaVez() {
+        indice.atualizar("1", "Carla", "carla@exemplo.com");
+
+        assertEquals(Collections.singletonList("1"), indice.buscar("carla", 10));
+    }
+
+    @Test
+    public void buscaDeveRespeitarOLimite() {
+        for (int i = 0; i < 20; i++) {
+            indice.atualizar(String.valueOf(i), "Paulo " + i, "paulo" + i + "@exemplo.com");
+        }
+
+        assertEquals(5, indice.buscar("paulo", 5).size());
+        assertEquals(20, indice.buscar("paulo", 50).size());
+        assertEquals(1, indice.buscar("paulo 1", 1).size());
+    }
+
+    @Test
+    public void atualizacaoDeveTrocarOsTermosDoUsuario() {
+        indice.atualizar("1", "Roberto", "roberto@exemplo.com");
+        indice.atualizar("1", "Renata", "renata@exemplo.com");
+
+        assertTrue(indice.buscar("rob", 10).isEmpty());
+        assertEquals(Collections.singletonList("1"), indice.buscar("ren", 10));
+    }
+
+    @Test
+    public void remocaoDeveTirarOUsuarioDoIndice() {
+        indice.atualizar("1", "Sofia", "sofia@exemplo.com");
+        indice.atualizar("2", "Sônia", "sonia@exemplo.com");
+
+        indice.remover("1");
+        indice.remover("3");
+
+        assertEquals(Collections.singletonList("2"), indice.buscar("so", 10));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+
+/**
+ * Com {@code usuario.pesquisa.indice-memoria=false} a pesquisa vai ao banco
+ * e não depende do índice em memória. Sobe sem servidor web para não
+ * disputar a porta com o contexto dos outros testes.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "usuario.pesquisa.indice-memoria=false")
+public class UsuarioServicePesquisaBancoTest {
+
+    @Autowired
+    private IUsuarioService usuarioService;
+    @Autowired
+    private UsuarioPrefixIndex usuarioPrefixIndex;
+
+    @Test
+    public void pesquisarUsuariosDeveConsultarOBancoSemOIndice() {
+        String nome = "Banco".concat(randomAlphabetic(12));
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(nome)
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+        try {
+            // Fora do índice, o usuário só pode ser encontrado pelo banco
+            usuarioPrefixIndex.remover(usuarioDto.getCodigo());
+
+            List<UsuarioResumoDto> porNome = usuarioService.pesquisarUsuarios(nome.substring(0, 10), 20);
+            assertEquals(1, porNome.size());
+            assertEquals(usuarioDto.getCodigo(), porNome.get(0).getCodigo());
+
+            List<UsuarioResumoDto> porEmail = usuarioService.pesquisarUsuarios(usuarioDto.getEmail(), 20);
+            assertEquals(1, porEmail.size());
+            assertEquals(usuarioDto.getCodigo(), porEmail.get(0).getCodigo());
+
+            assertTrue(usuarioService.pesquisarUsuarios("%".concat(nome), 20).isEmpty());
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+        assertTrue(usuarioService.pesquisarUsuarios(nome, 20).isEmpty());
+    }
+
+}
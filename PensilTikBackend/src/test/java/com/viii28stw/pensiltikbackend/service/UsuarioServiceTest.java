@@ -1,8 +1,13 @@
 package com.viii28stw.pensiltikbackend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viii28stw.pensiltikbackend.enumeration.Sexo;
 import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.PaginaUsuarioDto;
 import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioResumoDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +16,19 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
-import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphanumeric;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
 import static org.junit.Assert.*;
 
 @RunWith(SpringRunner.class)
@@ -25,6 +37,10 @@ public class UsuarioServiceTest {
 
     @Autowired
     private IUsuarioService usuarioService;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Test(expected = IllegalArgumentException.class)
     public void salvarUsuarioNaoPodeInformarEmailInvalido() {
@@ -32,7 +48,7 @@ public class UsuarioServiceTest {
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
                 .email("@".concat(randomAlphabetic(5)).concat(".").concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(10))
+                .senha(randomPassword(10))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -66,15 +82,15 @@ public class UsuarioServiceTest {
         usuarioService.salvarUsuario(usuarioDto);
     }
 
-    @Test(expected = DataIntegrityViolationException.class)
+    @Test(expected = IllegalArgumentException.class)
     public void salvarUsuarioSenhaNaoPodeTerTamanhoMaiorQue10() {
-        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+        usuarioService.salvarUsuario(UsuarioDto.builder()
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(11))
+                .senha(randomPassword(11))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -89,7 +105,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(10))
+                .senha(randomPassword(10))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -107,7 +123,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -120,16 +136,16 @@ public class UsuarioServiceTest {
         usuarioDto.setEmail(randomAlphabetic(7).concat("@")
                 .concat(randomAlphabetic(5)).concat(".")
                 .concat(randomAlphabetic(3)));
-        usuarioDto.setSenha(randomAlphanumeric(8));
+        usuarioDto.setSenha(randomPassword(8));
         usuarioDto.setUsuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM);
         usuarioDto.setSexo(Sexo.FEMININO);
         usuarioDto.setDataNascimento(LocalDate.now());
 
         assertNotNull(usuarioService.atualizarUsuario(usuarioDto));
 
-        UsuarioDto usuarioDto1 = usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
+        UsuarioResumoDto usuarioDto1 = usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
         assertNotNull(usuarioDto1);
-        assertEquals(usuarioDto1, usuarioDto);
+        assertEquals(usuarioDto1, resumo(usuarioDto));
 
         usuarioDto.setCodigo(null);
         usuarioService.atualizarUsuario(usuarioDto);
@@ -142,7 +158,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -156,7 +172,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -168,7 +184,7 @@ public class UsuarioServiceTest {
         usuarioService.salvarUsuario(UsuarioDto.builder()
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -197,7 +213,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .dataNascimento(LocalDate.now())
                 .build());
 
@@ -212,7 +228,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -234,7 +250,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -242,10 +258,10 @@ public class UsuarioServiceTest {
 
         assertNotNull(usuarioDto);
 
-        UsuarioDto usuarioDto1 = usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
+        UsuarioResumoDto usuarioDto1 = usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
 
         assertNotNull(usuarioDto1);
-        assertEquals(usuarioDto, usuarioDto1);
+        assertEquals(resumo(usuarioDto), usuarioDto1);
 
         assertTrue(usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo()));
         usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
@@ -259,7 +275,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -267,7 +283,7 @@ public class UsuarioServiceTest {
 
         assertNotNull(usuarioDto);
 
-        List<UsuarioDto> listUsuariosDto = usuarioService.buscarTodosOsUsuarios();
+        List<UsuarioResumoDto> listUsuariosDto = usuarioService.buscarTodosOsUsuarios();
 
         assertNotNull(listUsuariosDto);
         assertFalse(listUsuariosDto.isEmpty());
@@ -282,7 +298,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -302,7 +318,7 @@ public class UsuarioServiceTest {
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(randomPassword(8))
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -315,13 +331,14 @@ public class UsuarioServiceTest {
     }
 
     public void fazerLogin() {
+        String senha = randomPassword(8);
         UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
                 .nome(randomAlphabetic(25))
                 .sobreNome(randomAlphabetic(25))
                 .email(randomAlphabetic(7).concat("@")
                         .concat(randomAlphabetic(5)).concat(".")
                         .concat(randomAlphabetic(3)))
-                .senha(randomAlphanumeric(8))
+                .senha(senha)
                 .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
                 .sexo(Sexo.MASCULINO)
                 .dataNascimento(LocalDate.now())
@@ -329,6 +346,7 @@ public class UsuarioServiceTest {
 
         assertNotNull(usuarioDto);
 
+        usuarioDto.setSenha(senha);
         UsuarioDto usuarioDto1 = usuarioService.fazerLogin(usuarioDto);
 
         assertNotNull(usuarioDto1);
@@ -338,4 +356,200 @@ public class UsuarioServiceTest {
         assertNull(usuarioService.fazerLogin(usuarioDto));
     }
 
+    @Test
+    public void buscarUsuariosPaginadosDevePercorrerTodosOsUsuariosEmOrdemDeCodigo() {
+        List<UsuarioDto> criados = Arrays.asList(salvarUsuarioAleatorio(), salvarUsuarioAleatorio(),
+                salvarUsuarioAleatorio());
+        try {
+            List<String> codigos = new ArrayList<>();
+            String cursor = null;
+            do {
+                PaginaUsuarioDto pagina = usuarioService.buscarUsuariosPaginados(cursor, 100);
+                assertTrue(pagina.getUsuarios().size() <= 100);
+                pagina.getUsuarios().forEach(usuario -> codigos.add(usuario.getCodigo()));
+                cursor = pagina.getProximoCursor();
+            } while (cursor != null);
+
+            // O cursor continua logo depois do último código da página anterior, sem repetir nem pular
+            for (int i = 1; i < codigos.size(); i++) {
+                assertTrue(codigos.get(i - 1).compareTo(codigos.get(i)) < 0);
+            }
+            assertEquals(usuarioService.buscarTodosOsUsuarios().size(), codigos.size());
+            for (UsuarioDto criado : criados) {
+                assertTrue(codigos.contains(criado.getCodigo()));
+            }
+        } finally {
+            criados.forEach(usuario -> usuarioService.deletarUsuarioPorId(usuario.getCodigo()));
+        }
+    }
+
+    @Test
+    public void cursorDeveContinuarDepoisDoUltimoUsuarioDaPagina() {
+        List<UsuarioDto> criados = Arrays.asList(salvarUsuarioAleatorio(), salvarUsuarioAleatorio(),
+                salvarUsuarioAleatorio());
+        try {
+            PaginaUsuarioDto primeira = usuarioService.buscarUsuariosPaginados(null, 2);
+            assertEquals(2, primeira.getUsuarios().size());
+            assertNotNull(primeira.getProximoCursor());
+
+            PaginaUsuarioDto segunda = usuarioService.buscarUsuariosPaginados(primeira.getProximoCursor(), 2);
+            assertFalse(segunda.getUsuarios().isEmpty());
+            assertTrue(primeira.getUsuarios().get(1).getCodigo()
+                    .compareTo(segunda.getUsuarios().get(0).getCodigo()) < 0);
+            assertEquals(usuarioService.buscarUsuariosPaginados(primeira.getProximoCursor(), 2), segunda);
+
+            List<String> tresPrimeiros = usuarioService.buscarUsuariosPaginados("", 3).getUsuarios().stream()
+                    .map(UsuarioResumoDto::getCodigo).collect(Collectors.toList());
+            assertEquals(tresPrimeiros.get(2), segunda.getUsuarios().get(0).getCodigo());
+        } finally {
+            criados.forEach(usuario -> usuarioService.deletarUsuarioPorId(usuario.getCodigo()));
+        }
+    }
+
+    @Test
+    public void buscarUsuariosPaginadosDeveLimitarAPaginaA500Usuarios() {
+        UsuarioDto usuarioDto = salvarUsuarioAleatorio();
+        try {
+            int total = usuarioService.buscarTodosOsUsuarios().size();
+            PaginaUsuarioDto pagina = usuarioService.buscarUsuariosPaginados(null, 10_000);
+            assertEquals(Math.min(total, 500), pagina.getUsuarios().size());
+            assertEquals(total > 500, pagina.getProximoCursor() != null);
+
+            assertEquals(1, usuarioService.buscarUsuariosPaginados(null, 0).getUsuarios().size());
+            assertEquals(1, usuarioService.buscarUsuariosPaginados(null, -5).getUsuarios().size());
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void buscarUsuariosPaginadosNaoPodeAceitarCursorInvalido() {
+        usuarioService.buscarUsuariosPaginados("não é base64!", 20);
+    }
+
+    @Test
+    public void exportarUsuariosDeveEscreverUmUsuarioPorLinhaSemSenha() throws IOException {
+        UsuarioDto usuarioDto = salvarUsuarioAleatorio();
+        try {
+            ByteArrayOutputStream exportacao = new ByteArrayOutputStream();
+            usuarioService.exportarUsuarios(exportacao);
+
+            String[] linhas = new String(exportacao.toByteArray(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(usuarioService.buscarTodosOsUsuarios().size(), linhas.length);
+            String anterior = "";
+            UsuarioResumoDto exportado = null;
+            for (String linha : linhas) {
+                assertFalse(linha.contains("senha"));
+                UsuarioResumoDto usuario = mapper.readValue(linha, UsuarioResumoDto.class);
+                assertTrue(anterior.compareTo(usuario.getCodigo()) < 0);
+                anterior = usuario.getCodigo();
+                if (usuario.getCodigo().equals(usuarioDto.getCodigo())) {
+                    exportado = usuario;
+                }
+            }
+            assertEquals(resumo(usuarioDto), exportado);
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    @Test
+    public void pesquisarUsuariosPeloIndiceDeveAcompanharGravacoesEExclusoes() {
+        String sufixo = randomAlphabetic(12).toLowerCase();
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome("Ângela".concat(sufixo))
+                .sobreNome(randomAlphabetic(25))
+                .email(sufixo.concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.FEMININO)
+                .dataNascimento(LocalDate.now())
+                .build());
+        try {
+            assertEquals(Collections.singletonList(resumo(usuarioDto)),
+                    usuarioService.pesquisarUsuarios("ANGELA".concat(sufixo), 20));
+            assertEquals(Collections.singletonList(resumo(usuarioDto)),
+                    usuarioService.pesquisarUsuarios(sufixo.toUpperCase(), 20));
+
+            usuarioDto.setNome("Beatriz".concat(sufixo));
+            usuarioDto.setSenha(randomPassword(8));
+            usuarioService.atualizarUsuario(usuarioDto);
+            assertTrue(usuarioService.pesquisarUsuarios("angela".concat(sufixo), 20).isEmpty());
+            assertEquals(1, usuarioService.pesquisarUsuarios("beatriz".concat(sufixo), 20).size());
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+        assertTrue(usuarioService.pesquisarUsuarios("beatriz".concat(sufixo), 20).isEmpty());
+        assertTrue(usuarioService.pesquisarUsuarios(sufixo, 20).isEmpty());
+    }
+
+    @Test
+    public void pesquisarUsuariosDeveRespeitarOLimite() {
+        String nome = "Limite".concat(randomAlphabetic(12));
+        List<UsuarioDto> criados = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UsuarioDto usuarioDto = salvarUsuarioAleatorio();
+            usuarioDto.setNome(nome.concat(String.valueOf(i)));
+            usuarioDto.setSenha(randomPassword(8));
+            criados.add(usuarioService.atualizarUsuario(usuarioDto));
+        }
+        try {
+            assertEquals(2, usuarioService.pesquisarUsuarios(nome, 2).size());
+            assertEquals(3, usuarioService.pesquisarUsuarios(nome, 20).size());
+            assertTrue(usuarioService.pesquisarUsuarios("  ", 20).isEmpty());
+        } finally {
+            criados.forEach(usuario -> usuarioService.deletarUsuarioPorId(usuario.getCodigo()));
+        }
+    }
+
+    @Test
+    public void cacheDeSegundoNivelDevePublicarAcertosSemAsEstatisticasDoHibernate() {
+        UsuarioDto usuarioDto = salvarUsuarioAleatorio();
+        try {
+            usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
+            double acertos = acertos("default-query-results-region");
+            usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo());
+
+            assertTrue(acertos("default-query-results-region") > acertos);
+            assertNotNull(meterRegistry.find("cache.gets").tags("cache", "usuario", "result", "hit").functionCounter());
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+    private double acertos(String regiao) {
+        FunctionCounter acertos = meterRegistry.find("cache.gets").tags("cache", regiao, "result", "hit")
+                .functionCounter();
+        assertNotNull(acertos);
+        return acertos.count();
+    }
+
+    private UsuarioDto salvarUsuarioAleatorio() {
+        return usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+    }
+
+    private static UsuarioResumoDto resumo(UsuarioDto usuarioDto) {
+        return UsuarioResumoDto.builder()
+                .codigo(usuarioDto.getCodigo())
+                .nome(usuarioDto.getNome())
+                .sobreNome(usuarioDto.getSobreNome())
+                .email(usuarioDto.getEmail())
+                .sexo(usuarioDto.getSexo())
+                .dataNascimento(usuarioDto.getDataNascimento())
+                .usuarioNivelAcesso(usuarioDto.getUsuarioNivelAcesso())
+                .build();
+    }
+
 }
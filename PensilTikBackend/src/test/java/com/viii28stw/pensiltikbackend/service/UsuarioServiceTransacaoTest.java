@@ -0,0 +1,97 @@
+package com.viii28stw.pensiltikbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viii28stw.pensiltikbackend.enumeration.Sexo;
+import com.viii28stw.pensiltikbackend.enumeration.UsuarioNivelAcesso;
+import com.viii28stw.pensiltikbackend.model.dto.UsuarioDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphabetic;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomPassword;
+import static org.junit.Assert.*;
+
+/**
+ * Com o open-in-view desligado, as leituras do serviço devem fechar a
+ * transação e a sessão antes de devolver, e a resposta deve poder ser
+ * serializada sem disparar nenhuma consulta preguiçosa.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UsuarioServiceTransacaoTest {
+
+    @Autowired
+    private IUsuarioService usuarioService;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void openInViewDeveEstarDesligado() {
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    public void leiturasNaoDevemDeixarSessaoAbertaNemCarregarNadaNaSerializacao() throws Exception {
+        UsuarioDto usuarioDto = usuarioService.salvarUsuario(UsuarioDto.builder()
+                .nome(randomAlphabetic(25))
+                .sobreNome(randomAlphabetic(25))
+                .email(randomAlphabetic(7).concat("@")
+                        .concat(randomAlphabetic(5)).concat(".")
+                        .concat(randomAlphabetic(3)))
+                .senha(randomPassword(8))
+                .usuarioNivelAcesso(UsuarioNivelAcesso.USUARIO_COMUM)
+                .sexo(Sexo.MASCULINO)
+                .dataNascimento(LocalDate.now())
+                .build());
+
+        try {
+            List<Object> respostas = Arrays.asList(
+                    usuarioService.buscarUsuarioMaiorCodigo(),
+                    usuarioService.buscarUsuarioPorId(usuarioDto.getCodigo()),
+                    usuarioService.buscarUsuariosPaginados(null, 20),
+                    usuarioService.pesquisarUsuarios(usuarioDto.getNome().substring(0, 6), 20));
+
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            assertFalse(TransactionSynchronizationManager.hasResource(entityManagerFactory));
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            long consultas = statistics.getPrepareStatementCount();
+            long sessoes = statistics.getSessionOpenCount();
+            for (Object resposta : respostas) {
+                assertNotNull(resposta);
+                assertFalse(resposta instanceof HibernateProxy);
+                assertFalse(mapper.writeValueAsString(resposta).contains("senha"));
+            }
+            assertEquals(consultas, statistics.getPrepareStatementCount());
+            assertEquals(sessoes, statistics.getSessionOpenCount());
+
+            ByteArrayOutputStream exportacao = new ByteArrayOutputStream();
+            usuarioService.exportarUsuarios(exportacao);
+            assertFalse(TransactionSynchronizationManager.hasResource(entityManagerFactory));
+            assertTrue(exportacao.size() > 0);
+        } finally {
+            usuarioService.deletarUsuarioPorId(usuarioDto.getCodigo());
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphanumeric;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+public class ClusteredSessionStoreTest {
+
+    private static final String SEGREDO = "segredo compartilhado";
+
+    private final List<ClusteredSessionStore> nodes = new ArrayList<>();
+
+    @Before
+    public void iniciarTresNos() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(novoNo());
+        }
+        for (ClusteredSessionStore node : nodes) {
+            conectar(node, nodes);
+        }
+    }
+
+    @After
+    public void pararNos() {
+        nodes.forEach(ClusteredSessionStore::shutdown);
+    }
+
+    @Test
+    public void loginELogoutDevemSerReplicadosParaTodosOsNos() {
+        String sessionId = randomAlphanumeric(22);
+        String codigoUsuario = randomNumeric(19);
+
+        nodes.get(0).register(sessionId, codigoUsuario);
+        aguardar(() -> nodes.stream().allMatch(node -> codigoUsuario.equals(node.touch(sessionId))));
+
+        assertTrue(nodes.get(1).remove(sessionId));
+        aguardar(() -> nodes.stream().allMatch(node -> node.touch(sessionId) == null));
+        assertEquals(0, nodes.get(2).getActiveSessions());
+    }
+
+    @Test
+    public void noQueEntraDepoisDeveReceberAsSessoesPorAntiEntropia() throws IOException {
+        String sessionId = randomAlphanumeric(22);
+        String codigoUsuario = randomNumeric(19);
+        nodes.get(0).register(sessionId, codigoUsuario);
+        aguardar(() -> codigoUsuario.equals(nodes.get(2).touch(sessionId)));
+
+        ClusteredSessionStore novoNo = novoNo();
+        for (ClusteredSessionStore node : nodes) {
+            node.addPeer(endereco(novoNo));
+        }
+        nodes.add(novoNo);
+
+        aguardar(() -> codigoUsuario.equals(novoNo.touch(sessionId)));
+    }
+
+    @Test
+    public void noComOutroSegredoNaoDeveAplicarNemReceberSessoes() throws IOException {
+        ClusteredSessionStore intruso = novoNo("outro segredo");
+        nodes.add(intruso);
+        intruso.addPeer(endereco(nodes.get(0)));
+        nodes.get(0).addPeer(endereco(intruso));
+
+        String forjada = randomAlphanumeric(22);
+        intruso.register(forjada, randomNumeric(19));
+        String sessionId = randomAlphanumeric(22);
+        String codigoUsuario = randomNumeric(19);
+        nodes.get(0).register(sessionId, codigoUsuario);
+
+        aguardar(() -> codigoUsuario.equals(nodes.get(2).touch(sessionId)));
+        intruso.sendSnapshot();
+        nodes.get(0).sendSnapshot();
+        aguardar(() -> codigoUsuario.equals(nodes.get(1).touch(sessionId)));
+        assertNull(nodes.get(0).touch(forjada));
+        assertNull(intruso.touch(sessionId));
+    }
+
+    @Test
+    public void removerUsuarioDeveEncerrarAsSessoesDeleEmTodosOsNos() {
+        String codigoUsuario = randomNumeric(19);
+        String sessionId = randomAlphanumeric(22);
+        nodes.get(0).register(sessionId, codigoUsuario);
+        aguardar(() -> nodes.stream().allMatch(node -> codigoUsuario.equals(node.touch(sessionId))));
+
+        // Uma sessão que outro nó ainda não replicou também não deve sobreviver à revogação
+        String aindaNaoReplicada = randomAlphanumeric(22);
+        nodes.get(2).register(aindaNaoReplicada, codigoUsuario);
+        assertTrue(nodes.get(1).removeUser(codigoUsuario) >= 1);
+
+        aguardar(() -> nodes.stream().allMatch(node -> node.touch(sessionId) == null
+                && node.touch(aindaNaoReplicada) == null));
+        nodes.get(2).sendSnapshot();
+        assertEquals(0, nodes.get(0).getActiveSessions());
+    }
+
+    @Test
+    public void conexaoNaoAutenticadaDeveSerEncerradaAntesDeQualquerLote() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", nodes.get(0).getPort())) {
+            socket.setSoTimeout(5000);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            in.readFully(new byte[16]);
+            out.write(new byte[32]);
+            out.writeInt(ClusteredSessionStore.MAX_FRAME_BYTES);
+            out.flush();
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void snapshotMaiorQueUmLoteDeveSerDivididoEmVarios() throws IOException {
+        // Cerca de 60 bytes por sessão: 25 mil passam de MAX_FRAME_BYTES
+        for (int i = 0; i < 25_000; i++) {
+            nodes.get(0).register(randomAlphanumeric(22), randomNumeric(19));
+        }
+        ClusteredSessionStore novoNo = novoNo();
+        nodes.get(0).addPeer(endereco(novoNo));
+        nodes.add(novoNo);
+
+        nodes.get(0).sendSnapshot();
+        aguardar(() -> novoNo.getActiveSessions() == 25_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSemSegredoDeveSerRecusado() throws IOException {
+        new ClusteredSessionStore(Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofMillis(20),
+                Duration.ofMillis(500), new InetSocketAddress("127.0.0.1", 0), new byte[0]);
+    }
+
+    private ClusteredSessionStore novoNo() throws IOException {
+        return novoNo(SEGREDO);
+    }
+
+    private ClusteredSessionStore novoNo(String segredo) throws IOException {
+        return new ClusteredSessionStore(Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofMillis(20),
+                Duration.ofMillis(500), new InetSocketAddress("127.0.0.1", 0), segredo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void conectar(ClusteredSessionStore node, List<ClusteredSessionStore> pares) {
+        for (ClusteredSessionStore par : pares) {
+            if (par != node) {
+                node.addPeer(endereco(par));
+            }
+        }
+    }
+
+    private InetSocketAddress endereco(ClusteredSessionStore node) {
+        return new InetSocketAddress("127.0.0.1", node.getPort());
+    }
+
+    private void aguardar(BooleanSupplier condicao) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicao.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) {
+                fail("A replicação não terminou dentro do prazo");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomAlphanumeric;
+import static com.viii28stw.pensiltikbackend.util.RandomValue.randomNumeric;
+import static org.junit.Assert.*;
+
+public class LocalSessionStoreTest {
+
+    private final LocalSessionStore sessionStore = new LocalSessionStore(Duration.ofMillis(200), Duration.ofMillis(50));
+
+    @After
+    public void shutdown() {
+        sessionStore.shutdown();
+    }
+
+    @Test
+    public void sessaoRegistradaDeveSerEncontradaERemovida() {
+        String sessionId = randomAlphanumeric(22);
+        String codigoUsuario = randomNumeric(19);
+
+        assertNull(sessionStore.touch(sessionId));
+        sessionStore.register(sessionId, codigoUsuario);
+        assertEquals(codigoUsuario, sessionStore.touch(sessionId));
+        assertEquals(1, sessionStore.getActiveSessions());
+
+        assertTrue(sessionStore.remove(sessionId));
+        assertFalse(sessionStore.remove(sessionId));
+        assertNull(sessionStore.touch(sessionId));
+        assertEquals(0, sessionStore.getActiveSessions());
+    }
+
+    @Test
+    public void sessaoOciosaDeveExpirarEmSegundoPlano() throws InterruptedException {
+        String sessionId = randomAlphanumeric(22);
+        sessionStore.register(sessionId, randomNumeric(19));
+
+        Thread.sleep(500);
+
+        assertEquals(0, sessionStore.getActiveSessions());
+        assertEquals(1, sessionStore.getExpiredSessions());
+        assertNull(sessionStore.touch(sessionId));
+    }
+
+    @Test
+    public void removerUsuarioDeveEncerrarTodasAsSessoesDele() {
+        String codigoUsuario = randomNumeric(19);
+        String outroUsuario = randomNumeric(19);
+        String primeira = randomAlphanumeric(22);
+        String segunda = randomAlphanumeric(22);
+        String deOutro = randomAlphanumeric(22);
+        sessionStore.register(primeira, codigoUsuario);
+        sessionStore.register(segunda, codigoUsuario);
+        sessionStore.register(deOutro, outroUsuario);
+
+        assertEquals(2, sessionStore.removeUser(codigoUsuario));
+        assertNull(sessionStore.touch(primeira));
+        assertNull(sessionStore.touch(segunda));
+        assertEquals(outroUsuario, sessionStore.touch(deOutro));
+    }
+
+}
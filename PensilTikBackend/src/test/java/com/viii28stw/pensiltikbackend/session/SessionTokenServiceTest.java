@@ -0,0 +1,29 @@
+package com.viii28stw.pensiltikbackend.session;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionTokenServiceTest {
+
+    private final SessionTokenService sessionTokenService = new SessionTokenService("", 12);
+
+    @Test
+    public void tokenEmitidoDeveDevolverOIdDaSessao() {
+        String sessionId = sessionTokenService.newSessionId();
+        assertEquals(sessionId, sessionTokenService.verify(sessionTokenService.issue(sessionId)));
+    }
+
+    @Test
+    public void tokenAdulteradoOuMalformadoDeveSerRecusado() {
+        String token = sessionTokenService.issue(sessionTokenService.newSessionId());
+        String outroId = sessionTokenService.newSessionId();
+
+        assertNull(sessionTokenService.verify(outroId.concat(token.substring(token.indexOf('.')))));
+        assertNull(sessionTokenService.verify(token.substring(0, token.length() - 2)));
+        assertNull(sessionTokenService.verify(new SessionTokenService("outro-segredo", 12).issue(outroId)));
+        assertNull(sessionTokenService.verify("sem-separador"));
+        assertNull(sessionTokenService.verify(null));
+    }
+
+}
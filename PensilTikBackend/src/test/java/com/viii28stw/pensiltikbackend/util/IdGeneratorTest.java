@@ -0,0 +1,87 @@
+package com.viii28stw.pensiltikbackend.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class IdGeneratorTest {
+
+    @Test
+    public void codigosDevemTerTamanhoFixoEOrdemCrescente() {
+        IdGenerator idGenerator = new IdGenerator(7, System::currentTimeMillis);
+        String anterior = idGenerator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            String codigo = idGenerator.generate();
+            assertEquals(IdGenerator.TAMANHO, codigo.length());
+            assertTrue(codigo.compareTo(anterior) > 0);
+            assertEquals(Long.parseLong(codigo) > Long.parseLong(anterior), codigo.compareTo(anterior) > 0);
+            anterior = codigo;
+        }
+    }
+
+    @Test
+    public void sequenciaEsgotadaDeveAvancarOMilissegundo() {
+        long agora = System.currentTimeMillis();
+        IdGenerator idGenerator = new IdGenerator(1, () -> agora);
+        long primeiro = idGenerator.nextId();
+        for (int i = 0; i < IdGenerator.MAXIMO_SEQUENCIA; i++) {
+            idGenerator.nextId();
+        }
+        long seguinte = idGenerator.nextId();
+
+        assertEquals(agora - IdGenerator.EPOCH, primeiro >>> 22);
+        assertEquals(agora - IdGenerator.EPOCH + 1, seguinte >>> 22);
+        assertEquals(1, (seguinte >>> 12) & IdGenerator.MAXIMO_NO);
+    }
+
+    @Test
+    public void relogioVoltandoNaoDeveRepetirCodigos() {
+        AtomicLong relogio = new AtomicLong(System.currentTimeMillis());
+        IdGenerator idGenerator = new IdGenerator(3, relogio::get);
+        long antes = idGenerator.nextId();
+
+        relogio.addAndGet(-5000);
+
+        assertTrue(idGenerator.nextId() > antes);
+    }
+
+    @Test
+    public void threadsConcorrentesNaoDevemColidir() throws InterruptedException {
+        IdGenerator idGenerator = new IdGenerator(5, System::currentTimeMillis);
+        Set<Long> codigos = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    codigos.add(idGenerator.nextId());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8 * 50_000, codigos.size());
+    }
+
+    @Test
+    public void noNaoConfiguradoDeveVirDoEnderecoDoHost() {
+        assertEquals(12, IdGenerator.no(" 12 "));
+        assertEquals(3 << 8 | 7, IdGenerator.noDoEndereco(new byte[]{10, 0, 3, 7}));
+        assertEquals(1023, IdGenerator.noDoEndereco(new byte[]{(byte) 192, (byte) 168, (byte) 255, (byte) 255}));
+        assertEquals(IdGenerator.no(null), IdGenerator.no(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noForaDoIntervaloDeveSerRecusado() {
+        new IdGenerator(IdGenerator.MAXIMO_NO + 1, System::currentTimeMillis);
+    }
+
+}
@@ -30,6 +30,21 @@ public class RandomValue {
         return random(count, true, true);
     }
 
+    /**
+     * Senha aceita pela política padrão quando {@code count} está entre 8 e 10:
+     * pelo menos duas letras e dois dígitos, em posições aleatórias.
+     */
+    public static String randomPassword(int count) {
+        char[] password = (randomAlphabetic(2) + randomNumeric(2) + randomAlphanumeric(count - 4)).toCharArray();
+        for (int i = password.length - 1; i > 0; i--) {
+            int j = RANDOM.nextInt(i + 1);
+            char swap = password[i];
+            password[i] = password[j];
+            password[j] = swap;
+        }
+        return new String(password);
+    }
+
     public static String randomNumeric(int count) {
         return random(count, false, true);
     }
@@ -0,0 +1,218 @@
+package com.viii28stw.pensiltikcommon.categoria;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Árvore imutável das categorias de despesa de um usuário numa versão.
+ *
+ * As categorias ficam em vetores ordenados por código, então resolver a
+ * descrição ou o caminho de uma categoria é uma busca binária, sem consulta
+ * ao banco. A árvore é percorrida uma vez na montagem: cada categoria
+ * guarda o intervalo dos seus descendentes na pré-ordem, de modo que
+ * {@link #ehDescendente(int, int)} custa O(log n) e {@link #descendentes(int)}
+ * devolve uma cópia do intervalo. Pais inexistentes, códigos repetidos e
+ * ciclos são rejeitados na montagem.
+ *
+ * A versão identifica o conteúdo: quem guarda um catálogo só precisa
+ * compará-la com a do servidor para saber se ele continua valendo.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class CatalogoCategorias {
+
+    public static final String SEPARADOR_CAMINHO = " / ";
+
+    private static final int SEM_INDICE = -1;
+    private static final Comparator<Categoria> POR_DESCRICAO = Comparator
+            .comparing(Categoria::getDescricao, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Categoria::getCodigo);
+
+    private final long versao;
+    // Na ordem dos códigos, para a busca binária
+    private final int[] codigos;
+    private final Categoria[] categorias;
+    private final int[] pais;
+    private final int[] profundidades;
+    private final String[] caminhos;
+    // Posição de cada categoria na pré-ordem e fim do intervalo dos seus descendentes
+    private final int[] entradas;
+    private final int[] saidas;
+    // Códigos em pré-ordem, irmãos pela descrição
+    private final int[] preOrdem;
+    private final List<Categoria> emOrdem;
+
+    public CatalogoCategorias(long versao, Collection<Categoria> categorias) {
+        this.versao = versao;
+        Categoria[] ordenadas = categorias.toArray(new Categoria[0]);
+        Arrays.sort(ordenadas, Comparator.comparingInt(Categoria::getCodigo));
+        int tamanho = ordenadas.length;
+        this.categorias = ordenadas;
+        this.codigos = new int[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            codigos[i] = ordenadas[i].getCodigo();
+            if (i > 0 && codigos[i] == codigos[i - 1]) {
+                throw new IllegalArgumentException("Categoria repetida: " + codigos[i]);
+            }
+        }
+
+        this.pais = new int[tamanho];
+        List<List<Integer>> filhos = new ArrayList<>(tamanho);
+        List<Integer> raizes = new ArrayList<>();
+        for (int i = 0; i < tamanho; i++) {
+            filhos.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tamanho; i++) {
+            int codigoPai = ordenadas[i].getCodigoPai();
+            if (codigoPai == Categoria.SEM_PAI) {
+                pais[i] = SEM_INDICE;
+                raizes.add(i);
+            } else {
+                pais[i] = indice(codigoPai);
+                if (pais[i] == SEM_INDICE) {
+                    throw new IllegalArgumentException("A categoria " + codigos[i]
+                            + " tem um pai inexistente: " + codigoPai);
+                }
+                filhos.get(pais[i]).add(i);
+            }
+        }
+
+        this.profundidades = new int[tamanho];
+        this.caminhos = new String[tamanho];
+        this.entradas = new int[tamanho];
+        this.saidas = new int[tamanho];
+        this.preOrdem = new int[tamanho];
+        List<Categoria> emOrdem = new ArrayList<>(tamanho);
+        int[] pilha = new int[tamanho];
+        int topo = 0;
+        ordenarPorDescricao(raizes);
+        for (int i = raizes.size() - 1; i >= 0; i--) {
+            pilha[topo++] = raizes.get(i);
+        }
+        // Os filhos são empilhados ao contrário para sair na ordem da descrição
+        while (topo > 0) {
+            int atual = pilha[--topo];
+            int pai = pais[atual];
+            profundidades[atual] = pai == SEM_INDICE ? 0 : profundidades[pai] + 1;
+            caminhos[atual] = pai == SEM_INDICE ? ordenadas[atual].getDescricao()
+                    : caminhos[pai] + SEPARADOR_CAMINHO + ordenadas[atual].getDescricao();
+            entradas[atual] = emOrdem.size();
+            preOrdem[emOrdem.size()] = codigos[atual];
+            emOrdem.add(ordenadas[atual]);
+            List<Integer> filhosAtual = filhos.get(atual);
+            ordenarPorDescricao(filhosAtual);
+            for (int i = filhosAtual.size() - 1; i >= 0; i--) {
+                pilha[topo++] = filhosAtual.get(i);
+            }
+        }
+        // Quem não foi alcançado a partir de uma raiz está num ciclo
+        if (emOrdem.size() < tamanho) {
+            throw new IllegalArgumentException("As categorias de despesa formam um ciclo");
+        }
+        for (int posicao = tamanho - 1; posicao >= 0; posicao--) {
+            int atual = indice(preOrdem[posicao]);
+            saidas[atual] = Math.max(saidas[atual], entradas[atual] + 1);
+            if (pais[atual] != SEM_INDICE) {
+                saidas[pais[atual]] = Math.max(saidas[pais[atual]], saidas[atual]);
+            }
+        }
+        this.emOrdem = Collections.unmodifiableList(emOrdem);
+    }
+
+    public static CatalogoCategorias vazio() {
+        return new CatalogoCategorias(0, Collections.emptyList());
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public int tamanho() {
+        return codigos.length;
+    }
+
+    public boolean contem(int codigo) {
+        return indice(codigo) != SEM_INDICE;
+    }
+
+    /**
+     * Devolve a categoria do código ou {@code null} se ela não existe.
+     */
+    public Categoria get(int codigo) {
+        int indice = indice(codigo);
+        return indice == SEM_INDICE ? null : categorias[indice];
+    }
+
+    public String descricao(int codigo) {
+        int indice = indice(codigo);
+        return indice == SEM_INDICE ? null : categorias[indice].getDescricao();
+    }
+
+    /**
+     * Descrições da raiz até a categoria, separadas por {@link #SEPARADOR_CAMINHO}.
+     */
+    public String caminho(int codigo) {
+        int indice = indice(codigo);
+        return indice == SEM_INDICE ? null : caminhos[indice];
+    }
+
+    public int profundidade(int codigo) {
+        int indice = indice(codigo);
+        return indice == SEM_INDICE ? SEM_INDICE : profundidades[indice];
+    }
+
+    /**
+     * Código da categoria de primeiro nível acima desta, ou ela mesma;
+     * {@link Categoria#SEM_PAI} se ela não existe.
+     */
+    public int raiz(int codigo) {
+        int indice = indice(codigo);
+        if (indice == SEM_INDICE) return Categoria.SEM_PAI;
+        while (pais[indice] != SEM_INDICE) {
+            indice = pais[indice];
+        }
+        return codigos[indice];
+    }
+
+    /**
+     * Se a categoria é o ancestral informado ou está abaixo dele.
+     */
+    public boolean ehDescendente(int codigo, int ancestral) {
+        int indice = indice(codigo);
+        int indiceAncestral = indice(ancestral);
+        if (indice == SEM_INDICE || indiceAncestral == SEM_INDICE) return false;
+        return entradas[indiceAncestral] <= entradas[indice] && entradas[indice] < saidas[indiceAncestral];
+    }
+
+    /**
+     * A categoria e todas as que estão abaixo dela, em pré-ordem; vazio se
+     * ela não existe.
+     */
+    public int[] descendentes(int codigo) {
+        int indice = indice(codigo);
+        if (indice == SEM_INDICE) return new int[0];
+        return Arrays.copyOfRange(preOrdem, entradas[indice], saidas[indice]);
+    }
+
+    /**
+     * Todas as categorias em pré-ordem, com os irmãos ordenados pela
+     * descrição, como numa árvore de tela.
+     */
+    public List<Categoria> getCategorias() {
+        return emOrdem;
+    }
+
+    private int indice(int codigo) {
+        int indice = Arrays.binarySearch(codigos, codigo);
+        return indice < 0 ? SEM_INDICE : indice;
+    }
+
+    private void ordenarPorDescricao(List<Integer> indices) {
+        indices.sort((a, b) -> POR_DESCRICAO.compare(categorias[a], categorias[b]));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.viii28stw.pensiltikcommon.categoria;
+
+import java.util.Objects;
+
+/**
+ * Categoria de despesa como vista pelo catálogo: código, código da categoria
+ * pai ({@link #SEM_PAI} nas categorias de primeiro nível) e descrição.
+ * As categorias padrão são as mesmas para todos os usuários.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class Categoria {
+
+    public static final int SEM_PAI = 0;
+
+    private final int codigo;
+    private final int codigoPai;
+    private final String descricao;
+    private final boolean padrao;
+
+    public Categoria(int codigo, int codigoPai, String descricao, boolean padrao) {
+        if (codigo <= 0) {
+            throw new IllegalArgumentException("Código de categoria inválido: " + codigo);
+        }
+        this.codigo = codigo;
+        this.codigoPai = codigoPai;
+        this.descricao = Objects.requireNonNull(descricao, "descricao");
+        this.padrao = padrao;
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public int getCodigoPai() {
+        return codigoPai;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public boolean isPadrao() {
+        return padrao;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Categoria)) return false;
+        Categoria categoria = (Categoria) o;
+        return codigo == categoria.codigo && codigoPai == categoria.codigoPai
+                && padrao == categoria.padrao && descricao.equals(categoria.descricao);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(codigo, codigoPai, descricao, padrao);
+    }
+
+    @Override
+    public String toString() {
+        return "Categoria(codigo=" + codigo + ", codigoPai=" + codigoPai
+                + ", descricao=" + descricao + ", padrao=" + padrao + ")";
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.viii28stw.pensiltikcommon.categoria;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Catálogos de categorias em memória, um por chave (o código do usuário).
+ *
+ * O backend confere a versão guardada com a do banco no máximo uma vez por
+ * intervalo ({@link #getSeConferido} e {@link #conferir}) e recarrega o
+ * catálogo quando ela mudou; o frontend guarda o último catálogo
+ * recebido e só o troca quando o servidor responde com outra versão. Uma
+ * carga que estava em andamento quando houve uma invalidação não é
+ * guardada, para que um catálogo lido antes da gravação não volte ao cache.
+ *
+ * O cache guarda no máximo {@code maximo} catálogos, descartando o usado há
+ * mais tempo, e cada catálogo expira depois do tempo dado, contado de quando
+ * foi guardado.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class CategoriaCache<K> {
+
+    public static final int MAXIMO_PADRAO = 10_000;
+    public static final long EXPIRACAO_PADRAO_MINUTOS = 10;
+
+    private final int maximo;
+    private final long expiracaoNanos;
+    private final LongSupplier relogio;
+    private final Map<K, Entrada> catalogos;
+    private long invalidacoes;
+
+    public CategoriaCache() {
+        this(MAXIMO_PADRAO, EXPIRACAO_PADRAO_MINUTOS, TimeUnit.MINUTES);
+    }
+
+    public CategoriaCache(int maximo, long expiracao, TimeUnit unidade) {
+        this(maximo, unidade.toNanos(expiracao), System::nanoTime);
+    }
+
+    CategoriaCache(int maximo, long expiracaoNanos, LongSupplier relogio) {
+        if (maximo <= 0) {
+                throw new IllegalArgumentException("O cache deve guardar pelo menos um catálogo");
+        }else if (expiracaoNanos <= 0) {
+                throw new IllegalArgumentException("A expiração deve ser maior que zero");
+        }
+        this.maximo = maximo;
+        this.expiracaoNanos = expiracaoNanos;
+        this.relogio = relogio;
+        // Em ordem de acesso: o primeiro é o usado há mais tempo
+        this.catalogos = new LinkedHashMap<K, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada> maisAntigo) {
+                return size() > CategoriaCache.this.maximo;
+            }
+        };
+    }
+
+    // A carga roda fora do bloqueio; só o acesso ao mapa é sincronizado
+    public CatalogoCategorias get(K chave, Function<? super K, CatalogoCategorias> carregar) {
+        long invalidacoesAntes;
+        synchronized (this) {
+            CatalogoCategorias catalogo = presente(chave);
+            if (catalogo != null) return catalogo;
+            invalidacoesAntes = invalidacoes;
+        }
+        CatalogoCategorias catalogo = carregar.apply(chave);
+        synchronized (this) {
+            if (invalidacoes != invalidacoesAntes) return catalogo;
+            CatalogoCategorias concorrente = presente(chave);
+            if (concorrente != null) return concorrente;
+            guardar(chave, catalogo);
+        }
+        return catalogo;
+    }
+
+    /**
+     * Devolve o catálogo guardado ou {@code null}, sem carregar.
+     */
+    public synchronized CatalogoCategorias getSePresente(K chave) {
+        return presente(chave);
+    }
+
+    /**
+     * Devolve o catálogo guardado se a versão dele foi conferida há menos de
+     * {@code intervaloNanos}; senão {@code null}, e quem chama confere a
+     * versão na origem com {@link #conferir}.
+     */
+    public synchronized CatalogoCategorias getSeConferido(K chave, long intervaloNanos) {
+        Entrada entrada = entrada(chave);
+        if (entrada == null || relogio.getAsLong() - entrada.conferidoEm >= intervaloNanos) return null;
+        return entrada.catalogo;
+    }
+
+    /**
+     * Devolve o catálogo guardado e marca a conferência quando ele tem a
+     * versão dada; senão {@code null}.
+     */
+    public synchronized CatalogoCategorias conferir(K chave, long versao) {
+        Entrada entrada = entrada(chave);
+        if (entrada == null || entrada.catalogo.getVersao() != versao) return null;
+        entrada.conferidoEm = relogio.getAsLong();
+        return entrada.catalogo;
+    }
+
+    /**
+     * Zero quando não há catálogo guardado para a chave.
+     */
+    public synchronized long versao(K chave) {
+        CatalogoCategorias catalogo = presente(chave);
+        return catalogo == null ? 0 : catalogo.getVersao();
+    }
+
+    /**
+     * Guarda o catálogo recebido se a versão for diferente da guardada.
+     * Devolve {@code true} quando houve troca.
+     */
+    public synchronized boolean atualizar(K chave, CatalogoCategorias catalogo) {
+        CatalogoCategorias anterior = presente(chave);
+        if (anterior != null && anterior.getVersao() == catalogo.getVersao()) return false;
+        guardar(chave, catalogo);
+        return true;
+    }
+
+    public synchronized void invalidar(K chave) {
+        invalidacoes++;
+        catalogos.remove(chave);
+    }
+
+    public synchronized void invalidarTudo() {
+        invalidacoes++;
+        catalogos.clear();
+    }
+
+    public synchronized int tamanho() {
+        return catalogos.size();
+    }
+
+    private CatalogoCategorias presente(K chave) {
+        Entrada entrada = entrada(chave);
+        return entrada == null ? null : entrada.catalogo;
+    }
+
+    private Entrada entrada(K chave) {
+        Entrada entrada = catalogos.get(chave);
+        if (entrada == null) return null;
+        if (relogio.getAsLong() - entrada.expiraEm >= 0) {
+            catalogos.remove(chave);
+            return null;
+        }
+        return entrada;
+    }
+
+    private void guardar(K chave, CatalogoCategorias catalogo) {
+        long agora = relogio.getAsLong();
+        catalogos.put(chave, new Entrada(catalogo, agora + expiracaoNanos, agora));
+    }
+
+    private static final class Entrada {
+        private final CatalogoCategorias catalogo;
+        private final long expiraEm;
+        private long conferidoEm;
+
+        private Entrada(CatalogoCategorias catalogo, long expiraEm, long conferidoEm) {
+            this.catalogo = catalogo;
+            this.expiraEm = expiraEm;
+            this.conferidoEm = conferidoEm;
+        }
+    }
+
+}
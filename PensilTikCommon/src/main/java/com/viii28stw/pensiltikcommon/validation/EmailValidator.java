@@ -0,0 +1,169 @@
+package com.viii28stw.pensiltikcommon.validation;
+
+import java.util.Locale;
+
+/**
+ * Valida endereços de e-mail com uma única varredura, sem expressão
+ * regular e sem alocar memória, em tempo linear no tamanho da entrada.
+ *
+ * O modo {@link Modo#ESTRITO} aceita exatamente o que a antiga expressão
+ * {@code ^[\w-]+(\.[\w-]+)*@([\w-]+\.)+[a-zA-Z]{2,7}$} aceitava, exceto uma
+ * quebra de linha no final. O modo {@link Modo#RFC} segue o dot-atom da
+ * RFC 5322 com os limites de tamanho da RFC 5321; partes locais entre aspas
+ * e domínios em IP literal não são aceitos.
+ *
+ * O modo padrão vem da propriedade de sistema {@code pensiltik.email.modo}.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class EmailValidator {
+
+    public enum Modo {
+        ESTRITO,
+        RFC
+    }
+
+    private static final int TAMANHO_MAXIMO = 254;
+    private static final int TAMANHO_MAXIMO_LOCAL = 64;
+    private static final int TAMANHO_MAXIMO_ROTULO = 63;
+    private static final int TAMANHO_MINIMO_TLD_ESTRITO = 2;
+    private static final int TAMANHO_MAXIMO_TLD_ESTRITO = 7;
+    private static final String ATEXT_ESPECIAIS = "!#$%&'*+/=?^_`{|}~-";
+
+    private static final EmailValidator ESTRITO = new EmailValidator(Modo.ESTRITO);
+    private static final EmailValidator RFC = new EmailValidator(Modo.RFC);
+    private static final EmailValidator PADRAO = of(Modo.valueOf(
+            System.getProperty("pensiltik.email.modo", Modo.ESTRITO.name()).trim().toUpperCase(Locale.ROOT)));
+
+    private final Modo modo;
+
+    private EmailValidator(Modo modo) {
+        this.modo = modo;
+    }
+
+    public static EmailValidator of(Modo modo) {
+        return modo == Modo.RFC ? RFC : ESTRITO;
+    }
+
+    public static EmailValidator padrao() {
+        return PADRAO;
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public boolean isValid(CharSequence email) {
+        if (email == null) return false;
+        return modo == Modo.RFC ? isValidRfc(email) : isValidEstrito(email);
+    }
+
+    private static boolean isValidEstrito(CharSequence email) {
+        int tamanho = email.length();
+        int i = 0;
+
+        // Parte local: palavras separadas por pontos
+        boolean palavraVazia = true;
+        for (; i < tamanho; i++) {
+            char c = email.charAt(i);
+            if (c == '@') break;
+            if (c == '.') {
+                if (palavraVazia) return false;
+                palavraVazia = true;
+            } else if (isPalavra(c)) {
+                palavraVazia = false;
+            } else {
+                return false;
+            }
+        }
+        if (i == tamanho || palavraVazia) return false;
+
+        // Domínio: rótulos terminados em ponto seguidos do TLD só com letras
+        int rotulos = 0;
+        int inicioRotulo = ++i;
+        boolean soLetras = true;
+        for (; i < tamanho; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (i == inicioRotulo) return false;
+                rotulos++;
+                inicioRotulo = i + 1;
+                soLetras = true;
+            } else if (isPalavra(c)) {
+                soLetras &= isLetra(c);
+            } else {
+                return false;
+            }
+        }
+        int tamanhoTld = tamanho - inicioRotulo;
+        return rotulos > 0 && soLetras
+                && tamanhoTld >= TAMANHO_MINIMO_TLD_ESTRITO && tamanhoTld <= TAMANHO_MAXIMO_TLD_ESTRITO;
+    }
+
+    private static boolean isValidRfc(CharSequence email) {
+        int tamanho = email.length();
+        if (tamanho > TAMANHO_MAXIMO) return false;
+        int i = 0;
+
+        // Parte local: dot-atom
+        boolean atomoVazio = true;
+        for (; i < tamanho; i++) {
+            char c = email.charAt(i);
+            if (c == '@') break;
+            if (c == '.') {
+                if (atomoVazio) return false;
+                atomoVazio = true;
+            } else if (isAtext(c)) {
+                atomoVazio = false;
+            } else {
+                return false;
+            }
+        }
+        if (i == tamanho || atomoVazio || i > TAMANHO_MAXIMO_LOCAL) return false;
+
+        // Domínio: rótulos de letras, dígitos e hífen, sem hífen nas pontas
+        int rotulos = 0;
+        int inicioRotulo = ++i;
+        boolean soDigitos = true;
+        for (; i <= tamanho; i++) {
+            char c = i == tamanho ? '.' : email.charAt(i);
+            if (c == '.') {
+                int tamanhoRotulo = i - inicioRotulo;
+                if (tamanhoRotulo == 0 || tamanhoRotulo > TAMANHO_MAXIMO_ROTULO
+                        || email.charAt(i - 1) == '-') {
+                    return false;
+                }
+                rotulos++;
+                if (i < tamanho) {
+                    inicioRotulo = i + 1;
+                    soDigitos = true;
+                }
+            } else if (isLetra(c) || isDigito(c)) {
+                soDigitos &= isDigito(c);
+            } else if (c == '-') {
+                if (i == inicioRotulo) return false;
+                soDigitos = false;
+            } else {
+                return false;
+            }
+        }
+        return rotulos > 1 && !soDigitos && tamanho - inicioRotulo >= 2;
+    }
+
+    private static boolean isLetra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isPalavra(char c) {
+        return isLetra(c) || isDigito(c) || c == '_' || c == '-';
+    }
+
+    private static boolean isAtext(char c) {
+        return isLetra(c) || isDigito(c) || ATEXT_ESPECIAIS.indexOf(c) >= 0;
+    }
+
+}
@@ -0,0 +1,401 @@
+package com.viii28stw.pensiltikcommon.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Política de senhas com regras de tamanho, classes de caracteres e uma
+ * lista de senhas proibidas.
+ *
+ * A avaliação percorre a senha uma única vez, sem alocar memória nem lançar
+ * exceções, e devolve as regras violadas como uma máscara de bits de
+ * {@link Regra}. A lista de senhas proibidas é compilada numa trie em
+ * vetores e comparada sem diferenciar maiúsculas de minúsculas, durante a
+ * mesma passada.
+ *
+ * Como no validador antigo, todo caractere que não é dígito conta como
+ * letra; maiúsculas, minúsculas e especiais (nem letra nem dígito) têm
+ * contagens próprias, para as regras que as exigem.
+ *
+ * Para campos de tela, {@link #novoAvaliador()} devolve um {@link Avaliador}
+ * que guarda o estado de cada posição e reavalia só a parte que mudou.
+ *
+ * {@link #fromProperties(Function)} monta a política das chaves
+ * {@code senha.politica.*}, as mesmas no backend e no frontend.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public final class PasswordPolicy {
+
+    public enum Regra {
+        TAMANHO_MINIMO,
+        TAMANHO_MAXIMO,
+        LETRAS,
+        DIGITOS,
+        MAIUSCULAS,
+        MINUSCULAS,
+        ESPECIAIS,
+        BLOQUEADA;
+
+        public int bit() {
+            return 1 << ordinal();
+        }
+
+        public boolean violada(int violacoes) {
+            return (violacoes & bit()) != 0;
+        }
+    }
+
+    public static final String PREFIXO_PROPRIEDADES = "senha.politica.";
+
+    private static final int SEM_NO = -1;
+    private static final int RAIZ = 0;
+
+    private static final PasswordPolicy PADRAO = builder()
+            .tamanhoMinimo(8)
+            .tamanhoMaximo(10)
+            .minimoLetras(2)
+            .minimoDigitos(2)
+            .build();
+
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final int minimoLetras;
+    private final int minimoDigitos;
+    private final int minimoMaiusculas;
+    private final int minimoMinusculas;
+    private final int minimoEspeciais;
+
+    // Trie da lista de bloqueio: filhos de cada nó em ordem de caractere
+    private final char[][] caracteres;
+    private final int[][] filhos;
+    private final boolean[] terminal;
+
+    private PasswordPolicy(Builder builder) {
+        this.tamanhoMinimo = builder.tamanhoMinimo;
+        this.tamanhoMaximo = builder.tamanhoMaximo;
+        this.minimoLetras = builder.minimoLetras;
+        this.minimoDigitos = builder.minimoDigitos;
+        this.minimoMaiusculas = builder.minimoMaiusculas;
+        this.minimoMinusculas = builder.minimoMinusculas;
+        this.minimoEspeciais = builder.minimoEspeciais;
+
+        TrieBuilder trie = new TrieBuilder();
+        for (String bloqueada : builder.bloqueadas) {
+            trie.adicionar(bloqueada);
+        }
+        this.caracteres = trie.caracteres();
+        this.filhos = trie.filhos();
+        this.terminal = trie.terminal();
+    }
+
+    public static PasswordPolicy padrao() {
+        return PADRAO;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Monta a política das propriedades {@code senha.politica.*}; a função
+     * devolve {@code null} para uma chave ausente, que fica com o valor da
+     * política padrão. {@code bloqueadas} é uma lista separada por vírgulas.
+     */
+    public static PasswordPolicy fromProperties(Function<String, String> propriedades) {
+        String bloqueadas = propriedades.apply(PREFIXO_PROPRIEDADES + "bloqueadas");
+        return builder()
+                .tamanhoMinimo(inteiro(propriedades, "tamanho-minimo", PADRAO.tamanhoMinimo))
+                .tamanhoMaximo(inteiro(propriedades, "tamanho-maximo", PADRAO.tamanhoMaximo))
+                .minimoLetras(inteiro(propriedades, "minimo-letras", PADRAO.minimoLetras))
+                .minimoDigitos(inteiro(propriedades, "minimo-digitos", PADRAO.minimoDigitos))
+                .minimoMaiusculas(inteiro(propriedades, "minimo-maiusculas", PADRAO.minimoMaiusculas))
+                .minimoMinusculas(inteiro(propriedades, "minimo-minusculas", PADRAO.minimoMinusculas))
+                .minimoEspeciais(inteiro(propriedades, "minimo-especiais", PADRAO.minimoEspeciais))
+                .bloquear(bloqueadas == null ? new String[0] : bloqueadas.split(","))
+                .build();
+    }
+
+    private static int inteiro(Function<String, String> propriedades, String chave, int padrao) {
+        String valor = propriedades.apply(PREFIXO_PROPRIEDADES + chave);
+        if (valor == null || valor.trim().isEmpty()) return padrao;
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("A propriedade " + PREFIXO_PROPRIEDADES + chave + " deve ser um número");
+        }
+    }
+
+    public boolean isValid(CharSequence senha) {
+        return avaliar(senha) == 0;
+    }
+
+    /**
+     * Devolve a máscara de bits das regras violadas; zero quando a senha é
+     * aceita.
+     */
+    public int avaliar(CharSequence senha) {
+        if (senha == null) return Regra.TAMANHO_MINIMO.bit();
+        int letras = 0;
+        int digitos = 0;
+        int maiusculas = 0;
+        int minusculas = 0;
+        int especiais = 0;
+        int no = RAIZ;
+        for (int i = 0; i < senha.length(); i++) {
+            char c = senha.charAt(i);
+            if (Character.isDigit(c)) {
+                digitos++;
+            } else {
+                letras++;
+                if (Character.isUpperCase(c)) maiusculas++;
+                else if (Character.isLowerCase(c)) minusculas++;
+                else if (!Character.isLetter(c)) especiais++;
+            }
+            no = proximo(no, c);
+        }
+        return violacoes(senha.length(), letras, digitos, maiusculas, minusculas, especiais, no);
+    }
+
+    public Avaliador novoAvaliador() {
+        return new Avaliador();
+    }
+
+    private int violacoes(int tamanho, int letras, int digitos, int maiusculas, int minusculas, int especiais, int no) {
+        int violacoes = 0;
+        if (tamanho < tamanhoMinimo) violacoes |= Regra.TAMANHO_MINIMO.bit();
+        if (tamanho > tamanhoMaximo) violacoes |= Regra.TAMANHO_MAXIMO.bit();
+        if (letras < minimoLetras) violacoes |= Regra.LETRAS.bit();
+        if (digitos < minimoDigitos) violacoes |= Regra.DIGITOS.bit();
+        if (maiusculas < minimoMaiusculas) violacoes |= Regra.MAIUSCULAS.bit();
+        if (minusculas < minimoMinusculas) violacoes |= Regra.MINUSCULAS.bit();
+        if (especiais < minimoEspeciais) violacoes |= Regra.ESPECIAIS.bit();
+        if (no != SEM_NO && terminal[no]) violacoes |= Regra.BLOQUEADA.bit();
+        return violacoes;
+    }
+
+    private int proximo(int no, char c) {
+        if (no == SEM_NO) return SEM_NO;
+        char[] rotulos = caracteres[no];
+        int indice = Arrays.binarySearch(rotulos, Character.toLowerCase(c));
+        return indice < 0 ? SEM_NO : filhos[no][indice];
+    }
+
+    /**
+     * Reavalia a senha de um campo a cada alteração. Guarda as contagens
+     * depois de cada caractere e recomeça a partir do primeiro caractere que
+     * mudou, então digitar no fim custa O(1) além da comparação do prefixo.
+     * Não é thread-safe.
+     */
+    public final class Avaliador {
+        private char[] texto = new char[16];
+        private int[] letras = new int[17];
+        private int[] digitos = new int[17];
+        private int[] maiusculas = new int[17];
+        private int[] minusculas = new int[17];
+        private int[] especiais = new int[17];
+        private int[] nos = new int[17];
+        private int tamanho;
+        private int violacoes;
+
+        private Avaliador() {
+            nos[0] = RAIZ;
+            avaliar("");
+        }
+
+        public int avaliar(CharSequence senha) {
+            int novoTamanho = senha == null ? 0 : senha.length();
+            garantirCapacidade(novoTamanho);
+            int comum = 0;
+            int limite = Math.min(tamanho, novoTamanho);
+            while (comum < limite && texto[comum] == senha.charAt(comum)) {
+                comum++;
+            }
+            for (int i = comum; i < novoTamanho; i++) {
+                char c = senha.charAt(i);
+                texto[i] = c;
+                letras[i + 1] = letras[i];
+                digitos[i + 1] = digitos[i];
+                maiusculas[i + 1] = maiusculas[i];
+                minusculas[i + 1] = minusculas[i];
+                especiais[i + 1] = especiais[i];
+                if (Character.isDigit(c)) {
+                    digitos[i + 1]++;
+                } else {
+                    letras[i + 1]++;
+                    if (Character.isUpperCase(c)) maiusculas[i + 1]++;
+                    else if (Character.isLowerCase(c)) minusculas[i + 1]++;
+                    else if (!Character.isLetter(c)) especiais[i + 1]++;
+                }
+                nos[i + 1] = proximo(nos[i], c);
+            }
+            tamanho = novoTamanho;
+            violacoes = violacoes(tamanho, letras[tamanho], digitos[tamanho], maiusculas[tamanho],
+                    minusculas[tamanho], especiais[tamanho], nos[tamanho]);
+            return violacoes;
+        }
+
+        public int getViolacoes() {
+            return violacoes;
+        }
+
+        public boolean isValido() {
+            return violacoes == 0;
+        }
+
+        private void garantirCapacidade(int capacidade) {
+            if (capacidade < texto.length) return;
+            int novaCapacidade = Math.max(capacidade + 1, texto.length * 2);
+            texto = Arrays.copyOf(texto, novaCapacidade);
+            letras = Arrays.copyOf(letras, novaCapacidade + 1);
+            digitos = Arrays.copyOf(digitos, novaCapacidade + 1);
+            maiusculas = Arrays.copyOf(maiusculas, novaCapacidade + 1);
+            minusculas = Arrays.copyOf(minusculas, novaCapacidade + 1);
+            especiais = Arrays.copyOf(especiais, novaCapacidade + 1);
+            nos = Arrays.copyOf(nos, novaCapacidade + 1);
+        }
+    }
+
+    public static final class Builder {
+        private int tamanhoMinimo;
+        private int tamanhoMaximo = Integer.MAX_VALUE;
+        private int minimoLetras;
+        private int minimoDigitos;
+        private int minimoMaiusculas;
+        private int minimoMinusculas;
+        private int minimoEspeciais;
+        private final List<String> bloqueadas = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder tamanhoMinimo(int tamanhoMinimo) {
+            this.tamanhoMinimo = tamanhoMinimo;
+            return this;
+        }
+
+        public Builder tamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+            return this;
+        }
+
+        public Builder minimoLetras(int minimoLetras) {
+            this.minimoLetras = minimoLetras;
+            return this;
+        }
+
+        public Builder minimoDigitos(int minimoDigitos) {
+            this.minimoDigitos = minimoDigitos;
+            return this;
+        }
+
+        public Builder minimoMaiusculas(int minimoMaiusculas) {
+            this.minimoMaiusculas = minimoMaiusculas;
+            return this;
+        }
+
+        public Builder minimoMinusculas(int minimoMinusculas) {
+            this.minimoMinusculas = minimoMinusculas;
+            return this;
+        }
+
+        public Builder minimoEspeciais(int minimoEspeciais) {
+            this.minimoEspeciais = minimoEspeciais;
+            return this;
+        }
+
+        /**
+         * Bloqueia as senhas informadas. Os espaços nas pontas são removidos
+         * e as entradas vazias ignoradas, como sobram de uma lista separada
+         * por vírgulas em um arquivo de propriedades.
+         */
+        public Builder bloquear(Collection<String> senhas) {
+            for (String senha : senhas) {
+                if (senha == null || senha.trim().isEmpty()) continue;
+                bloqueadas.add(senha.trim());
+            }
+            return this;
+        }
+
+        public Builder bloquear(String... senhas) {
+            return bloquear(Arrays.asList(senhas));
+        }
+
+        public PasswordPolicy build() {
+            if (tamanhoMinimo > tamanhoMaximo) {
+                throw new IllegalArgumentException("O tamanho mínimo não pode ser maior que o máximo");
+            }
+            return new PasswordPolicy(this);
+        }
+    }
+
+    private static final class TrieBuilder {
+        private final List<StringBuilder> rotulos = new ArrayList<>();
+        private final List<List<Integer>> filhos = new ArrayList<>();
+        private final List<Boolean> terminal = new ArrayList<>();
+
+        private TrieBuilder() {
+            novoNo();
+        }
+
+        private int novoNo() {
+            rotulos.add(new StringBuilder());
+            filhos.add(new ArrayList<>());
+            terminal.add(false);
+            return terminal.size() - 1;
+        }
+
+        private void adicionar(String senha) {
+            int no = RAIZ;
+            for (int i = 0; i < senha.length(); i++) {
+                char c = Character.toLowerCase(senha.charAt(i));
+                int indice = rotulos.get(no).indexOf(String.valueOf(c));
+                if (indice < 0) {
+                    int filho = novoNo();
+                    rotulos.get(no).append(c);
+                    filhos.get(no).add(filho);
+                    no = filho;
+                } else {
+                    no = filhos.get(no).get(indice);
+                }
+            }
+            terminal.set(no, true);
+        }
+
+        // Ordena os filhos de cada nó para a busca binária
+        private char[][] caracteres() {
+            char[][] caracteres = new char[rotulos.size()][];
+            for (int no = 0; no < caracteres.length; no++) {
+                caracteres[no] = rotulos.get(no).toString().toCharArray();
+                Arrays.sort(caracteres[no]);
+            }
+            return caracteres;
+        }
+
+        private int[][] filhos() {
+            int[][] ordenados = new int[filhos.size()][];
+            for (int no = 0; no < ordenados.length; no++) {
+                String rotulo = rotulos.get(no).toString();
+                char[] ordem = rotulo.toCharArray();
+                Arrays.sort(ordem);
+                ordenados[no] = new int[ordem.length];
+                for (int i = 0; i < ordem.length; i++) {
+                    ordenados[no][i] = filhos.get(no).get(rotulo.indexOf(ordem[i]));
+                }
+            }
+            return ordenados;
+        }
+
+        private boolean[] terminal() {
+            boolean[] resultado = new boolean[terminal.size()];
+            for (int no = 0; no < resultado.length; no++) {
+                resultado[no] = terminal.get(no);
+            }
+            return resultado;
+        }
+    }
+
+}
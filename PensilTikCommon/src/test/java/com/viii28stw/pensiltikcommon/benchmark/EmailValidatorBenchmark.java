@@ -0,0 +1,93 @@
+package com.viii28stw.pensiltikcommon.benchmark;
+
+import com.viii28stw.pensiltikcommon.validation.EmailValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara a expressão regular antiga (compilada a cada chamada, como era, e
+ * pré-compilada) com a varredura do {@link EmailValidator} em entradas
+ * válidas, inválidas e patológicas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailValidatorBenchmark {
+
+    private static final String EXPRESSAO = "^[\\w-]+(\\.[\\w-]+)*@([\\w-]+\\.)+[a-zA-Z]{2,7}$";
+    private static final Pattern PRECOMPILADO = Pattern.compile(EXPRESSAO);
+
+    @Param({"valido", "invalido", "patologico"})
+    private String caso;
+
+    private String email;
+
+    @Setup
+    public void setup() {
+        switch (caso) {
+            case "valido":
+                email = "plamedi.lusembo@viii28stw.com";
+                break;
+            case "invalido":
+                email = "plamedi.lusembo@viii28stw";
+                break;
+            default:
+                char[] rotulos = new char[4096];
+                for (int i = 0; i < rotulos.length; i += 2) {
+                    rotulos[i] = 'a';
+                    rotulos[i + 1] = '.';
+                }
+                char[] local = new char[4096];
+                Arrays.fill(local, 'a');
+                email = new String(local) + "@" + new String(rotulos) + "aaaaaaaa1";
+        }
+    }
+
+    @Benchmark
+    public boolean regexCompiladaPorChamada() {
+        return Pattern.compile(EXPRESSAO).matcher(email).find();
+    }
+
+    @Benchmark
+    public boolean regexPrecompilada() {
+        return PRECOMPILADO.matcher(email).find();
+    }
+
+    @Benchmark
+    public boolean varreduraEstrita() {
+        return EmailValidator.of(EmailValidator.Modo.ESTRITO).isValid(email);
+    }
+
+    @Benchmark
+    public boolean varreduraRfc() {
+        return EmailValidator.of(EmailValidator.Modo.RFC).isValid(email);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
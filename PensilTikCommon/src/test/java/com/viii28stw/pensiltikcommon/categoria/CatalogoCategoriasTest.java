@@ -0,0 +1,81 @@
+package com.viii28stw.pensiltikcommon.categoria;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CatalogoCategoriasTest {
+
+    private static final int HABITACAO = 1;
+    private static final int LAZER = 7;
+    private static final int ALUGUEL = 9;
+    private static final int CONDOMINIO = 10;
+    private static final int AGUA = 11;
+
+    private final CatalogoCategorias catalogo = new CatalogoCategorias(3, Arrays.asList(
+            new Categoria(AGUA, CONDOMINIO, "Água", false),
+            new Categoria(LAZER, Categoria.SEM_PAI, "Lazer", true),
+            new Categoria(CONDOMINIO, HABITACAO, "Condomínio", false),
+            new Categoria(HABITACAO, Categoria.SEM_PAI, "Habitação", true),
+            new Categoria(ALUGUEL, HABITACAO, "Aluguel", false)));
+
+    @Test
+    public void deveResolverCategoriasPeloCodigo() {
+        assertEquals(3, catalogo.getVersao());
+        assertEquals(5, catalogo.tamanho());
+        assertEquals("Condomínio", catalogo.descricao(CONDOMINIO));
+        assertEquals("Habitação / Condomínio / Água", catalogo.caminho(AGUA));
+        assertEquals(2, catalogo.profundidade(AGUA));
+        assertEquals(HABITACAO, catalogo.raiz(AGUA));
+        assertTrue(catalogo.get(LAZER).isPadrao());
+        assertFalse(catalogo.contem(8));
+        assertNull(catalogo.descricao(8));
+        assertEquals(Categoria.SEM_PAI, catalogo.raiz(8));
+    }
+
+    @Test
+    public void descendentesDevemIncluirACategoriaETodaASubarvore() {
+        assertArrayEquals(new int[]{HABITACAO, ALUGUEL, CONDOMINIO, AGUA}, catalogo.descendentes(HABITACAO));
+        assertArrayEquals(new int[]{CONDOMINIO, AGUA}, catalogo.descendentes(CONDOMINIO));
+        assertArrayEquals(new int[]{LAZER}, catalogo.descendentes(LAZER));
+        assertEquals(0, catalogo.descendentes(8).length);
+
+        assertTrue(catalogo.ehDescendente(AGUA, HABITACAO));
+        assertTrue(catalogo.ehDescendente(HABITACAO, HABITACAO));
+        assertFalse(catalogo.ehDescendente(HABITACAO, AGUA));
+        assertFalse(catalogo.ehDescendente(ALUGUEL, CONDOMINIO));
+        assertFalse(catalogo.ehDescendente(LAZER, HABITACAO));
+    }
+
+    @Test
+    public void categoriasDevemSairEmPreOrdemPelaDescricao() {
+        List<Integer> codigos = new ArrayList<>();
+        catalogo.getCategorias().forEach(categoria -> codigos.add(categoria.getCodigo()));
+        assertEquals(Arrays.asList(HABITACAO, ALUGUEL, CONDOMINIO, AGUA, LAZER), codigos);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void paiInexistenteDeveSerRejeitado() {
+        new CatalogoCategorias(1, Arrays.asList(new Categoria(ALUGUEL, HABITACAO, "Aluguel", false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cicloDeveSerRejeitado() {
+        new CatalogoCategorias(1, Arrays.asList(
+                new Categoria(HABITACAO, Categoria.SEM_PAI, "Habitação", true),
+                new Categoria(ALUGUEL, CONDOMINIO, "Aluguel", false),
+                new Categoria(CONDOMINIO, ALUGUEL, "Condomínio", false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codigoRepetidoDeveSerRejeitado() {
+        new CatalogoCategorias(1, Arrays.asList(
+                new Categoria(HABITACAO, Categoria.SEM_PAI, "Habitação", true),
+                new Categoria(HABITACAO, Categoria.SEM_PAI, "Moradia", false)));
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.viii28stw.pensiltikcommon.categoria;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class CategoriaCacheTest {
+
+    private final CategoriaCache<String> cache = new CategoriaCache<>();
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    private CatalogoCategorias carregar(String usuario) {
+        return new CatalogoCategorias(cargas.incrementAndGet(), Collections.singletonList(
+                new Categoria(1, Categoria.SEM_PAI, "Habitação", true)));
+    }
+
+    @Test
+    public void deveCarregarUmaVezAteSerInvalidado() {
+        CatalogoCategorias primeiro = cache.get("u1", this::carregar);
+        assertSame(primeiro, cache.get("u1", this::carregar));
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.versao("u1"));
+
+        cache.invalidar("u1");
+        assertNull(cache.getSePresente("u1"));
+        assertEquals(0, cache.versao("u1"));
+        assertEquals(2, cache.get("u1", this::carregar).getVersao());
+    }
+
+    @Test
+    public void cargaConcorrenteComUmaInvalidacaoNaoDeveSerGuardada() {
+        CatalogoCategorias lido = cache.get("u1", usuario -> {
+            CatalogoCategorias antigo = carregar(usuario);
+            cache.invalidar(usuario);
+            return antigo;
+        });
+
+        assertEquals(1, lido.getVersao());
+        assertNull(cache.getSePresente("u1"));
+    }
+
+    @Test
+    public void atualizarDeveTrocarSomenteQuandoAVersaoMuda() {
+        CatalogoCategorias versao5 = new CatalogoCategorias(5, Collections.emptyList());
+        assertTrue(cache.atualizar("u1", versao5));
+        assertFalse(cache.atualizar("u1", new CatalogoCategorias(5, Collections.emptyList())));
+        assertSame(versao5, cache.getSePresente("u1"));
+
+        assertTrue(cache.atualizar("u1", new CatalogoCategorias(4, Collections.emptyList())));
+        assertEquals(4, cache.versao("u1"));
+    }
+
+    @Test
+    public void deveDescartarOUsadoHaMaisTempoEOsExpirados() {
+        AtomicLong agora = new AtomicLong();
+        CategoriaCache<String> limitado = new CategoriaCache<>(2, 100, agora::get);
+        limitado.get("u1", this::carregar);
+        limitado.get("u2", this::carregar);
+        limitado.get("u1", this::carregar);
+        limitado.get("u3", this::carregar);
+
+        assertEquals(2, limitado.tamanho());
+        assertNull(limitado.getSePresente("u2"));
+        assertNotNull(limitado.getSePresente("u1"));
+
+        agora.addAndGet(100);
+        assertNull(limitado.getSePresente("u1"));
+        assertEquals(0, limitado.versao("u3"));
+        assertEquals(4, limitado.get("u1", this::carregar).getVersao());
+    }
+
+    @Test
+    public void versaoDeveSerConferidaUmaVezPorIntervalo() {
+        AtomicLong agora = new AtomicLong();
+        CategoriaCache<String> conferido = new CategoriaCache<>(10, 1_000, agora::get);
+        CatalogoCategorias versao5 = new CatalogoCategorias(5, Collections.emptyList());
+        conferido.atualizar("u1", versao5);
+        assertSame(versao5, conferido.getSeConferido("u1", 10));
+
+        agora.addAndGet(10);
+        assertNull(conferido.getSeConferido("u1", 10));
+        assertNull(conferido.conferir("u1", 6));
+        assertNull(conferido.getSeConferido("u1", 10));
+        assertSame(versao5, conferido.conferir("u1", 5));
+        assertSame(versao5, conferido.getSeConferido("u1", 10));
+
+        // A expiração vale mesmo para um catálogo conferido há pouco
+        agora.addAndGet(985);
+        assertSame(versao5, conferido.conferir("u1", 5));
+        agora.addAndGet(5);
+        assertNull(conferido.getSeConferido("u1", 10));
+        assertNull(conferido.conferir("u1", 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cacheSemCapacidadeDeveSerRecusado() {
+        new CategoriaCache<String>(0, 1, TimeUnit.MINUTES);
+    }
+
+}
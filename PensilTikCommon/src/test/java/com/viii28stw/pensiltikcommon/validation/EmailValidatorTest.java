@@ -0,0 +1,76 @@
+package com.viii28stw.pensiltikcommon.validation;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class EmailValidatorTest {
+
+    private static final Pattern LEGADO = Pattern.compile("^[\\w-]+(\\.[\\w-]+)*@([\\w-]+\\.)+[a-zA-Z]{2,7}$");
+    private static final String ALFABETO = "aZ09_-.@+!é ";
+
+    private final EmailValidator estrito = EmailValidator.of(EmailValidator.Modo.ESTRITO);
+    private final EmailValidator rfc = EmailValidator.of(EmailValidator.Modo.RFC);
+
+    @Test
+    public void estritoDeveAceitarOMesmoQueAExpressaoAntiga() {
+        Random random = new Random(28);
+        for (int i = 0; i < 200_000; i++) {
+            char[] email = new char[1 + random.nextInt(16)];
+            for (int j = 0; j < email.length; j++) {
+                email[j] = ALFABETO.charAt(random.nextInt(ALFABETO.length()));
+            }
+            String candidato = new String(email);
+            assertEquals(candidato, LEGADO.matcher(candidato).find(), estrito.isValid(candidato));
+        }
+    }
+
+    @Test
+    public void estritoDeveValidarCasosConhecidos() {
+        assertTrue(estrito.isValid("plamedi.lusembo@viii28stw.com"));
+        assertTrue(estrito.isValid("a_b-c@sub.dominio.info"));
+        assertFalse(estrito.isValid(null));
+        assertFalse(estrito.isValid("@dominio.com"));
+        assertFalse(estrito.isValid("usuario@dominio"));
+        assertFalse(estrito.isValid("usuario@dominio.c"));
+        assertFalse(estrito.isValid("usuario@dominio.abcdefgh"));
+        assertFalse(estrito.isValid("usuario@dominio.com1"));
+        assertFalse(estrito.isValid(".usuario@dominio.com"));
+        assertFalse(estrito.isValid("usuario@dominio.com\n"));
+        assertFalse(estrito.isValid("usu+ario@dominio.com"));
+    }
+
+    @Test
+    public void rfcDeveValidarCasosConhecidos() {
+        assertTrue(rfc.isValid("usu+ario@dominio.com"));
+        assertTrue(rfc.isValid("o'neil@xn--dominio-9za.museum"));
+        assertTrue(rfc.isValid("a@b-c.d1.technology"));
+        assertFalse(rfc.isValid("usuario@-dominio.com"));
+        assertFalse(rfc.isValid("usuario@dominio-.com"));
+        assertFalse(rfc.isValid("usuario@dominio.123"));
+        assertFalse(rfc.isValid("usuario@localhost"));
+        assertFalse(rfc.isValid("usu..ario@dominio.com"));
+        assertFalse(rfc.isValid("usu ario@dominio.com"));
+        assertFalse(rfc.isValid(repetir('a', 65) + "@dominio.com"));
+        assertFalse(rfc.isValid("a@" + repetir('b', 64) + ".com"));
+    }
+
+    @Test
+    public void entradaPatologicaDeveSerRecusadaRapidamente() {
+        String longa = repetir('a', 1_000_000) + "!";
+        long inicio = System.nanoTime();
+        assertFalse(estrito.isValid(longa));
+        assertFalse(rfc.isValid(longa));
+        assertTrue(System.nanoTime() - inicio < 1_000_000_000L);
+    }
+
+    private static String repetir(char c, int vezes) {
+        char[] chars = new char[vezes];
+        java.util.Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.viii28stw.pensiltikcommon.validation;
+
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy.Regra;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PasswordPolicyTest {
+
+    private final PasswordPolicy politica = PasswordPolicy.builder()
+            .tamanhoMinimo(8)
+            .tamanhoMaximo(16)
+            .minimoLetras(2)
+            .minimoDigitos(2)
+            .minimoMaiusculas(1)
+            .minimoEspeciais(1)
+            .bloquear("Senha123!", "Password12!")
+            .build();
+
+    @Test
+    public void padraoDeveExigirDeOitoADezCaracteresComDuasLetrasEDoisDigitos() {
+        PasswordPolicy padrao = PasswordPolicy.padrao();
+        assertTrue(padrao.isValid("ab12cdef"));
+        assertTrue(padrao.isValid("12345678ab"));
+        assertFalse(padrao.isValid(null));
+        assertFalse(padrao.isValid("ab12cde"));
+        assertFalse(padrao.isValid("ab12cdefghi"));
+        assertFalse(padrao.isValid("abcdefgh1"));
+        assertFalse(padrao.isValid("1234567a9"));
+    }
+
+    @Test
+    public void todoCaractereQueNaoEDigitoDeveContarComoLetra() {
+        PasswordPolicy padrao = PasswordPolicy.padrao();
+        assertTrue(padrao.isValid("$$12$$$$"));
+        assertTrue(padrao.isValid("1234567a!"));
+
+        int violacoes = politica.avaliar("$$12$$$$");
+        assertFalse(Regra.LETRAS.violada(violacoes));
+        assertFalse(Regra.ESPECIAIS.violada(violacoes));
+        assertTrue(Regra.MAIUSCULAS.violada(violacoes));
+    }
+
+    @Test
+    public void propriedadesDevemMontarAPoliticaComOsPadroesNasAusentes() {
+        Map<String, String> propriedades = new HashMap<>();
+        propriedades.put("senha.politica.tamanho-maximo", "12");
+        propriedades.put("senha.politica.minimo-especiais", " 1 ");
+        propriedades.put("senha.politica.bloqueadas", "abc12345!, ,Senha12!");
+        PasswordPolicy configurada = PasswordPolicy.fromProperties(propriedades::get);
+
+        assertTrue(configurada.isValid("ab12cdef!xyz"));
+        assertFalse(configurada.isValid("ab12cdefxyz"));
+        assertFalse(configurada.isValid("ab12!"));
+        assertTrue(Regra.BLOQUEADA.violada(configurada.avaliar("ABC12345!")));
+        assertTrue(Regra.BLOQUEADA.violada(configurada.avaliar("senha12!")));
+        assertEquals(PasswordPolicy.padrao().avaliar("ab12cde"),
+                PasswordPolicy.fromProperties(chave -> null).avaliar("ab12cde"));
+    }
+
+    @Test
+    public void avaliarDeveApontarCadaRegraViolada() {
+        int violacoes = politica.avaliar("abc");
+
+        assertTrue(Regra.TAMANHO_MINIMO.violada(violacoes));
+        assertTrue(Regra.DIGITOS.violada(violacoes));
+        assertTrue(Regra.MAIUSCULAS.violada(violacoes));
+        assertTrue(Regra.ESPECIAIS.violada(violacoes));
+        assertFalse(Regra.LETRAS.violada(violacoes));
+        assertFalse(Regra.TAMANHO_MAXIMO.violada(violacoes));
+        assertEquals(0, politica.avaliar("Xy12!abc"));
+    }
+
+    @Test
+    public void senhaBloqueadaDeveSerRecusadaSemDiferenciarMaiusculas() {
+        assertTrue(Regra.BLOQUEADA.violada(politica.avaliar("senha123!")));
+        assertEquals(Regra.BLOQUEADA.bit(), politica.avaliar("SENHA123!"));
+        assertEquals(Regra.BLOQUEADA.bit(), politica.avaliar("Password12!"));
+        assertEquals(0, politica.avaliar("Senha123!x"));
+        assertEquals(0, politica.avaliar("Senh4123!"));
+    }
+
+    @Test
+    public void senhasBloqueadasDevemSerAparadasEVaziasIgnoradas() {
+        PasswordPolicy lista = PasswordPolicy.builder()
+                .bloquear(" qwerty12", "abc12345 ", "", "  ")
+                .build();
+
+        assertEquals(Regra.BLOQUEADA.bit(), lista.avaliar("qwerty12"));
+        assertEquals(Regra.BLOQUEADA.bit(), lista.avaliar("ABC12345"));
+        assertEquals(0, lista.avaliar(" qwerty12"));
+        assertEquals(0, lista.avaliar(""));
+    }
+
+    @Test
+    public void avaliadorIncrementalDeveConcordarComAAvaliacaoCompleta() {
+        PasswordPolicy.Avaliador avaliador = politica.novoAvaliador();
+        Random random = new Random(28);
+        StringBuilder senha = new StringBuilder();
+        String alfabeto = "aB1!Sen ha23Pssword";
+        for (int i = 0; i < 20_000; i++) {
+            if (senha.length() > 0 && random.nextInt(3) == 0) {
+                senha.deleteCharAt(random.nextInt(senha.length()));
+            } else if (senha.length() < 40) {
+                senha.insert(random.nextInt(senha.length() + 1), alfabeto.charAt(random.nextInt(alfabeto.length())));
+            }
+            assertEquals(senha.toString(), politica.avaliar(senha), avaliador.avaliar(senha));
+        }
+    }
+
+}
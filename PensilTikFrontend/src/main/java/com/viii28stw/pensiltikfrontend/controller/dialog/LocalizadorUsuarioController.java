@@ -1,11 +1,16 @@
 package com.viii28stw.pensiltikfrontend.controller.dialog;
 
 import com.jfoenix.controls.JFXTextField;
+import com.viii28stw.pensiltikfrontend.MainApp;
 import com.viii28stw.pensiltikfrontend.model.domain.Usuario;
 import com.viii28stw.pensiltikfrontend.model.dto.UsuarioDto;
-import com.viii28stw.pensiltikfrontend.service.UsuarioService;
+import com.viii28stw.pensiltikfrontend.service.IUsuarioService;
+import com.viii28stw.pensiltikfrontend.util.dialogbox.DialogBoxFactory;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
@@ -14,16 +19,27 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.io.IOException;
 import java.net.URL;
+import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @NoArgsConstructor
 public class LocalizadorUsuarioController implements Initializable {
 
+    private static final Duration ESPERA_DIGITACAO = Duration.millis(250);
+    private static final int LIMITE_PESQUISA = 50;
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
     @Setter
     private Stage localizadorUsuarioStage;
     private Stage configuracaoIdiomaStage;
@@ -36,7 +52,11 @@ public class LocalizadorUsuarioController implements Initializable {
     @FXML private Label lblQtd;
     private final ObservableList<Usuario> obsUsuario = FXCollections.observableArrayList();
     private static LocalizadorUsuarioController uniqueInstance;
-    private UsuarioService usuarioService = null;
+    private IUsuarioService usuarioService = null;
+    private final PauseTransition espera = new PauseTransition(ESPERA_DIGITACAO);
+    private final PesquisaUsuarioService pesquisa = new PesquisaUsuarioService();
+    private String ultimoPrefixo;
+    private List<UsuarioDto> ultimoResultado = new ArrayList<>();
 
     public static synchronized LocalizadorUsuarioController getInstance() {
         if (uniqueInstance == null) {
@@ -48,10 +68,28 @@ public class LocalizadorUsuarioController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setColumnStyleProperty();
+        usuarioService = MainApp.getApplicationContext().getBean(IUsuarioService.class);
+        tvwUsuario.setItems(obsUsuario);
 
-        //Coloca lista de usuários no ObservableList
-        //obsUsuario.addAll(UsuarioService.getInstance().listaUsuario());
-        //tvwUsuario.setItems(obsUsuario);
+        espera.setOnFinished(event -> pesquisar(jtxNomeFiltro.getText().trim()));
+        pesquisa.setOnSucceeded(event -> {
+            ultimoPrefixo = pesquisa.getPrefixo();
+            ultimoResultado = pesquisa.getValue();
+            mostrar(ultimoResultado);
+        });
+        pesquisa.setOnFailed(event -> {
+            ultimoPrefixo = null;
+            ultimoResultado = new ArrayList<>();
+            mostrar(ultimoResultado);
+            Throwable erro = pesquisa.getException();
+            String mensagem = erro == null || erro.getMessage() == null ? "" : erro.getMessage();
+            lblQtd.setText("Falha ao pesquisar usuários");
+            try {
+                DialogBoxFactory.getInstance().miss("Localizar usuário", "Falha ao pesquisar usuários", mensagem);
+            } catch (IOException e) {
+                lblQtd.setText("Falha ao pesquisar usuários: ".concat(mensagem));
+            }
+        });
 
         atualizaQtd();
 
@@ -98,19 +136,83 @@ public class LocalizadorUsuarioController implements Initializable {
 
     @FXML
     private void jtxNomeFiltroKeyReleased() {
-        List<UsuarioDto> lstUsuarios = usuarioService.buscarTodosOsUsuarios();
+        espera.playFromStart();
+    }
 
-        obsUsuario.clear();
-        lstUsuarios.stream().filter((usuario1) -> (usuario1.getNome().toUpperCase()
-                .startsWith(jtxNomeFiltro.getText().toUpperCase())))
-                .forEachOrdered((usuario1) -> {
-                    obsUsuario.add(null);
-                });
+    private void pesquisar(String prefixo) {
+        if (prefixo.isEmpty()) {
+            pesquisa.cancel();
+            ultimoPrefixo = null;
+            ultimoResultado = new ArrayList<>();
+            mostrar(ultimoResultado);
+            return;
+        }
+        // Um resultado incompleto do prefixo anterior ainda contém todos os usuários do novo prefixo
+        if (ultimoPrefixo != null && ultimoResultado.size() < LIMITE_PESQUISA
+                && normalizar(prefixo).startsWith(normalizar(ultimoPrefixo))) {
+            pesquisa.cancel();
+            String filtro = normalizar(prefixo);
+            mostrar(ultimoResultado.stream()
+                    .filter(usuarioDto -> comecaCom(usuarioDto.getNome(), filtro)
+                            || comecaCom(usuarioDto.getEmail(), filtro))
+                    .collect(Collectors.toList()));
+            return;
+        }
+        pesquisa.setPrefixo(prefixo);
+        pesquisa.restart();
+    }
 
-        tvwUsuario.setItems(obsUsuario);
+    private static boolean comecaCom(String valor, String filtro) {
+        return valor != null && normalizar(valor).startsWith(filtro);
+    }
 
+    // A mesma normalização do índice do backend: minúsculo e sem acentos
+    private static String normalizar(String termo) {
+        return ACENTOS.matcher(Normalizer.normalize(termo, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private void mostrar(List<UsuarioDto> lstUsuarios) {
+        obsUsuario.setAll(lstUsuarios.stream()
+                .map(usuarioDto -> Usuario.builder()
+                        .codigo(usuarioDto.getCodigo())
+                        .nome(usuarioDto.getNome())
+                        .sobreNome(usuarioDto.getSobreNome())
+                        .email(usuarioDto.getEmail())
+                        .sexo(usuarioDto.getSexo())
+                        .dataNascimento(usuarioDto.getDataNascimento())
+                        .usuarioNivelAcesso(usuarioDto.getUsuarioNivelAcesso())
+                        .build())
+                .collect(Collectors.toList()));
         atualizaQtd();
+    }
 
+    /**
+     * Pesquisa os usuários fora da thread do JavaFX. Um {@code restart()}
+     * cancela a pesquisa em andamento, então só o resultado da última tecla
+     * chega à tabela.
+     */
+    private class PesquisaUsuarioService extends Service<List<UsuarioDto>> {
+        private String prefixo;
+
+        private String getPrefixo() {
+            return prefixo;
+        }
+
+        private void setPrefixo(String prefixo) {
+            this.prefixo = prefixo;
+        }
+
+        @Override
+        protected Task<List<UsuarioDto>> createTask() {
+            String prefixoPesquisado = prefixo;
+            return new Task<List<UsuarioDto>>() {
+                @Override
+                protected List<UsuarioDto> call() {
+                    return usuarioService.pesquisarUsuarios(prefixoPesquisado, LIMITE_PESQUISA);
+                }
+            };
+        }
     }
 
-}
\ No newline at end of file
+}
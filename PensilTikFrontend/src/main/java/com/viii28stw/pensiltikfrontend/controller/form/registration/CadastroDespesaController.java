@@ -9,6 +9,8 @@ import com.viii28stw.pensiltikfrontend.enumeration.MenuMatch;
 import com.viii28stw.pensiltikfrontend.enumeration.Sexo;
 import com.viii28stw.pensiltikfrontend.model.domain.Usuario;
 import com.viii28stw.pensiltikfrontend.model.dto.UsuarioDto;
+import com.viii28stw.pensiltikfrontend.service.IImportacaoExtratoService;
+import com.viii28stw.pensiltikfrontend.service.ImportacaoExtratoTask;
 import com.viii28stw.pensiltikfrontend.service.UsuarioService;
 import com.viii28stw.pensiltikfrontend.util.EmailValidator;
 import com.viii28stw.pensiltikfrontend.util.I18nFactory;
@@ -25,6 +27,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.image.ImageView;
@@ -34,14 +37,17 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Paint;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -79,6 +85,12 @@ public class CadastroDespesaController implements Initializable {
     @FXML
     private JFXButton jbtnLimpar;
     @FXML
+    private JFXButton jbtnImportarExtrato;
+    @FXML
+    private ProgressBar pbImportacaoExtrato;
+    @FXML
+    private Label lblImportacaoExtrato;
+    @FXML
     private Label lblSexoObrigatorio;
     @FXML
     private ImageView imgvwSexoObrigatorio;
@@ -557,6 +569,44 @@ public class CadastroDespesaController implements Initializable {
         jbtnSalvar.setText("SALVAR");
     }
 
+    // Importa fora da thread da tela; a barra e o texto acompanham o progresso no backend
+    @FXML
+    private void jbtnImportarExtratoAction() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importar extrato bancário");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Extratos (CSV, OFX)", "*.csv", "*.ofx"));
+        File arquivo = fileChooser.showOpenDialog(cadastroDespesaStage);
+        if (arquivo == null) {
+            return;
+        }
+
+        ImportacaoExtratoTask importacao = new ImportacaoExtratoTask(
+                MainApp.getApplicationContext().getBean(IImportacaoExtratoService.class), arquivo, StandardCharsets.UTF_8);
+        pbImportacaoExtrato.progressProperty().bind(importacao.progressProperty());
+        lblImportacaoExtrato.textProperty().bind(importacao.messageProperty());
+        pbImportacaoExtrato.setVisible(true);
+        lblImportacaoExtrato.setVisible(true);
+        jbtnImportarExtrato.setDisable(true);
+
+        importacao.setOnSucceeded(event -> jbtnImportarExtrato.setDisable(false));
+        importacao.setOnFailed(event -> {
+            jbtnImportarExtrato.setDisable(false);
+            Throwable erro = importacao.getException();
+            String mensagem = erro == null || erro.getMessage() == null ? "" : erro.getMessage();
+            lblImportacaoExtrato.textProperty().unbind();
+            lblImportacaoExtrato.setText("Falha ao importar o extrato");
+            try {
+                DialogBoxFactory.getInstance().miss("Importar extrato", "Falha ao importar o extrato", mensagem);
+            } catch (IOException e) {
+                lblImportacaoExtrato.setText("Falha ao importar o extrato: ".concat(mensagem));
+            }
+        });
+
+        Thread thread = new Thread(importacao, "importacao-extrato-tela");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     @FXML
     private void jbtnFecharAction() {
         cadastroDespesaStage.close();
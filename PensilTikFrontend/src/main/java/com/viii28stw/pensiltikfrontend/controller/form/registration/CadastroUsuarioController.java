@@ -2,6 +2,7 @@ package com.viii28stw.pensiltikfrontend.controller.form.registration;
 
 import com.jfoenix.controls.*;
 import com.jfoenix.validation.RequiredFieldValidator;
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy;
 import com.viii28stw.pensiltikfrontend.MainApp;
 import com.viii28stw.pensiltikfrontend.controller.MainController;
 import com.viii28stw.pensiltikfrontend.controller.dialog.LocalizadorUsuarioController;
@@ -88,6 +89,7 @@ public class CadastroUsuarioController implements Initializable {
     @FXML
     private ImageView imgvwConfirmarSenha;
     private RequiredFieldValidator confirmarSenhaValidator3 = new RequiredFieldValidator();
+    private PasswordPolicy.Avaliador avaliadorSenha;
     @Setter
     private boolean modoEdicao;
     private final ObservableList<Sexo> obsListSexo = FXCollections.observableArrayList();
@@ -103,6 +105,8 @@ public class CadastroUsuarioController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        avaliadorSenha = MainApp.getApplicationContext().getBean(PasswordPolicy.class).novoAvaliador();
+
         lblSexoObrigatorio.setVisible(false);
         imgvwSexoObrigatorio.setVisible(false);
         lblSexoObrigatorio.setStyle("-fx-text-fill: #c00d0d;");
@@ -216,11 +220,19 @@ public class CadastroUsuarioController implements Initializable {
             }
         });
 
+        // Reavalia só o trecho alterado e tira o aviso assim que a senha passa a valer
+        jpwSenha.textProperty().addListener((observable, oldValue, newValue) -> {
+            if (avaliadorSenha.avaliar(newValue) == 0) {
+                lblSenhaInvalida.setVisible(false);
+                imgvwSenhaInvalida.setVisible(false);
+            }
+        });
+
         jpwSenha.focusedProperty().addListener((ObservableValue<? extends Boolean> arg0,
                                                 Boolean oldPropertyValue, Boolean newPropertyValue) -> {
             if (oldPropertyValue) {
                 if (jpwSenha.validate()) {
-                    if (PasswordValidator.isValidPassword(jpwSenha.getText())) {
+                    if (avaliadorSenha.isValido()) {
                         lblSenhaInvalida.setVisible(false);
                         imgvwSenhaInvalida.setVisible(false);
                     } else {
@@ -423,7 +435,7 @@ public class CadastroUsuarioController implements Initializable {
         }
 
         if (jpwSenha.validate()) {
-            if (!PasswordValidator.isValidPassword(jpwSenha.getText())) {
+            if (avaliadorSenha.avaliar(jpwSenha.getText()) != 0) {
                 lblSenhaInvalida.setText("Senha: Inválido");
                 lblSenhaInvalida.setVisible(true);
                 imgvwSenhaInvalida.setVisible(true);
@@ -14,6 +14,7 @@ import lombok.ToString;
 public class Sessao {
     @Getter @Setter private Usuario usuario;
     @Getter @Setter private boolean logoutRequest;
+    @Getter @Setter private String tokenSessao;
     private static Sessao uniqueInstance;
 
     public static synchronized Sessao getInstance() {
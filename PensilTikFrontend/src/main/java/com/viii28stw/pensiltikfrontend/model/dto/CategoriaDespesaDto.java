@@ -0,0 +1,21 @@
+package com.viii28stw.pensiltikfrontend.model.dto;
+
+import lombok.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class CategoriaDespesaDto {
+
+    private Integer codigo;
+    private Integer codigoPai;
+    @NotBlank @Size(max = 50) private String descricao;
+    private boolean padrao;
+
+}
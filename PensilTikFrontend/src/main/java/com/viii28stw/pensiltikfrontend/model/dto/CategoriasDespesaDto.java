@@ -0,0 +1,18 @@
+package com.viii28stw.pensiltikfrontend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class CategoriasDespesaDto {
+
+    private long versao;
+    private List<CategoriaDespesaDto> categorias;
+
+}
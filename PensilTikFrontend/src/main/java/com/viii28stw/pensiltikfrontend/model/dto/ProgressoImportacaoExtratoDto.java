@@ -0,0 +1,23 @@
+package com.viii28stw.pensiltikfrontend.model.dto;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class ProgressoImportacaoExtratoDto {
+
+    private long bytesLidos;
+    private long bytesTotal;
+    private long lancamentos;
+    private long importadas;
+    private long duplicadas;
+    private long ignoradas;
+    private long rejeitadas;
+    private boolean concluida;
+
+}
@@ -0,0 +1,22 @@
+package com.viii28stw.pensiltikfrontend.model.dto;
+
+import lombok.*;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class RelatorioImportacaoExtratoDto {
+
+    private long lancamentos;
+    private long importadas;
+    private long duplicadas;
+    private long ignoradas;
+    private long rejeitadas;
+    private List<ResultadoImportacaoDto> erros;
+
+}
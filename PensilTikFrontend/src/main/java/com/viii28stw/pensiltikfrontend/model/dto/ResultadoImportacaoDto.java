@@ -0,0 +1,17 @@
+package com.viii28stw.pensiltikfrontend.model.dto;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Builder
+public class ResultadoImportacaoDto {
+
+    private int linha;
+    private String erro;
+
+}
@@ -1,5 +1,6 @@
 package com.viii28stw.pensiltikfrontend.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -33,4 +34,8 @@ public class UsuarioDto{
 
     private UsuarioNivelAcesso usuarioNivelAcesso;
 
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String tokenSessao;
+
 }
@@ -0,0 +1,115 @@
+package com.viii28stw.pensiltikfrontend.service;
+
+import com.viii28stw.pensiltikcommon.categoria.CatalogoCategorias;
+import com.viii28stw.pensiltikcommon.categoria.Categoria;
+import com.viii28stw.pensiltikcommon.categoria.CategoriaCache;
+import com.viii28stw.pensiltikfrontend.model.domain.Sessao;
+import com.viii28stw.pensiltikfrontend.model.dto.CategoriaDespesaDto;
+import com.viii28stw.pensiltikfrontend.model.dto.CategoriasDespesaDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catálogo de categorias de despesa do usuário logado, guardado em memória
+ * para que as telas resolvam a descrição e o caminho de cada categoria sem
+ * ir ao backend.
+ *
+ * {@link #sincronizar()} envia a versão guardada e o backend só devolve o
+ * catálogo quando ela mudou (senão responde 304); as gravações de categoria
+ * descartam o catálogo guardado, que é baixado de novo no próximo uso.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Component
+public class CategoriaDespesaService implements ICategoriaDespesaService {
+    @Value("${basic.auth.user}")
+    private String basicAuthUser;
+    @Value("${basic.auth.password}")
+    private String basicAuthPassword;
+    @Value("${url.prefix}")
+    private String urlPrefix;
+    @Value("${header.name}")
+    private String headerName;
+    @Value("${url.search.expense.categories}")
+    private String urlSearchExpenseCategories;
+    @Value("${url.save.expense.category}")
+    private String urlSaveExpenseCategory;
+    @Value("${url.delete.expense.category.by.id}")
+    private String urlDeleteExpenseCategoryById;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private HttpHeaders httpHeaders;
+
+    private final CategoriaCache<String> catalogos = new CategoriaCache<>();
+
+    @Override
+    public CatalogoCategorias buscarCatalogo() {
+        CatalogoCategorias catalogo = catalogos.getSePresente(codigoUsuario());
+        return catalogo != null ? catalogo : sincronizar();
+    }
+
+    @Override
+    public CatalogoCategorias sincronizar() {
+        String codigoUsuario = codigoUsuario();
+        ResponseEntity<CategoriasDespesaDto> responseEntityCategorias = restTemplate()
+                .exchange(urlPrefix.concat(urlSearchExpenseCategories).concat("?versao={versao}"),
+                        HttpMethod.GET, new HttpEntity<>(headers()), CategoriasDespesaDto.class,
+                        catalogos.versao(codigoUsuario));
+        CategoriasDespesaDto categoriasDespesaDto = responseEntityCategorias.getBody();
+        if (responseEntityCategorias.getStatusCode() == HttpStatus.NOT_MODIFIED || categoriasDespesaDto == null) {
+            return catalogos.getSePresente(codigoUsuario);
+        }
+
+        List<Categoria> categorias = new ArrayList<>();
+        for (CategoriaDespesaDto categoriaDespesaDto : categoriasDespesaDto.getCategorias()) {
+            categorias.add(new Categoria(categoriaDespesaDto.getCodigo(),
+                    categoriaDespesaDto.getCodigoPai() == null ? Categoria.SEM_PAI : categoriaDespesaDto.getCodigoPai(),
+                    categoriaDespesaDto.getDescricao(), categoriaDespesaDto.isPadrao()));
+        }
+        CatalogoCategorias catalogo = new CatalogoCategorias(categoriasDespesaDto.getVersao(), categorias);
+        catalogos.atualizar(codigoUsuario, catalogo);
+        return catalogo;
+    }
+
+    @Override
+    public CategoriaDespesaDto salvarCategoria(CategoriaDespesaDto categoriaDespesaDto) {
+        ResponseEntity<CategoriaDespesaDto> responseEntityCategoria = restTemplate()
+                .exchange(urlPrefix.concat(urlSaveExpenseCategory), HttpMethod.POST,
+                        new HttpEntity<>(categoriaDespesaDto, headers()), CategoriaDespesaDto.class);
+        catalogos.invalidar(codigoUsuario());
+        return responseEntityCategoria.getBody();
+    }
+
+    @Override
+    public boolean deletarCategoriaPorId(Integer codigo) {
+        ResponseEntity<Boolean> responseEntityDeletou = restTemplate()
+                .exchange(urlPrefix.concat(urlDeleteExpenseCategoryById), HttpMethod.DELETE,
+                        new HttpEntity<>(CategoriaDespesaDto.builder().codigo(codigo).build(), headers()), Boolean.class);
+        catalogos.invalidar(codigoUsuario());
+        return Boolean.TRUE.equals(responseEntityDeletou.getBody());
+    }
+
+    private RestTemplate restTemplate() {
+        return restTemplateBuilder.basicAuthentication(basicAuthUser, basicAuthPassword).build();
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpHeaders);
+        headers.set(headerName, Sessao.getInstance().getTokenSessao());
+        return headers;
+    }
+
+    private static String codigoUsuario() {
+        return Sessao.getInstance().getUsuario().getCodigo();
+    }
+
+}
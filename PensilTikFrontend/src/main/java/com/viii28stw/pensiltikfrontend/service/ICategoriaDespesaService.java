@@ -0,0 +1,16 @@
+package com.viii28stw.pensiltikfrontend.service;
+
+import com.viii28stw.pensiltikcommon.categoria.CatalogoCategorias;
+import com.viii28stw.pensiltikfrontend.model.dto.CategoriaDespesaDto;
+
+public interface ICategoriaDespesaService {
+
+    CatalogoCategorias buscarCatalogo();
+
+    CatalogoCategorias sincronizar();
+
+    CategoriaDespesaDto salvarCategoria(CategoriaDespesaDto categoriaDespesaDto);
+
+    boolean deletarCategoriaPorId(Integer codigo);
+
+}
@@ -0,0 +1,14 @@
+package com.viii28stw.pensiltikfrontend.service;
+
+import com.viii28stw.pensiltikfrontend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikfrontend.model.dto.RelatorioImportacaoExtratoDto;
+import java.io.File;
+import java.nio.charset.Charset;
+
+public interface IImportacaoExtratoService {
+
+    RelatorioImportacaoExtratoDto importarExtrato(File arquivo, Charset charset);
+
+    ProgressoImportacaoExtratoDto buscarProgresso();
+
+}
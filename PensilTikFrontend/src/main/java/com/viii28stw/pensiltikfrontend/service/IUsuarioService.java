@@ -13,6 +13,8 @@ public interface IUsuarioService {
 
     List<UsuarioDto> buscarTodosOsUsuarios();
 
+    List<UsuarioDto> pesquisarUsuarios(String prefixo, int limite);
+
     UsuarioDto salvarUsuario(UsuarioDto usuarioDto);
 
     UsuarioDto atualizarUsuario(UsuarioDto usuarioDto);
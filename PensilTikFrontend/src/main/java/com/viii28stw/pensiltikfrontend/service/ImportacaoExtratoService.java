@@ -0,0 +1,88 @@
+package com.viii28stw.pensiltikfrontend.service;
+
+import com.viii28stw.pensiltikfrontend.model.domain.Sessao;
+import com.viii28stw.pensiltikfrontend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikfrontend.model.dto.RelatorioImportacaoExtratoDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Envia extratos bancários para o backend importar como despesas.
+ *
+ * O arquivo segue em fluxo, sem ser carregado na memória, com o tamanho no
+ * Content-Length para que {@link #buscarProgresso()} possa ser mostrado em
+ * porcentagem; {@link ImportacaoExtratoTask} faz as duas coisas fora da
+ * thread da tela.
+ *
+ * @author Plamedi L. Lusembo
+ */
+@Component
+public class ImportacaoExtratoService implements IImportacaoExtratoService {
+    @Value("${basic.auth.user}")
+    private String basicAuthUser;
+    @Value("${basic.auth.password}")
+    private String basicAuthPassword;
+    @Value("${url.prefix}")
+    private String urlPrefix;
+    @Value("${header.name}")
+    private String headerName;
+    @Value("${url.import.bank.statement}")
+    private String urlImportBankStatement;
+    @Value("${url.bank.statement.import.progress}")
+    private String urlBankStatementImportProgress;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private HttpHeaders httpHeaders;
+
+    @Override
+    public RelatorioImportacaoExtratoDto importarExtrato(File arquivo, Charset charset) {
+        boolean ofx = arquivo.getName().toLowerCase(Locale.ROOT).endsWith(".ofx");
+        HttpHeaders headers = headers();
+        headers.setContentType(ofx ? MediaType.valueOf("application/x-ofx")
+                : new MediaType("text", "csv", charset));
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        // Sem buffer o corpo vai direto do arquivo para a conexão
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setBufferRequestBody(false);
+        RestTemplate restTemplate = restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .basicAuthentication(basicAuthUser, basicAuthPassword)
+                .build();
+
+        ResponseEntity<RelatorioImportacaoExtratoDto> responseEntityRelatorio = restTemplate
+                .exchange(urlPrefix.concat(urlImportBankStatement).concat("?formato={formato}"), HttpMethod.POST,
+                        new HttpEntity<>(new FileSystemResource(arquivo), headers),
+                        RelatorioImportacaoExtratoDto.class, ofx ? "OFX" : "CSV");
+        return responseEntityRelatorio.getBody();
+    }
+
+    @Override
+    public ProgressoImportacaoExtratoDto buscarProgresso() {
+        ResponseEntity<ProgressoImportacaoExtratoDto> responseEntityProgresso = restTemplateBuilder
+                .basicAuthentication(basicAuthUser, basicAuthPassword).build()
+                .exchange(urlPrefix.concat(urlBankStatementImportProgress), HttpMethod.GET,
+                        new HttpEntity<>(headers()), ProgressoImportacaoExtratoDto.class);
+        return responseEntityProgresso.getBody();
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpHeaders);
+        headers.set(headerName, Sessao.getInstance().getTokenSessao());
+        return headers;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.viii28stw.pensiltikfrontend.service;
+
+import com.viii28stw.pensiltikfrontend.model.dto.ProgressoImportacaoExtratoDto;
+import com.viii28stw.pensiltikfrontend.model.dto.RelatorioImportacaoExtratoDto;
+import javafx.concurrent.Task;
+import org.springframework.web.client.RestClientException;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Importa um extrato fora da thread da tela. Enquanto o arquivo é enviado,
+ * consulta o progresso no backend e o publica em {@link #progressProperty()}
+ * (bytes lidos sobre o tamanho do arquivo) e {@link #messageProperty()},
+ * prontos para uma ProgressBar e um Label.
+ *
+ * @author Plamedi L. Lusembo
+ */
+public class ImportacaoExtratoTask extends Task<RelatorioImportacaoExtratoDto> {
+
+    private static final long INTERVALO_PROGRESSO_MILLIS = 500;
+
+    private final IImportacaoExtratoService importacaoExtratoService;
+    private final File arquivo;
+    private final Charset charset;
+
+    public ImportacaoExtratoTask(IImportacaoExtratoService importacaoExtratoService, File arquivo, Charset charset) {
+        this.importacaoExtratoService = importacaoExtratoService;
+        this.arquivo = arquivo;
+        this.charset = charset;
+    }
+
+    @Override
+    protected RelatorioImportacaoExtratoDto call() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "importacao-extrato");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<RelatorioImportacaoExtratoDto> envio = executor.submit(() ->
+                    importacaoExtratoService.importarExtrato(arquivo, charset));
+            updateMessage("Enviando " + arquivo.getName());
+            while (true) {
+                try {
+                    RelatorioImportacaoExtratoDto relatorio = envio.get(INTERVALO_PROGRESSO_MILLIS, TimeUnit.MILLISECONDS);
+                    updateProgress(1, 1);
+                    updateMessage(String.format("%d despesas importadas, %d duplicadas, %d créditos ignorados, %d linhas com erro",
+                            relatorio.getImportadas(), relatorio.getDuplicadas(), relatorio.getIgnoradas(),
+                            relatorio.getRejeitadas()));
+                    return relatorio;
+                } catch (TimeoutException e) {
+                    atualizarProgresso();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void atualizarProgresso() {
+        ProgressoImportacaoExtratoDto progresso;
+        try {
+            progresso = importacaoExtratoService.buscarProgresso();
+        } catch (RestClientException e) {
+            // O backend ainda não começou a ler o arquivo
+            return;
+        }
+        // Uma importação concluída é a anterior; a resposta do envio traz o resultado desta
+        if (progresso == null || progresso.isConcluida()) return;
+        long total = progresso.getBytesTotal() > 0 ? progresso.getBytesTotal() : arquivo.length();
+        updateProgress(Math.min(progresso.getBytesLidos(), total), total);
+        updateMessage(String.format("%d lançamentos lidos, %d despesas importadas, %d duplicadas",
+                progresso.getLancamentos(), progresso.getImportadas(), progresso.getDuplicadas()));
+    }
+
+}
@@ -11,6 +11,8 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Component
@@ -21,8 +23,12 @@ public class UsuarioService implements IUsuarioService {
     private String basicAuthPassword;
     @Value("${url.prefix}")
     private String urlPrefix;
+    @Value("${header.name}")
+    private String headerName;
     @Value("${url.login}")
     private String urlLogin;
+    @Value("${url.search.users.by.prefix}")
+    private String urlSearchUsersByPrefix;
 
     @Autowired
     private RestTemplateBuilder restTemplateBuilder;
@@ -45,6 +51,22 @@ public class UsuarioService implements IUsuarioService {
         return null;
     }
 
+    @Override
+    public List<UsuarioDto> pesquisarUsuarios(String prefixo, int limite) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpHeaders);
+        headers.set(headerName, Sessao.getInstance().getTokenSessao());
+        RestTemplate restTemplate = restTemplateBuilder.basicAuthentication(basicAuthUser, basicAuthPassword).build();
+
+        ResponseEntity<UsuarioDto[]> responseEntityUsuarios = restTemplate
+                .exchange(urlPrefix.concat(urlSearchUsersByPrefix).concat("?prefixo={prefixo}&limite={limite}"),
+                        HttpMethod.GET, new HttpEntity<>(headers), UsuarioDto[].class, prefixo, limite);
+        if (responseEntityUsuarios.getBody() == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(responseEntityUsuarios.getBody());
+    }
+
     @Override
     public UsuarioDto salvarUsuario(UsuarioDto usuarioDto) {
         return null;
@@ -83,12 +105,13 @@ public class UsuarioService implements IUsuarioService {
                         .nome(usuarioDto1.getNome())
                         .sobreNome(usuarioDto1.getSobreNome())
                         .email(usuarioDto1.getEmail())
-                        .senha(usuarioDto1.getSenha())
+                        .senha(usuarioDto.getSenha())
                         .sexo(usuarioDto1.getSexo())
                         .dataNascimento(usuarioDto1.getDataNascimento())
                         .build();
 
                 Sessao.getInstance().setUsuario(usuario);
+                Sessao.getInstance().setTokenSessao(usuarioDto1.getTokenSessao());
                 Sessao.getInstance().setLogoutRequest(false);
 
                 return usuarioDto;
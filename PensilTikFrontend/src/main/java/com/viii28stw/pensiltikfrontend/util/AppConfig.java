@@ -1,8 +1,10 @@
 package com.viii28stw.pensiltikfrontend.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viii28stw.pensiltikcommon.validation.PasswordPolicy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
@@ -16,6 +18,12 @@ public class AppConfig {
         return httpHeaders;
     }
 
+    // As mesmas chaves senha.politica.* do backend, para a tela recusar o que o backend recusaria
+    @Bean
+    public PasswordPolicy passwordPolicy(Environment environment) {
+        return PasswordPolicy.fromProperties(environment::getProperty);
+    }
+
 
 
 }
\ No newline at end of file
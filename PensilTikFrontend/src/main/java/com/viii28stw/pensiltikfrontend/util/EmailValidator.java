@@ -1,16 +1,10 @@
 package com.viii28stw.pensiltikfrontend.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * @author Plamedi L. Lusembo
  */
 public class EmailValidator {
     public static boolean isValidEmail(String email) {
-        if(email == null) return false;
-        Pattern p = Pattern.compile("^[\\w-]+(\\.[\\w-]+)*@([\\w-]+\\.)+[a-zA-Z]{2,7}$");
-        Matcher m = p.matcher(email);
-        return m.find();
+        return com.viii28stw.pensiltikcommon.validation.EmailValidator.padrao().isValid(email);
     }
-}
\ No newline at end of file
+}